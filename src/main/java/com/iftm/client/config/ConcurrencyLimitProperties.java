@@ -0,0 +1,117 @@
+package com.iftm.client.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "client.concurrency-limit")
+public class ConcurrencyLimitProperties {
+	
+	private boolean enabled = true;
+	private String defaultGroup = "bulk";
+	private Map<String, String> routes = new HashMap<>();
+	private Map<String, Group> groups = new HashMap<>();
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getDefaultGroup() {
+		return defaultGroup;
+	}
+
+	public void setDefaultGroup(String defaultGroup) {
+		this.defaultGroup = defaultGroup;
+	}
+
+	public Map<String, String> getRoutes() {
+		return routes;
+	}
+
+	public void setRoutes(Map<String, String> routes) {
+		this.routes = routes;
+	}
+
+	public Map<String, Group> getGroups() {
+		return groups;
+	}
+
+	public void setGroups(Map<String, Group> groups) {
+		this.groups = groups;
+	}
+	
+	public String groupFor(String route) {
+		return routes.getOrDefault(route, defaultGroup);
+	}
+	
+	public Group group(String name) {
+		return groups.getOrDefault(name, new Group());
+	}
+
+	public static class Group {
+		
+		private int initialLimit = 20;
+		private int minLimit = 2;
+		private int maxLimit = 200;
+		private double readShare = 0.75;
+		private double latencyTolerance = 2.0;
+		private double backoffRatio = 0.9;
+		
+		public int getInitialLimit() {
+			return initialLimit;
+		}
+
+		public void setInitialLimit(int initialLimit) {
+			this.initialLimit = initialLimit;
+		}
+
+		public int getMinLimit() {
+			return minLimit;
+		}
+
+		public void setMinLimit(int minLimit) {
+			this.minLimit = minLimit;
+		}
+
+		public int getMaxLimit() {
+			return maxLimit;
+		}
+
+		public void setMaxLimit(int maxLimit) {
+			this.maxLimit = maxLimit;
+		}
+
+		public double getReadShare() {
+			return readShare;
+		}
+
+		public void setReadShare(double readShare) {
+			this.readShare = readShare;
+		}
+
+		public double getLatencyTolerance() {
+			return latencyTolerance;
+		}
+
+		public void setLatencyTolerance(double latencyTolerance) {
+			this.latencyTolerance = latencyTolerance;
+		}
+
+		public double getBackoffRatio() {
+			return backoffRatio;
+		}
+
+		public void setBackoffRatio(double backoffRatio) {
+			this.backoffRatio = backoffRatio;
+		}
+		
+	}
+
+}
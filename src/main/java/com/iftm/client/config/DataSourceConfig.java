@@ -0,0 +1,55 @@
+package com.iftm.client.config;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.iftm.client.datasource.ReadWriteRoutingDataSource;
+import com.iftm.client.datasource.ReplicaMonitor;
+
+@Configuration
+@ConditionalOnProperty(name = "client.datasource.routing.enabled", havingValue = "true")
+public class DataSourceConfig {
+	
+	@Autowired
+	private RoutingProperties properties;
+	
+	@Bean
+	public DataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+		return dataSourceProperties.initializeDataSourceBuilder().build();
+	}
+	
+	@Bean(destroyMethod = "shutdown")
+	public ReplicaMonitor replicaMonitor(@Qualifier("primaryDataSource") DataSource primary) {
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		for (int i = 0; i < properties.getReplicas().size(); i++) {
+			replicas.put("replica-" + i, properties.getReplicas().get(i).build());
+		}
+		return new ReplicaMonitor(primary, replicas, properties.getMaxLag(),
+				properties.getHealthCheckIntervalMs());
+	}
+	
+	@Bean
+	@Primary
+	public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaMonitor monitor) {
+		Map<Object, Object> targets = new HashMap<>(monitor.getReplicas());
+		targets.put(ReadWriteRoutingDataSource.PRIMARY, primary);
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(monitor);
+		routing.setTargetDataSources(targets);
+		routing.setDefaultTargetDataSource(primary);
+		routing.afterPropertiesSet();
+		return new LazyConnectionDataSourceProxy(routing);
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.iftm.client.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.jdbc.DataSourceBuilder;
+
+public class DatabaseProperties {
+	
+	private String url;
+	private String username;
+	private String password;
+	
+	public String getUrl() {
+		return url;
+	}
+
+	public void setUrl(String url) {
+		this.url = url;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public void setUsername(String username) {
+		this.username = username;
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	public void setPassword(String password) {
+		this.password = password;
+	}
+	
+	public DataSource build() {
+		return DataSourceBuilder.create().url(url).username(username).password(password).build();
+	}
+
+}
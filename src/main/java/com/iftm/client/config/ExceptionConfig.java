@@ -0,0 +1,21 @@
+package com.iftm.client.config;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import com.iftm.client.services.exceptions.ServiceException;
+
+@Configuration
+public class ExceptionConfig {
+	
+	@Value("${client.exceptions.stack-traces:true}")
+	private boolean stackTraces;
+	
+	@PostConstruct
+	public void init() {
+		ServiceException.setStackTraces(stackTraces);
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.iftm.client.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iftm.client.repositories.IdempotencyRecordRepository;
+import com.iftm.client.resources.idempotency.DatabaseIdempotencyStore;
+import com.iftm.client.resources.idempotency.IdempotencyStore;
+import com.iftm.client.resources.idempotency.InMemoryIdempotencyStore;
+
+@Configuration
+public class IdempotencyConfig {
+	
+	@Value("${client.idempotency.max-entries:10000}")
+	private int maxEntries;
+	
+	@Value("${client.idempotency.ttl-ms:86400000}")
+	private long ttlMillis;
+	
+	@Value("${client.idempotency.lease-ms:60000}")
+	private long leaseMillis;
+	
+	@Bean
+	@ConditionalOnProperty(name = "client.idempotency.store", havingValue = "database")
+	public DatabaseIdempotencyStore databaseIdempotencyStore(IdempotencyRecordRepository repository,
+			ObjectMapper objectMapper) {
+		return new DatabaseIdempotencyStore(repository, objectMapper, ttlMillis, leaseMillis);
+	}
+	
+	@Bean
+	@Primary
+	public IdempotencyStore idempotencyStore(ObjectProvider<DatabaseIdempotencyStore> backend) {
+		return new InMemoryIdempotencyStore(maxEntries, ttlMillis, backend.getIfAvailable());
+	}
+
+}
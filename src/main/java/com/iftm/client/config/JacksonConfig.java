@@ -0,0 +1,30 @@
+package com.iftm.client.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientFieldsDTO;
+import com.iftm.client.dto.json.ClientDTOSerializer;
+import com.iftm.client.dto.json.ClientFieldsDTOSerializer;
+import com.iftm.client.dto.json.ClientSerializer;
+import com.iftm.client.dto.json.StandardErrorSerializer;
+import com.iftm.client.entities.Client;
+import com.iftm.client.resources.exceptions.StandardError;
+
+@Configuration
+public class JacksonConfig {
+	
+	@Bean
+	public Module clientJsonModule() {
+		SimpleModule module = new SimpleModule("clientJson");
+		module.addSerializer(ClientDTO.class, new ClientDTOSerializer());
+		module.addSerializer(ClientFieldsDTO.class, new ClientFieldsDTOSerializer());
+		module.addSerializer(Client.class, new ClientSerializer());
+		module.addSerializer(StandardError.class, new StandardErrorSerializer());
+		return module;
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.iftm.client.config;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.iftm.client.journal.ClientJournal;
+import com.iftm.client.journal.MappedClientJournal;
+import com.iftm.client.journal.NoOpClientJournal;
+
+@Configuration
+public class JournalConfig {
+	
+	@Value("${client.journal.enabled:false}")
+	private boolean enabled;
+	
+	@Value("${client.journal.directory:journal}")
+	private String directory;
+	
+	@Value("${client.journal.segment-size:67108864}")
+	private int segmentSize;
+	
+	@Value("${client.journal.flush-interval-ms:5}")
+	private long flushIntervalMillis;
+	
+	@Value("${client.journal.sync:true}")
+	private boolean sync;
+	
+	@Bean
+	public ClientJournal clientJournal() throws IOException {
+		if (!enabled) {
+			return new NoOpClientJournal();
+		}
+		return new MappedClientJournal(Paths.get(directory), segmentSize, flushIntervalMillis, sync);
+	}
+
+}
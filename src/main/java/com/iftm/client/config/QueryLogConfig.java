@@ -0,0 +1,32 @@
+package com.iftm.client.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.iftm.client.datasource.QueryLoggingDataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "client.query-log.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryLogConfig {
+	
+	@Bean
+	public static BeanPostProcessor queryLoggingPostProcessor(
+			@Value("${client.query-log.slow-threshold-ms:200}") long slowThresholdMillis) {
+		return new BeanPostProcessor() {
+			
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if ("dataSource".equals(beanName) && bean instanceof DataSource && !(bean instanceof QueryLoggingDataSource)) {
+					return new QueryLoggingDataSource((DataSource) bean, slowThresholdMillis);
+				}
+				return bean;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.iftm.client.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "client.rate-limit")
+public class RateLimitProperties {
+	
+	private boolean enabled = true;
+	private String apiKeyHeader = "X-API-Key";
+	private int maxTrackedClients = 100000;
+	private Limit defaultLimit = new Limit();
+	private Map<String, Limit> routes = new HashMap<>();
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getApiKeyHeader() {
+		return apiKeyHeader;
+	}
+
+	public void setApiKeyHeader(String apiKeyHeader) {
+		this.apiKeyHeader = apiKeyHeader;
+	}
+
+	public int getMaxTrackedClients() {
+		return maxTrackedClients;
+	}
+
+	public void setMaxTrackedClients(int maxTrackedClients) {
+		this.maxTrackedClients = maxTrackedClients;
+	}
+
+	public Limit getDefaultLimit() {
+		return defaultLimit;
+	}
+
+	public void setDefaultLimit(Limit defaultLimit) {
+		this.defaultLimit = defaultLimit;
+	}
+
+	public Map<String, Limit> getRoutes() {
+		return routes;
+	}
+
+	public void setRoutes(Map<String, Limit> routes) {
+		this.routes = routes;
+	}
+	
+	public Limit limitFor(String route) {
+		return routes.getOrDefault(route, defaultLimit);
+	}
+
+	public static class Limit {
+		
+		private double perSecond = 50;
+		private int burst = 100;
+		private double globalPerSecond = 1000;
+		private int globalBurst = 2000;
+		
+		public double getPerSecond() {
+			return perSecond;
+		}
+
+		public void setPerSecond(double perSecond) {
+			this.perSecond = perSecond;
+		}
+
+		public int getBurst() {
+			return burst;
+		}
+
+		public void setBurst(int burst) {
+			this.burst = burst;
+		}
+
+		public double getGlobalPerSecond() {
+			return globalPerSecond;
+		}
+
+		public void setGlobalPerSecond(double globalPerSecond) {
+			this.globalPerSecond = globalPerSecond;
+		}
+
+		public int getGlobalBurst() {
+			return globalBurst;
+		}
+
+		public void setGlobalBurst(int globalBurst) {
+			this.globalBurst = globalBurst;
+		}
+		
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.iftm.client.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "client.datasource.routing")
+public class RoutingProperties {
+	
+	private boolean enabled = false;
+	private long healthCheckIntervalMs = 1000;
+	private long maxLag = 0;
+	private long stickinessMs = 2000;
+	private List<DatabaseProperties> replicas = new ArrayList<>();
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getHealthCheckIntervalMs() {
+		return healthCheckIntervalMs;
+	}
+
+	public void setHealthCheckIntervalMs(long healthCheckIntervalMs) {
+		this.healthCheckIntervalMs = healthCheckIntervalMs;
+	}
+
+	public long getMaxLag() {
+		return maxLag;
+	}
+
+	public void setMaxLag(long maxLag) {
+		this.maxLag = maxLag;
+	}
+
+	public long getStickinessMs() {
+		return stickinessMs;
+	}
+
+	public void setStickinessMs(long stickinessMs) {
+		this.stickinessMs = stickinessMs;
+	}
+
+	public List<DatabaseProperties> getReplicas() {
+		return replicas;
+	}
+
+	public void setReplicas(List<DatabaseProperties> replicas) {
+		this.replicas = replicas;
+	}
+
+}
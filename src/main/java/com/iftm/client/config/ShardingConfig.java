@@ -0,0 +1,43 @@
+package com.iftm.client.config;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.iftm.client.repositories.sharding.CpfHashShardResolver;
+import com.iftm.client.repositories.sharding.IdRangeShardResolver;
+import com.iftm.client.repositories.sharding.ShardResolver;
+import com.iftm.client.repositories.sharding.ShardedClientRepository;
+
+@Configuration
+@ConditionalOnProperty(name = "client.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+	
+	@Autowired
+	private ShardingProperties properties;
+	
+	@Bean
+	public ShardResolver shardResolver() {
+		int shards = properties.getShards().size();
+		if ("cpf-hash".equals(properties.getStrategy())) {
+			return new CpfHashShardResolver(shards);
+		}
+		return new IdRangeShardResolver(shards, properties.getRangeSize());
+	}
+	
+	@Bean(destroyMethod = "shutdown")
+	public ShardedClientRepository shardedClientRepository(ShardResolver shardResolver) {
+		List<DataSource> dataSources = properties.getShards().stream()
+				.map(DatabaseProperties::build)
+				.collect(Collectors.toList());
+		return new ShardedClientRepository(dataSources, shardResolver, properties.getIdBlockSize(),
+				properties.getQueryThreads(), properties.getQueryQueueCapacity());
+	}
+
+}
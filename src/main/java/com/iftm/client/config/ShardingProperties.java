@@ -0,0 +1,77 @@
+package com.iftm.client.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "client.sharding")
+public class ShardingProperties {
+	
+	private boolean enabled = false;
+	private String strategy = "id-range";
+	private long rangeSize = 1000000L;
+	private int idBlockSize = 100;
+	private int queryThreads = 16;
+	private int queryQueueCapacity = 1000;
+	private List<DatabaseProperties> shards = new ArrayList<>();
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getStrategy() {
+		return strategy;
+	}
+
+	public void setStrategy(String strategy) {
+		this.strategy = strategy;
+	}
+
+	public long getRangeSize() {
+		return rangeSize;
+	}
+
+	public void setRangeSize(long rangeSize) {
+		this.rangeSize = rangeSize;
+	}
+
+	public int getIdBlockSize() {
+		return idBlockSize;
+	}
+
+	public void setIdBlockSize(int idBlockSize) {
+		this.idBlockSize = idBlockSize;
+	}
+
+	public int getQueryThreads() {
+		return queryThreads;
+	}
+
+	public void setQueryThreads(int queryThreads) {
+		this.queryThreads = queryThreads;
+	}
+
+	public int getQueryQueueCapacity() {
+		return queryQueueCapacity;
+	}
+
+	public void setQueryQueueCapacity(int queryQueueCapacity) {
+		this.queryQueueCapacity = queryQueueCapacity;
+	}
+
+	public List<DatabaseProperties> getShards() {
+		return shards;
+	}
+
+	public void setShards(List<DatabaseProperties> shards) {
+		this.shards = shards;
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.iftm.client.config;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Paths;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+
+import com.iftm.client.tracing.FileSpanExporter;
+import com.iftm.client.tracing.InMemorySpanExporter;
+import com.iftm.client.tracing.SpanExporter;
+import com.iftm.client.tracing.Tracer;
+import com.iftm.client.tracing.TracingMethodInterceptor;
+
+@Configuration
+public class TracingConfig {
+	
+	private static final String SERVICES_PACKAGE = "com.iftm.client.services.";
+	private static final String REPOSITORIES_PACKAGE = "com.iftm.client.repositories.";
+	
+	@Value("${client.tracing.enabled:false}")
+	private boolean enabled;
+	
+	@Value("${client.tracing.sample-rate:0.01}")
+	private double sampleRate;
+	
+	@Value("${client.tracing.trust-inbound-sampling:false}")
+	private boolean trustInboundSampling;
+	
+	@Value("${client.tracing.exporter:memory}")
+	private String exporter;
+	
+	@Value("${client.tracing.file:traces/spans.jsonl}")
+	private String file;
+	
+	@Value("${client.tracing.max-spans:10000}")
+	private int maxSpans;
+	
+	@Bean
+	public SpanExporter spanExporter() throws IOException {
+		if ("file".equals(exporter)) {
+			return new FileSpanExporter(Paths.get(file));
+		}
+		return new InMemorySpanExporter(maxSpans);
+	}
+	
+	@Bean(destroyMethod = "shutdown")
+	public Tracer tracer(SpanExporter spanExporter) {
+		return new Tracer(enabled, sampleRate, trustInboundSampling, spanExporter);
+	}
+	
+	@Bean
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	@ConditionalOnProperty(name = "client.tracing.enabled", havingValue = "true")
+	public static Advisor tracingAdvisor() {
+		StaticMethodMatcherPointcutAdvisor advisor = new StaticMethodMatcherPointcutAdvisor(new TracingMethodInterceptor()) {
+			
+			@Override
+			public boolean matches(Method method, Class<?> targetClass) {
+				return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class
+						&& isTraced(targetClass);
+			}
+		};
+		advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return advisor;
+	}
+	
+	private static boolean isTraced(Class<?> type) {
+		return type.getName().startsWith(SERVICES_PACKAGE) && !type.getName().startsWith(SERVICES_PACKAGE + "util.")
+				|| type.getName().startsWith(REPOSITORIES_PACKAGE) || Repository.class.isAssignableFrom(type);
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.iftm.client.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.iftm.client.dto.json.TracingJacksonHttpMessageConverter;
+import com.iftm.client.resources.interceptors.ConcurrencyLimitInterceptor;
+import com.iftm.client.resources.interceptors.QueryCountInterceptor;
+import com.iftm.client.resources.interceptors.RateLimitInterceptor;
+import com.iftm.client.resources.interceptors.ReadYourWritesInterceptor;
+import com.iftm.client.resources.interceptors.TracingInterceptor;
+import com.iftm.client.tracing.Tracer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+	
+	@Autowired
+	private RateLimitInterceptor rateLimitInterceptor;
+	
+	@Autowired
+	private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+	
+	@Autowired
+	private ReadYourWritesInterceptor readYourWritesInterceptor;
+	
+	@Autowired
+	private QueryCountInterceptor queryCountInterceptor;
+	
+	@Autowired
+	private TracingInterceptor tracingInterceptor;
+	
+	@Autowired
+	private Tracer tracer;
+	
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(tracingInterceptor).addPathPatterns("/clients", "/clients/**", "/snapshots", "/snapshots/**");
+		registry.addInterceptor(queryCountInterceptor).addPathPatterns("/clients", "/clients/**");
+		registry.addInterceptor(concurrencyLimitInterceptor).addPathPatterns("/clients", "/clients/**");
+		registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/clients", "/clients/**", "/snapshots", "/snapshots/**");
+		registry.addInterceptor(readYourWritesInterceptor).addPathPatterns("/clients", "/clients/**");
+	}
+	
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		if (!tracer.isEnabled()) {
+			return;
+		}
+		for (int i = 0; i < converters.size(); i++) {
+			if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+				MappingJackson2HttpMessageConverter converter = (MappingJackson2HttpMessageConverter) converters.get(i);
+				converters.set(i, new TracingJacksonHttpMessageConverter(converter.getObjectMapper()));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.iftm.client.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.iftm.client.tracing.Span;
+import com.iftm.client.tracing.TraceContext;
+
+/**
+ * Counts every statement execution in {@link QueryStatistics} and logs the ones
+ * slower than the threshold together with their bind parameters and the
+ * service method that issued them.
+ */
+public class QueryLoggingDataSource extends DelegatingDataSource {
+	
+	private static final Logger logger = LoggerFactory.getLogger(QueryLoggingDataSource.class);
+	
+	private static final String SERVICES_PACKAGE = "com.iftm.client.services.";
+	
+	private final long slowThresholdNanos;
+	
+	public QueryLoggingDataSource(DataSource target, long slowThresholdMillis) {
+		super(target);
+		this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+	}
+	
+	@Override
+	public Connection getConnection() throws SQLException {
+		return wrap(super.getConnection());
+	}
+	
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return wrap(super.getConnection(username, password));
+	}
+	
+	private Connection wrap(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) -> {
+					Object result = invoke(connection, method, args);
+					if (result instanceof CallableStatement) {
+						return wrap((Statement) result, CallableStatement.class, (String) args[0]);
+					}
+					if (result instanceof PreparedStatement) {
+						return wrap((Statement) result, PreparedStatement.class, (String) args[0]);
+					}
+					if (result instanceof Statement) {
+						return wrap((Statement) result, Statement.class, null);
+					}
+					return result;
+				});
+	}
+	
+	private Statement wrap(Statement statement, Class<? extends Statement> type, String sql) {
+		return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type },
+				new StatementHandler(statement, sql));
+	}
+	
+	private class StatementHandler implements InvocationHandler {
+		
+		private final Statement target;
+		private final String sql;
+		private final Map<Integer, Object> parameters = new TreeMap<>();
+		
+		StatementHandler(Statement target, String sql) {
+			this.target = target;
+			this.sql = sql;
+		}
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.startsWith("execute")) {
+				String statement = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+				Span span = TraceContext.startSpan("sql", Span.Kind.CLIENT).setAttribute("db.statement", statement);
+				long start = System.nanoTime();
+				try {
+					return QueryLoggingDataSource.invoke(target, method, args);
+				}
+				finally {
+					long elapsed = System.nanoTime() - start;
+					span.end();
+					boolean slow = elapsed >= slowThresholdNanos;
+					QueryStatistics.executed(slow);
+					if (slow) {
+						logger.warn("Slow query ({} ms) from {}: {} {}", TimeUnit.NANOSECONDS.toMillis(elapsed),
+								origin(), statement, parameters);
+					}
+				}
+			}
+			if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+				parameters.put((Integer) args[0], args[1]);
+			}
+			else if (name.equals("clearParameters")) {
+				parameters.clear();
+			}
+			return QueryLoggingDataSource.invoke(target, method, args);
+		}
+		
+	}
+	
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+	
+	private static String origin() {
+		return StackWalker.getInstance().walk(frames -> frames
+				.filter(x -> x.getClassName().startsWith(SERVICES_PACKAGE) && !x.getClassName().contains("$$")
+						&& !x.getClassName().startsWith(SERVICES_PACKAGE + "util."))
+				.findFirst()
+				.map(x -> x.getClassName().substring(SERVICES_PACKAGE.length()) + "." + methodName(x.getMethodName()))
+				.orElse("unknown"));
+	}
+	
+	private static String methodName(String name) {
+		return name.startsWith("lambda$") ? name.substring(7, name.indexOf('$', 7)) : name;
+	}
+
+}
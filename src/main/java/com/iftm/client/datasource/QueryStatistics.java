@@ -0,0 +1,41 @@
+package com.iftm.client.datasource;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class QueryStatistics {
+	
+	private static final ThreadLocal<long[]> CURRENT = ThreadLocal.withInitial(() -> new long[1]);
+	private static final LongAdder TOTAL = new LongAdder();
+	private static final LongAdder SLOW = new LongAdder();
+	
+	private QueryStatistics() {
+	}
+	
+	public static void reset() {
+		CURRENT.get()[0] = 0;
+	}
+	
+	/**
+	 * Statements executed on the calling thread since its last reset.
+	 */
+	public static long getCount() {
+		return CURRENT.get()[0];
+	}
+	
+	public static long getTotal() {
+		return TOTAL.sum();
+	}
+	
+	public static long getSlow() {
+		return SLOW.sum();
+	}
+	
+	static void executed(boolean slow) {
+		CURRENT.get()[0]++;
+		TOTAL.increment();
+		if (slow) {
+			SLOW.increment();
+		}
+	}
+
+}
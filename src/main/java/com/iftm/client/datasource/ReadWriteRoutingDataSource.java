@@ -0,0 +1,32 @@
+package com.iftm.client.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the
+ * primary. Must be wrapped in a LazyConnectionDataSourceProxy so the connection
+ * is only fetched once the transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+	
+	public static final String PRIMARY = "primary";
+	
+	private final ReplicaMonitor monitor;
+	
+	public ReadWriteRoutingDataSource(ReplicaMonitor monitor) {
+		this.monitor = monitor;
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		String route = PRIMARY;
+		if (!RoutingContext.isPrimaryForced() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			String replica = monitor.nextReplica();
+			route = replica != null ? replica : PRIMARY;
+		}
+		RoutingContext.recordRoute(route);
+		return route;
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.iftm.client.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ * Periodically checks every replica and keeps the list of replicas eligible for
+ * reads: reachable, and not more than maxLag outbox sequences behind the
+ * primary. The outbox (tb_client_change) doubles as the replication position.
+ */
+public class ReplicaMonitor {
+	
+	private static final String POSITION_QUERY = "SELECT COALESCE(MAX(sequence), 0) FROM tb_client_change";
+	
+	private final DataSource primary;
+	private final Map<String, DataSource> replicas;
+	private final long maxLag;
+	private final AtomicInteger next = new AtomicInteger();
+	private final ScheduledExecutorService scheduler;
+	private final Map<String, Long> lag = new LinkedHashMap<>();
+	private final Map<String, Long> positions = new ConcurrentHashMap<>();
+	
+	private volatile List<String> eligible = Collections.emptyList();
+	
+	public ReplicaMonitor(DataSource primary, Map<String, DataSource> replicas, long maxLag, long intervalMillis) {
+		this.primary = primary;
+		this.replicas = replicas;
+		this.maxLag = maxLag;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "replica-monitor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::check, 0L, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	public String nextReplica() {
+		List<String> current = eligible;
+		if (current.isEmpty()) {
+			return null;
+		}
+		return current.get(Math.floorMod(next.getAndIncrement(), current.size()));
+	}
+	
+	public Map<String, DataSource> getReplicas() {
+		return Collections.unmodifiableMap(replicas);
+	}
+	
+	public synchronized Map<String, Long> getLag() {
+		return new LinkedHashMap<>(lag);
+	}
+	
+	/**
+	 * Returns the outbox sequence the replica had reached at the last check,
+	 * or -1 if it has not been reached yet. Replicas only move forward, so
+	 * this is a lower bound of its current position.
+	 */
+	public long getPosition(String replica) {
+		return positions.getOrDefault(replica, -1L);
+	}
+	
+	public void shutdown() {
+		scheduler.shutdownNow();
+	}
+	
+	public synchronized void check() {
+		long primaryPosition;
+		try {
+			primaryPosition = position(primary);
+		} catch (SQLException e) {
+			eligible = Collections.emptyList();
+			return;
+		}
+		List<String> healthy = new ArrayList<>();
+		Map<String, Long> observed = new LinkedHashMap<>();
+		for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+			try {
+				long replicaPosition = position(replica.getValue());
+				positions.merge(replica.getKey(), replicaPosition, Math::max);
+				long replicaLag = Math.max(0L, primaryPosition - replicaPosition);
+				observed.put(replica.getKey(), replicaLag);
+				if (replicaLag <= maxLag) {
+					healthy.add(replica.getKey());
+				}
+			} catch (SQLException e) {
+				observed.put(replica.getKey(), -1L);
+			}
+		}
+		lag.clear();
+		lag.putAll(observed);
+		eligible = Collections.unmodifiableList(healthy);
+	}
+	
+	private static long position(DataSource dataSource) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery(POSITION_QUERY)) {
+			return rs.next() ? rs.getLong(1) : 0L;
+		}
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.iftm.client.datasource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public final class RoutingContext {
+	
+	private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+	private static final ThreadLocal<Set<String>> ROUTES = new ThreadLocal<>();
+	
+	private RoutingContext() {
+	}
+	
+	public static void forcePrimary() {
+		PRIMARY_FORCED.set(Boolean.TRUE);
+	}
+	
+	public static boolean isPrimaryForced() {
+		return PRIMARY_FORCED.get() != null;
+	}
+	
+	public static void clear() {
+		PRIMARY_FORCED.remove();
+	}
+	
+	/**
+	 * Runs {@code read} with its connections routed to the primary, leaving
+	 * the caller's routing as it was afterwards.
+	 */
+	public static <T> T onPrimary(Supplier<T> read) {
+		boolean forced = isPrimaryForced();
+		PRIMARY_FORCED.set(Boolean.TRUE);
+		try {
+			return read.get();
+		}
+		finally {
+			if (!forced) {
+				PRIMARY_FORCED.remove();
+			}
+		}
+	}
+	
+	/**
+	 * Runs {@code read} and returns its result together with the data sources
+	 * its connections were routed to. Routes recorded inside are also added to
+	 * an enclosing tracked read.
+	 */
+	public static <T> Routed<T> track(Supplier<T> read) {
+		Set<String> outer = ROUTES.get();
+		Set<String> routes = new HashSet<>();
+		ROUTES.set(routes);
+		try {
+			return new Routed<>(read.get(), routes);
+		}
+		finally {
+			if (outer != null) {
+				outer.addAll(routes);
+				ROUTES.set(outer);
+			}
+			else {
+				ROUTES.remove();
+			}
+		}
+	}
+	
+	public static void recordRoute(String route) {
+		Set<String> routes = ROUTES.get();
+		if (routes != null) {
+			routes.add(route);
+		}
+	}
+	
+	public static void recordRoutes(Collection<String> routes) {
+		Set<String> current = ROUTES.get();
+		if (current != null) {
+			current.addAll(routes);
+		}
+	}
+	
+	public static final class Routed<T> {
+		private final T value;
+		private final Set<String> routes;
+		
+		private Routed(T value, Set<String> routes) {
+			this.value = value;
+			this.routes = Collections.unmodifiableSet(routes);
+		}
+
+		public T getValue() {
+			return value;
+		}
+
+		public Set<String> getRoutes() {
+			return routes;
+		}
+	}
+
+}
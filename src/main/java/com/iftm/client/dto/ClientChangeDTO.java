@@ -0,0 +1,72 @@
+package com.iftm.client.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.ClientChange;
+
+public class ClientChangeDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+	
+	private Long sequence;
+	private Long clientId;
+	private ChangeType type;
+	private Instant moment;
+	private ClientDTO client;
+	
+	public ClientChangeDTO() {
+	}
+	
+	public ClientChangeDTO(ClientChange entity) {
+		this.sequence = entity.getSequence();
+		this.clientId = entity.getClientId();
+		this.type = entity.getType();
+		this.moment = entity.getMoment();
+		if (entity.getType() != ChangeType.DELETE && entity.getType() != ChangeType.ARCHIVE) {
+			this.client = new ClientDTO(entity.getClientId(), entity.getName(), entity.getCpf(), entity.getIncome(),
+					entity.getBirthDate(), entity.getChildren());
+		}
+	}
+
+	public Long getSequence() {
+		return sequence;
+	}
+
+	public void setSequence(Long sequence) {
+		this.sequence = sequence;
+	}
+
+	public Long getClientId() {
+		return clientId;
+	}
+
+	public void setClientId(Long clientId) {
+		this.clientId = clientId;
+	}
+
+	public ChangeType getType() {
+		return type;
+	}
+
+	public void setType(ChangeType type) {
+		this.type = type;
+	}
+
+	public Instant getMoment() {
+		return moment;
+	}
+
+	public void setMoment(Instant moment) {
+		this.moment = moment;
+	}
+
+	public ClientDTO getClient() {
+		return client;
+	}
+
+	public void setClient(ClientDTO client) {
+		this.client = client;
+	}
+
+}
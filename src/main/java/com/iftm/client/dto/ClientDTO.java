@@ -84,6 +84,50 @@ public class ClientDTO implements Serializable {
 		this.children = children;
 	}
 	
+	public Object get(ClientField field) {
+		switch (field) {
+		case ID:
+			return id;
+		case NAME:
+			return name;
+		case CPF:
+			return cpf;
+		case INCOME:
+			return income;
+		case BIRTH_DATE:
+			return birthDate;
+		case CHILDREN:
+			return children;
+		default:
+			throw new IllegalArgumentException(field.toString());
+		}
+	}
+	
+	public void set(ClientField field, Object value) {
+		switch (field) {
+		case ID:
+			id = (Long) value;
+			break;
+		case NAME:
+			name = (String) value;
+			break;
+		case CPF:
+			cpf = (String) value;
+			break;
+		case INCOME:
+			income = (Double) value;
+			break;
+		case BIRTH_DATE:
+			birthDate = (Instant) value;
+			break;
+		case CHILDREN:
+			children = (Integer) value;
+			break;
+		default:
+			throw new IllegalArgumentException(field.toString());
+		}
+	}
+	
 	public Client toEntity() {
 		return new Client(id, name, cpf, income, birthDate, children);
 	}
@@ -0,0 +1,31 @@
+package com.iftm.client.dto;
+
+public enum ClientField {
+	
+	ID("id"),
+	NAME("name"),
+	CPF("cpf"),
+	INCOME("income"),
+	BIRTH_DATE("birthDate"),
+	CHILDREN("children");
+	
+	private final String property;
+	
+	private ClientField(String property) {
+		this.property = property;
+	}
+
+	public String getProperty() {
+		return property;
+	}
+	
+	public static ClientField fromProperty(String property) {
+		for (ClientField field : values()) {
+			if (field.property.equals(property)) {
+				return field;
+			}
+		}
+		return null;
+	}
+
+}
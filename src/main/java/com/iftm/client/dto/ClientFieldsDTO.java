@@ -0,0 +1,31 @@
+package com.iftm.client.dto;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A ClientDTO carrying only the requested fields; the others are left null and
+ * are not serialized.
+ */
+public class ClientFieldsDTO extends ClientDTO {
+	private static final long serialVersionUID = 1L;
+	
+	private final EnumSet<ClientField> fields;
+	
+	public ClientFieldsDTO(Set<ClientField> fields) {
+		this.fields = EnumSet.copyOf(fields);
+	}
+	
+	public static ClientFieldsDTO of(ClientDTO dto, Set<ClientField> fields) {
+		ClientFieldsDTO partial = new ClientFieldsDTO(fields);
+		for (ClientField field : fields) {
+			partial.set(field, dto.get(field));
+		}
+		return partial;
+	}
+
+	public Set<ClientField> getFields() {
+		return fields;
+	}
+
+}
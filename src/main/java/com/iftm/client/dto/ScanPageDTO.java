@@ -0,0 +1,36 @@
+package com.iftm.client.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class ScanPageDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+	
+	private List<ClientDTO> content;
+	private Long next;
+	
+	public ScanPageDTO() {
+	}
+	
+	public ScanPageDTO(List<ClientDTO> content, Long next) {
+		this.content = content;
+		this.next = next;
+	}
+
+	public List<ClientDTO> getContent() {
+		return content;
+	}
+
+	public void setContent(List<ClientDTO> content) {
+		this.content = content;
+	}
+
+	public Long getNext() {
+		return next;
+	}
+
+	public void setNext(Long next) {
+		this.next = next;
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.iftm.client.dto.json;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.iftm.client.dto.ClientDTO;
+
+public class ClientDTOSerializer extends StdSerializer<ClientDTO> {
+	private static final long serialVersionUID = 1L;
+	
+	public ClientDTOSerializer() {
+		super(ClientDTO.class);
+	}
+
+	@Override
+	public void serialize(ClientDTO dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		ClientJsonWriter.write(gen, dto.getId(), dto.getName(), dto.getCpf(), dto.getIncome(),
+				dto.getBirthDate(), dto.getChildren());
+	}
+
+}
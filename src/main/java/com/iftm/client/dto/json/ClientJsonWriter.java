@@ -0,0 +1,77 @@
+package com.iftm.client.dto.json;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.iftm.client.dto.ClientField;
+
+public final class ClientJsonWriter {
+	
+	private static final SerializableString ID = new SerializedString("id");
+	private static final SerializableString NAME = new SerializedString("name");
+	private static final SerializableString CPF = new SerializedString("cpf");
+	private static final SerializableString INCOME = new SerializedString("income");
+	private static final SerializableString BIRTH_DATE = new SerializedString("birthDate");
+	private static final SerializableString CHILDREN = new SerializedString("children");
+	private static final Set<ClientField> ALL = EnumSet.allOf(ClientField.class);
+	
+	private ClientJsonWriter() {
+	}
+	
+	public static void write(JsonGenerator gen, Long id, String name, String cpf, Double income,
+			Instant birthDate, Integer children) throws IOException {
+		write(gen, ALL, id, name, cpf, income, birthDate, children);
+	}
+	
+	public static void write(JsonGenerator gen, Set<ClientField> fields, Long id, String name, String cpf,
+			Double income, Instant birthDate, Integer children) throws IOException {
+		gen.writeStartObject();
+		if (fields.contains(ClientField.ID)) {
+			gen.writeFieldName(ID);
+			if (id == null) {
+				gen.writeNull();
+			} else {
+				gen.writeNumber(id.longValue());
+			}
+		}
+		if (fields.contains(ClientField.NAME)) {
+			gen.writeFieldName(NAME);
+			gen.writeString(name);
+		}
+		if (fields.contains(ClientField.CPF)) {
+			gen.writeFieldName(CPF);
+			gen.writeString(cpf);
+		}
+		if (fields.contains(ClientField.INCOME)) {
+			gen.writeFieldName(INCOME);
+			if (income == null) {
+				gen.writeNull();
+			} else {
+				gen.writeNumber(income.doubleValue());
+			}
+		}
+		if (fields.contains(ClientField.BIRTH_DATE)) {
+			gen.writeFieldName(BIRTH_DATE);
+			if (birthDate == null) {
+				gen.writeNull();
+			} else {
+				gen.writeString(birthDate.toString());
+			}
+		}
+		if (fields.contains(ClientField.CHILDREN)) {
+			gen.writeFieldName(CHILDREN);
+			if (children == null) {
+				gen.writeNull();
+			} else {
+				gen.writeNumber(children.intValue());
+			}
+		}
+		gen.writeEndObject();
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.iftm.client.dto.json;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.iftm.client.entities.Client;
+
+/**
+ * Writes Client entities returned as-is by the name and birth-date searches
+ * ({@code /n=}, {@code /d=}). The paged, sliced and by-income listings map to
+ * ClientDTO in ClientService and are written by ClientDTOSerializer instead.
+ */
+public class ClientSerializer extends StdSerializer<Client> {
+	private static final long serialVersionUID = 1L;
+	
+	public ClientSerializer() {
+		super(Client.class);
+	}
+
+	@Override
+	public void serialize(Client entity, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		ClientJsonWriter.write(gen, entity.getId(), entity.getName(), entity.getCpf(), entity.getIncome(),
+				entity.getBirthDate(), entity.getChildren());
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.iftm.client.dto.json;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.iftm.client.resources.exceptions.StandardError;
+
+public class StandardErrorSerializer extends StdSerializer<StandardError> {
+	private static final long serialVersionUID = 1L;
+	
+	private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+	private static final SerializableString STATUS = new SerializedString("status");
+	private static final SerializableString ERROR = new SerializedString("error");
+	private static final SerializableString MESSAGE = new SerializedString("message");
+	private static final SerializableString PATH = new SerializedString("path");
+	
+	public StandardErrorSerializer() {
+		super(StandardError.class);
+	}
+
+	@Override
+	public void serialize(StandardError err, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		gen.writeStartObject();
+		gen.writeFieldName(TIMESTAMP);
+		gen.writeString(err.getTimestamp() == null ? null : err.getTimestamp().toString());
+		gen.writeFieldName(STATUS);
+		if (err.getStatus() == null) {
+			gen.writeNull();
+		} else {
+			gen.writeNumber(err.getStatus().intValue());
+		}
+		gen.writeFieldName(ERROR);
+		gen.writeString(err.getError());
+		gen.writeFieldName(MESSAGE);
+		gen.writeString(err.getMessage());
+		gen.writeFieldName(PATH);
+		gen.writeString(err.getPath());
+		gen.writeEndObject();
+	}
+
+}
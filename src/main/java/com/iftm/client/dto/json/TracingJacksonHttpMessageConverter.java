@@ -0,0 +1,35 @@
+package com.iftm.client.dto.json;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iftm.client.tracing.Span;
+import com.iftm.client.tracing.TraceContext;
+
+public class TracingJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+	
+	public TracingJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+		super(objectMapper);
+	}
+	
+	@Override
+	protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+		Span span = TraceContext.startSpan("serialize");
+		if (object != null) {
+			span.setAttribute("type", object.getClass().getSimpleName());
+		}
+		try {
+			super.writeInternal(object, type, outputMessage);
+		}
+		finally {
+			span.end();
+		}
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.iftm.client.entities;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "tb_client_archive")
+public class ArchivedClient implements Serializable {
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	private Long id;
+	private String name;
+	private String cpf;
+	private Double income;
+	private Instant birthDate;
+	private Integer children;
+	private Instant lastActivity;
+	private Instant archivedAt;
+	
+	public ArchivedClient() {
+	}
+	
+	public ArchivedClient(Client client, Instant archivedAt) {
+		this.id = client.getId();
+		this.name = client.getName();
+		this.cpf = client.getCpf();
+		this.income = client.getIncome();
+		this.birthDate = client.getBirthDate();
+		this.children = client.getChildren();
+		this.lastActivity = client.getLastActivity();
+		this.archivedAt = archivedAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getCpf() {
+		return cpf;
+	}
+
+	public void setCpf(String cpf) {
+		this.cpf = cpf;
+	}
+
+	public Double getIncome() {
+		return income;
+	}
+
+	public void setIncome(Double income) {
+		this.income = income;
+	}
+
+	public Instant getBirthDate() {
+		return birthDate;
+	}
+
+	public void setBirthDate(Instant birthDate) {
+		this.birthDate = birthDate;
+	}
+
+	public Integer getChildren() {
+		return children;
+	}
+
+	public void setChildren(Integer children) {
+		this.children = children;
+	}
+
+	public Instant getLastActivity() {
+		return lastActivity;
+	}
+
+	public void setLastActivity(Instant lastActivity) {
+		this.lastActivity = lastActivity;
+	}
+
+	public Instant getArchivedAt() {
+		return archivedAt;
+	}
+
+	public void setArchivedAt(Instant archivedAt) {
+		this.archivedAt = archivedAt;
+	}
+	
+	public Client toClient() {
+		Client client = new Client(id, name, cpf, income, birthDate, children);
+		client.setLastActivity(lastActivity);
+		return client;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((id == null) ? 0 : id.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ArchivedClient other = (ArchivedClient) obj;
+		if (id == null) {
+			if (other.id != null)
+				return false;
+		} else if (!id.equals(other.id))
+			return false;
+		return true;
+	}
+}
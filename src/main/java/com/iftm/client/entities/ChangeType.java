@@ -0,0 +1,5 @@
+package com.iftm.client.entities;
+
+public enum ChangeType {
+	INSERT, UPDATE, DELETE, ARCHIVE, RESTORE
+}
@@ -7,6 +7,8 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 
 @Entity
@@ -22,6 +24,7 @@ public class Client implements Serializable {
 	private Double income;
 	private Instant birthDate;
 	private Integer children;
+	private Instant lastActivity;
 	
 	public Client() {
 	}
@@ -83,6 +86,20 @@ public class Client implements Serializable {
 		this.children = children;
 	}
 
+	public Instant getLastActivity() {
+		return lastActivity;
+	}
+
+	public void setLastActivity(Instant lastActivity) {
+		this.lastActivity = lastActivity;
+	}
+	
+	@PrePersist
+	@PreUpdate
+	public void touch() {
+		lastActivity = Instant.now();
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
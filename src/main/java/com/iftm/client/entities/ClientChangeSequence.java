@@ -0,0 +1,48 @@
+package com.iftm.client.entities;
+
+import java.io.Serializable;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "tb_client_change_sequence")
+public class ClientChangeSequence implements Serializable {
+	private static final long serialVersionUID = 1L;
+	
+	public static final Integer ID = 1;
+	
+	@Id
+	private Integer id;
+	private Long lastValue;
+	
+	public ClientChangeSequence() {
+	}
+
+	public ClientChangeSequence(Integer id, Long lastValue) {
+		this.id = id;
+		this.lastValue = lastValue;
+	}
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public Long getLastValue() {
+		return lastValue;
+	}
+
+	public void setLastValue(Long lastValue) {
+		this.lastValue = lastValue;
+	}
+	
+	public long next() {
+		return ++lastValue;
+	}
+
+}
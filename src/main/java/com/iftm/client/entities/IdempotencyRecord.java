@@ -0,0 +1,64 @@
+package com.iftm.client.entities;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "tb_idempotency_key")
+public class IdempotencyRecord implements Serializable {
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	private String idempotencyKey;
+	@Lob
+	private String response;
+	private Instant createdAt;
+	private Instant reservedAt;
+	
+	public IdempotencyRecord() {
+	}
+	
+	public IdempotencyRecord(String idempotencyKey, String response, Instant createdAt) {
+		this.idempotencyKey = idempotencyKey;
+		this.response = response;
+		this.createdAt = createdAt;
+	}
+
+	public String getIdempotencyKey() {
+		return idempotencyKey;
+	}
+
+	public void setIdempotencyKey(String idempotencyKey) {
+		this.idempotencyKey = idempotencyKey;
+	}
+
+	public String getResponse() {
+		return response;
+	}
+
+	public void setResponse(String response) {
+		this.response = response;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Instant createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public Instant getReservedAt() {
+		return reservedAt;
+	}
+
+	public void setReservedAt(Instant reservedAt) {
+		this.reservedAt = reservedAt;
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.iftm.client.journal;
+
+import java.util.List;
+
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.Client;
+
+public interface ClientJournal {
+	
+	/**
+	 * Throws IllegalArgumentException if the snapshot cannot be journaled, so
+	 * callers can reject it before their transaction commits.
+	 */
+	void validate(Client snapshot);
+	
+	long append(ChangeType type, Long clientId, Client snapshot);
+	
+	List<JournalRecord> read(long offset, int maxRecords);
+	
+	void close();
+
+}
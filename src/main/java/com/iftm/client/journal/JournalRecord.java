@@ -0,0 +1,74 @@
+package com.iftm.client.journal;
+
+import java.time.Instant;
+
+import com.iftm.client.entities.ChangeType;
+
+public class JournalRecord {
+	
+	private final long offset;
+	private final long nextOffset;
+	private final ChangeType type;
+	private final Long clientId;
+	private final Instant moment;
+	private final String name;
+	private final String cpf;
+	private final Double income;
+	private final Instant birthDate;
+	private final Integer children;
+	
+	public JournalRecord(long offset, long nextOffset, ChangeType type, Long clientId, Instant moment, String name,
+			String cpf, Double income, Instant birthDate, Integer children) {
+		this.offset = offset;
+		this.nextOffset = nextOffset;
+		this.type = type;
+		this.clientId = clientId;
+		this.moment = moment;
+		this.name = name;
+		this.cpf = cpf;
+		this.income = income;
+		this.birthDate = birthDate;
+		this.children = children;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public long getNextOffset() {
+		return nextOffset;
+	}
+
+	public ChangeType getType() {
+		return type;
+	}
+
+	public Long getClientId() {
+		return clientId;
+	}
+
+	public Instant getMoment() {
+		return moment;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getCpf() {
+		return cpf;
+	}
+
+	public Double getIncome() {
+		return income;
+	}
+
+	public Instant getBirthDate() {
+		return birthDate;
+	}
+
+	public Integer getChildren() {
+		return children;
+	}
+
+}
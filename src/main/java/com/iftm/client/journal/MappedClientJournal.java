@@ -0,0 +1,392 @@
+package com.iftm.client.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.Client;
+
+/**
+ * Append-only journal stored in fixed-size, memory-mapped segment files. Each
+ * segment is named after the global offset of its first record, so offsets are
+ * continuous across segments. Records are framed as
+ * {@code [length:int][crc32:int][payload]}, a zero length marks the end of the
+ * written data. A background thread forces dirty segments to disk every flush
+ * interval (group commit); in sync mode appenders wait for that flush.
+ */
+public class MappedClientJournal implements ClientJournal {
+	
+	private static final Logger logger = LoggerFactory.getLogger(MappedClientJournal.class);
+	
+	private static final String SUFFIX = ".journal";
+	private static final int HEADER = 8;
+	private static final int MAX_PAYLOAD = 2 * (Short.BYTES + Short.MAX_VALUE) + 64;
+	private static final ChangeType[] TYPES = ChangeType.values();
+	
+	private static final int HAS_INCOME = 1;
+	private static final int HAS_BIRTH_DATE = 2;
+	private static final int HAS_CHILDREN = 4;
+	
+	private final Path directory;
+	private final int segmentSize;
+	private final boolean sync;
+	private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+	private final ByteBuffer scratch = ByteBuffer.allocate(MAX_PAYLOAD);
+	private final CRC32 crc = new CRC32();
+	private final Object durableLock = new Object();
+	private final ScheduledExecutorService flusher;
+	
+	private FileChannel channel;
+	private MappedByteBuffer mapped;
+	private long segmentBase;
+	private volatile long writtenOffset;
+	private volatile long durableOffset;
+	private volatile boolean closed;
+	private volatile RuntimeException flushFailure;
+	
+	public MappedClientJournal(Path directory, int segmentSize, long flushIntervalMillis, boolean sync) throws IOException {
+		if (segmentSize < HEADER + MAX_PAYLOAD) {
+			throw new IllegalArgumentException("Segment size must be at least " + (HEADER + MAX_PAYLOAD) + " bytes");
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.sync = sync;
+		Files.createDirectories(directory);
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				segments.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file);
+			}
+		}
+		if (segments.isEmpty()) {
+			openSegment(0L);
+		} else {
+			openSegment(segments.lastKey());
+			mapped.position(scanEnd(mapped));
+		}
+		writtenOffset = segmentBase + mapped.position();
+		durableOffset = writtenOffset;
+		flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "journal-flusher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		flusher.scheduleWithFixedDelay(this::scheduledFlush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	@Override
+	public long append(ChangeType type, Long clientId, Client snapshot) {
+		long offset;
+		long end;
+		synchronized (this) {
+			if (closed) {
+				throw new IllegalStateException("Journal is closed");
+			}
+			scratch.clear();
+			encode(scratch, type, clientId, snapshot);
+			scratch.flip();
+			int length = scratch.remaining();
+			if (mapped.position() + HEADER + length > segmentSize) {
+				rotate();
+			}
+			crc.reset();
+			crc.update(scratch.array(), 0, length);
+			offset = segmentBase + mapped.position();
+			mapped.putInt(length);
+			mapped.putInt((int) crc.getValue());
+			mapped.put(scratch);
+			end = segmentBase + mapped.position();
+			writtenOffset = end;
+		}
+		if (sync) {
+			awaitDurable(end);
+		}
+		return offset;
+	}
+	
+	@Override
+	public void validate(Client snapshot) {
+		if (snapshot != null) {
+			checkLength("name", snapshot.getName());
+			checkLength("cpf", snapshot.getCpf());
+		}
+	}
+	
+	@Override
+	public List<JournalRecord> read(long offset, int maxRecords) {
+		List<JournalRecord> records = new ArrayList<>();
+		long position = offset;
+		long limit = writtenOffset;
+		ByteBuffer header = ByteBuffer.allocate(HEADER);
+		ByteBuffer payload = ByteBuffer.allocate(MAX_PAYLOAD);
+		while (records.size() < maxRecords && position < limit) {
+			Map.Entry<Long, Path> segment = segments.floorEntry(position);
+			if (segment == null) {
+				break;
+			}
+			boolean segmentEnd = false;
+			try (FileChannel in = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+				while (records.size() < maxRecords && position < limit) {
+					long local = position - segment.getKey();
+					header.clear();
+					if (local + HEADER > segmentSize || readFully(in, header, local) < HEADER) {
+						segmentEnd = true;
+						break;
+					}
+					header.flip();
+					int length = header.getInt();
+					int checksum = header.getInt();
+					if (length <= 0 || length > MAX_PAYLOAD) {
+						segmentEnd = true;
+						break;
+					}
+					payload.clear().limit(length);
+					if (readFully(in, payload, local + HEADER) < length || checksum(payload.array(), length) != checksum) {
+						throw new IllegalStateException("Corrupted journal record at offset " + position);
+					}
+					payload.flip();
+					long next = position + HEADER + length;
+					records.add(decode(payload, position, next));
+					position = next;
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			if (segmentEnd) {
+				Long nextBase = segments.higherKey(segment.getKey());
+				if (nextBase == null) {
+					break;
+				}
+				position = nextBase;
+			}
+		}
+		return records;
+	}
+	
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+		flusher.shutdown();
+		flush();
+		synchronized (this) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+	
+	public long getWrittenOffset() {
+		return writtenOffset;
+	}
+	
+	public long getDurableOffset() {
+		return durableOffset;
+	}
+	
+	/**
+	 * A task that throws is never run again by the executor, so failures are
+	 * logged here and handed to the sync appenders waiting for this flush.
+	 */
+	private void scheduledFlush() {
+		try {
+			flush();
+		} catch (RuntimeException e) {
+			logger.error("Journal flush failed", e);
+			synchronized (durableLock) {
+				flushFailure = e;
+				durableLock.notifyAll();
+			}
+		}
+	}
+	
+	private void flush() {
+		long target;
+		MappedByteBuffer buffer;
+		synchronized (this) {
+			target = writtenOffset;
+			buffer = mapped;
+		}
+		if (target <= durableOffset) {
+			return;
+		}
+		buffer.force();
+		synchronized (durableLock) {
+			// close() and the flusher can both be here; the later target may
+			// finish first, so never move the durable offset backwards.
+			durableOffset = Math.max(durableOffset, target);
+			flushFailure = null;
+			durableLock.notifyAll();
+		}
+	}
+	
+	private void awaitDurable(long offset) {
+		synchronized (durableLock) {
+			while (durableOffset < offset) {
+				if (flushFailure != null) {
+					throw new IllegalStateException("Journal flush failed", flushFailure);
+				}
+				try {
+					durableLock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+	
+	private void rotate() {
+		mapped.force();
+		long base = segmentBase + mapped.position();
+		try {
+			channel.close();
+			openSegment(base);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private void openSegment(long base) throws IOException {
+		Path file = directory.resolve(String.format("%020d%s", base, SUFFIX));
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		segmentBase = base;
+		segments.put(base, file);
+	}
+	
+	private int scanEnd(ByteBuffer buffer) {
+		int position = 0;
+		while (position + HEADER <= buffer.capacity()) {
+			int length = buffer.getInt(position);
+			if (length <= 0 || length > MAX_PAYLOAD || position + HEADER + length > buffer.capacity()) {
+				break;
+			}
+			byte[] payload = new byte[length];
+			ByteBuffer view = buffer.duplicate();
+			view.position(position + HEADER);
+			view.get(payload);
+			if (checksum(payload, length) != buffer.getInt(position + Integer.BYTES)) {
+				break;
+			}
+			position += HEADER + length;
+		}
+		return position;
+	}
+	
+	private static int readFully(FileChannel in, ByteBuffer target, long position) throws IOException {
+		int total = 0;
+		while (target.hasRemaining()) {
+			int read = in.read(target, position + total);
+			if (read < 0) {
+				break;
+			}
+			total += read;
+		}
+		return total;
+	}
+	
+	private static int checksum(byte[] bytes, int length) {
+		CRC32 checksum = new CRC32();
+		checksum.update(bytes, 0, length);
+		return (int) checksum.getValue();
+	}
+	
+	private static void encode(ByteBuffer out, ChangeType type, Long clientId, Client snapshot) {
+		out.put((byte) type.ordinal());
+		out.putLong(clientId == null ? Long.MIN_VALUE : clientId);
+		out.putLong(System.currentTimeMillis());
+		if (snapshot == null) {
+			out.put((byte) 0);
+			putString(out, null);
+			putString(out, null);
+			return;
+		}
+		int flags = (snapshot.getIncome() != null ? HAS_INCOME : 0)
+				| (snapshot.getBirthDate() != null ? HAS_BIRTH_DATE : 0)
+				| (snapshot.getChildren() != null ? HAS_CHILDREN : 0);
+		out.put((byte) flags);
+		if ((flags & HAS_INCOME) != 0) {
+			out.putDouble(snapshot.getIncome());
+		}
+		if ((flags & HAS_BIRTH_DATE) != 0) {
+			out.putLong(snapshot.getBirthDate().getEpochSecond());
+			out.putInt(snapshot.getBirthDate().getNano());
+		}
+		if ((flags & HAS_CHILDREN) != 0) {
+			out.putInt(snapshot.getChildren());
+		}
+		putString(out, snapshot.getName());
+		putString(out, snapshot.getCpf());
+	}
+	
+	private static JournalRecord decode(ByteBuffer in, long offset, long nextOffset) {
+		ChangeType type = TYPES[in.get()];
+		long id = in.getLong();
+		Instant moment = Instant.ofEpochMilli(in.getLong());
+		int flags = in.get();
+		Double income = (flags & HAS_INCOME) != 0 ? in.getDouble() : null;
+		Instant birthDate = (flags & HAS_BIRTH_DATE) != 0 ? Instant.ofEpochSecond(in.getLong(), in.getInt()) : null;
+		Integer children = (flags & HAS_CHILDREN) != 0 ? in.getInt() : null;
+		String name = getString(in);
+		String cpf = getString(in);
+		return new JournalRecord(offset, nextOffset, type, id == Long.MIN_VALUE ? null : id, moment, name, cpf,
+				income, birthDate, children);
+	}
+	
+	private static void putString(ByteBuffer out, String value) {
+		if (value == null) {
+			out.putShort((short) -1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Value too long for journal record");
+		}
+		out.putShort((short) bytes.length);
+		out.put(bytes);
+	}
+	
+	private static void checkLength(String field, String value) {
+		if (value != null && value.getBytes(StandardCharsets.UTF_8).length > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Value too long for journal record: " + field);
+		}
+	}
+	
+	private static String getString(ByteBuffer in) {
+		int length = in.getShort();
+		if (length < 0) {
+			return null;
+		}
+		String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+		in.position(in.position() + length);
+		return value;
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.iftm.client.journal;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.Client;
+
+public class NoOpClientJournal implements ClientJournal {
+
+	@Override
+	public void validate(Client snapshot) {
+	}
+
+	@Override
+	public long append(ChangeType type, Long clientId, Client snapshot) {
+		return -1L;
+	}
+
+	@Override
+	public List<JournalRecord> read(long offset, int maxRecords) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public void close() {
+	}
+
+}
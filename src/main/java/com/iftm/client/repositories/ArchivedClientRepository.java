@@ -0,0 +1,24 @@
+package com.iftm.client.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.iftm.client.entities.ArchivedClient;
+
+@Repository
+public interface ArchivedClientRepository extends JpaRepository<ArchivedClient, Long> {
+	
+	@Query("SELECT obj FROM ArchivedClient obj WHERE obj.income >= :income")
+	Page<ArchivedClient> findByIncome(Double income, Pageable pageable);
+	
+	List<ArchivedClient> findByNameContainingIgnoreCase(String name);
+	
+	@Query("SELECT obj FROM ArchivedClient obj WHERE obj.id > :after ORDER BY obj.id")
+	List<ArchivedClient> findBatchAfter(Long after, Pageable pageable);
+	
+}
@@ -0,0 +1,21 @@
+package com.iftm.client.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.iftm.client.entities.ClientChange;
+
+@Repository
+public interface ClientChangeRepository extends JpaRepository<ClientChange, Long> {
+	
+	@Query("SELECT obj FROM ClientChange obj WHERE obj.sequence > :since ORDER BY obj.sequence")
+	List<ClientChange> findSince(Long since, Pageable pageable);
+	
+	@Query("SELECT MAX(obj.sequence) FROM ClientChange obj")
+	Long findLastSequence();
+	
+}
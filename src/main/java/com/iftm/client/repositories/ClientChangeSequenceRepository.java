@@ -0,0 +1,21 @@
+package com.iftm.client.repositories;
+
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.iftm.client.entities.ClientChangeSequence;
+
+@Repository
+public interface ClientChangeSequenceRepository extends JpaRepository<ClientChangeSequence, Integer> {
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT obj FROM ClientChangeSequence obj WHERE obj.id = :id")
+	Optional<ClientChangeSequence> findForUpdate(Integer id);
+	
+}
@@ -1,25 +1,78 @@
 package com.iftm.client.repositories;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
+import javax.persistence.LockModeType;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.iftm.client.entities.Client;
 
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, ClientRepositoryCustom {
 	
 	@Query("SELECT DISTINCT obj FROM Client obj WHERE obj.income >= :income")
 	Page<Client> findByIncome(Double income, Pageable pageable);
 	
+	@Query("SELECT obj FROM Client obj WHERE obj.income >= :income")
+	Slice<Client> findSliceByIncome(Double income, Pageable pageable);
+	
+	Slice<Client> findSliceBy(Pageable pageable);
+	
+	@Query("SELECT COUNT(obj) FROM Client obj WHERE obj.income >= :income")
+	long countByIncome(Double income);
+	
+	@Query("SELECT obj.income, COUNT(obj) FROM Client obj WHERE obj.income IS NOT NULL GROUP BY obj.income ORDER BY obj.income")
+	List<Object[]> countGroupByIncome();
+	
 	List<Client> findByNameContainingIgnoreCase(String name);
 	
 	@Query("SELECT DISTINCT obj FROM Client obj WHERE obj.birthDate = :birthDate OR YEAR(obj.birthDate) LIKE YEAR(:birthDate)")
 	List<Client> findByBirthDate(Instant birthDate);
 	
+	@Query("SELECT obj FROM Client obj WHERE obj.birthDate >= :start AND obj.birthDate < :end")
+	List<Client> findByBirthDateRange(Instant start, Instant end);
+	
+	@Query("SELECT obj FROM Client obj WHERE obj.id > :after ORDER BY obj.id")
+	List<Client> findBatchAfter(Long after, Pageable pageable);
+	
+	@Query("SELECT obj FROM Client obj WHERE obj.id > :after AND obj.id <= :last ORDER BY obj.id")
+	List<Client> findBatchBetween(Long after, Long last, Pageable pageable);
+	
+	@Query("SELECT MIN(obj.id), MAX(obj.id) FROM Client obj")
+	List<Object[]> findIdBounds();
+	
+	@Query("SELECT obj FROM Client obj WHERE (obj.lastActivity IS NULL OR obj.lastActivity < :cutoff) ORDER BY obj.id")
+	List<Client> findInactive(Instant cutoff, Pageable pageable);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT obj FROM Client obj WHERE (obj.lastActivity IS NULL OR obj.lastActivity < :cutoff) ORDER BY obj.id")
+	List<Client> findInactiveForUpdate(Instant cutoff, Pageable pageable);
+	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM Client obj WHERE obj.id IN :ids AND (obj.lastActivity IS NULL OR obj.lastActivity < :cutoff)")
+	int deleteInactive(Collection<Long> ids, Instant cutoff);
+	
+	@Query("SELECT obj.id FROM Client obj WHERE obj.id IN :ids")
+	List<Long> findExistingIds(Collection<Long> ids);
+	
+	@Modifying
+	@Query("UPDATE Client obj SET obj.lastActivity = :moment WHERE obj.id IN :ids")
+	int touchActivity(Collection<Long> ids, Instant moment);
+	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(value = "INSERT INTO tb_client (id, name, cpf, income, birth_date, children, last_activity) "
+			+ "VALUES (:id, :name, :cpf, :income, :birthDate, :children, :lastActivity)", nativeQuery = true)
+	void insertWithId(Long id, String name, String cpf, Double income, Instant birthDate, Integer children,
+			Instant lastActivity);
+	
 }
@@ -0,0 +1,20 @@
+package com.iftm.client.repositories;
+
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import com.iftm.client.dto.ClientField;
+import com.iftm.client.dto.ClientFieldsDTO;
+
+public interface ClientRepositoryCustom {
+	
+	Slice<ClientFieldsDTO> findFieldsBy(Set<ClientField> fields, Pageable pageable);
+	
+	Slice<ClientFieldsDTO> findFieldsByIncome(Set<ClientField> fields, Double income, Pageable pageable);
+	
+	Optional<ClientFieldsDTO> findFieldsById(Set<ClientField> fields, Long id);
+
+}
@@ -0,0 +1,94 @@
+package com.iftm.client.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import com.iftm.client.dto.ClientField;
+import com.iftm.client.dto.ClientFieldsDTO;
+
+/**
+ * Selects only the requested client columns, so narrow views do not read or
+ * materialize the whole entity.
+ */
+public class ClientRepositoryImpl implements ClientRepositoryCustom {
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	@Override
+	public Slice<ClientFieldsDTO> findFieldsBy(Set<ClientField> fields, Pageable pageable) {
+		TypedQuery<Tuple> query = entityManager.createQuery(select(fields) + orderBy(pageable.getSort()), Tuple.class);
+		return slice(fields, query, pageable);
+	}
+	
+	@Override
+	public Slice<ClientFieldsDTO> findFieldsByIncome(Set<ClientField> fields, Double income, Pageable pageable) {
+		TypedQuery<Tuple> query = entityManager.createQuery(select(fields) + " WHERE obj.income >= :income"
+				+ orderBy(pageable.getSort()), Tuple.class);
+		query.setParameter("income", income);
+		return slice(fields, query, pageable);
+	}
+	
+	@Override
+	public Optional<ClientFieldsDTO> findFieldsById(Set<ClientField> fields, Long id) {
+		TypedQuery<Tuple> query = entityManager.createQuery(select(fields) + " WHERE obj.id = :id", Tuple.class);
+		query.setParameter("id", id);
+		return query.getResultList().stream().findFirst().map(x -> toDTO(fields, x));
+	}
+	
+	private static Slice<ClientFieldsDTO> slice(Set<ClientField> fields, TypedQuery<Tuple> query, Pageable pageable) {
+		query.setFirstResult((int) pageable.getOffset());
+		query.setMaxResults(pageable.getPageSize() + 1);
+		List<ClientFieldsDTO> content = new ArrayList<>();
+		for (Tuple tuple : query.getResultList()) {
+			content.add(toDTO(fields, tuple));
+		}
+		boolean hasNext = content.size() > pageable.getPageSize();
+		if (hasNext) {
+			content.remove(content.size() - 1);
+		}
+		return new SliceImpl<>(content, pageable, hasNext);
+	}
+	
+	private static ClientFieldsDTO toDTO(Set<ClientField> fields, Tuple tuple) {
+		ClientFieldsDTO dto = new ClientFieldsDTO(fields);
+		for (ClientField field : fields) {
+			dto.set(field, tuple.get(field.getProperty()));
+		}
+		return dto;
+	}
+	
+	private static String select(Set<ClientField> fields) {
+		StringBuilder jpql = new StringBuilder("SELECT ");
+		for (ClientField field : fields) {
+			jpql.append("obj.").append(field.getProperty()).append(" AS ").append(field.getProperty()).append(", ");
+		}
+		jpql.setLength(jpql.length() - 2);
+		return jpql.append(" FROM Client obj").toString();
+	}
+	
+	private static String orderBy(Sort sort) {
+		StringBuilder jpql = new StringBuilder(" ORDER BY ");
+		for (Sort.Order order : sort) {
+			ClientField field = ClientField.fromProperty(order.getProperty());
+			if (field == null) {
+				throw new IllegalArgumentException("Cannot sort clients by " + order.getProperty());
+			}
+			jpql.append("obj.").append(field.getProperty()).append(order.isAscending() ? " ASC, " : " DESC, ");
+		}
+		return jpql.append("obj.id ASC").toString();
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.iftm.client.repositories;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.iftm.client.entities.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+	
+	@Modifying
+	@Query("DELETE FROM IdempotencyRecord obj WHERE obj.createdAt < :cutoff")
+	int deleteCreatedBefore(Instant cutoff);
+	
+	@Modifying
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Query(value = "INSERT INTO tb_idempotency_key (idempotency_key, created_at, reserved_at) "
+			+ "VALUES (:key, :createdAt, :createdAt)", nativeQuery = true)
+	void reserve(String key, Instant createdAt);
+	
+	@Modifying
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Query("UPDATE IdempotencyRecord obj SET obj.response = NULL, obj.createdAt = :now, obj.reservedAt = :now "
+			+ "WHERE obj.idempotencyKey = :key AND (obj.createdAt < :expiredBefore OR (obj.response IS NULL "
+			+ "AND (obj.reservedAt IS NULL OR obj.reservedAt < :leaseExpiredBefore)))")
+	int takeOver(String key, Instant now, Instant leaseExpiredBefore, Instant expiredBefore);
+	
+	@Modifying
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Query("UPDATE IdempotencyRecord obj SET obj.response = :response WHERE obj.idempotencyKey = :key")
+	int complete(String key, String response);
+	
+	@Modifying
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Query("DELETE FROM IdempotencyRecord obj WHERE obj.idempotencyKey = :key AND obj.response IS NULL")
+	int release(String key);
+	
+}
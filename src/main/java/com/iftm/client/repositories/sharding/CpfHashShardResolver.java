@@ -0,0 +1,32 @@
+package com.iftm.client.repositories.sharding;
+
+/**
+ * Places clients by a hash of their CPF. The shard index is folded into the
+ * low digits of the id (id = sequence * shards + shard), so lookups by id
+ * still go to a single shard.
+ */
+public class CpfHashShardResolver implements ShardResolver {
+	
+	private final int shards;
+	
+	public CpfHashShardResolver(int shards) {
+		this.shards = shards;
+	}
+
+	@Override
+	public int shardCount() {
+		return shards;
+	}
+
+	@Override
+	public int shardForId(long id) {
+		return (int) Math.floorMod(id, (long) shards);
+	}
+
+	@Override
+	public long assignId(long sequenceValue, String cpf) {
+		int shard = cpf == null ? 0 : Math.floorMod(cpf.hashCode(), shards);
+		return sequenceValue * shards + shard;
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.iftm.client.repositories.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Hi/lo id allocation: reserves blocks of ids from a database sequence on the
+ * coordinating shard and hands them out locally, so most inserts do not need a
+ * round trip to allocate an id.
+ */
+public class IdAllocator {
+	
+	private final JdbcTemplate coordinator;
+	private final int blockSize;
+	private long next;
+	private long limit;
+	
+	public IdAllocator(JdbcTemplate coordinator, int blockSize) {
+		this.coordinator = coordinator;
+		this.blockSize = blockSize;
+		coordinator.execute("CREATE SEQUENCE IF NOT EXISTS client_id_seq START WITH 1 INCREMENT BY " + blockSize);
+	}
+	
+	public synchronized long next() {
+		if (next >= limit) {
+			next = coordinator.queryForObject("SELECT NEXT VALUE FOR client_id_seq", Long.class);
+			limit = next + blockSize;
+		}
+		return next++;
+	}
+
+}
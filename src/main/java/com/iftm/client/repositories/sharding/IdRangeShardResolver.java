@@ -0,0 +1,33 @@
+package com.iftm.client.repositories.sharding;
+
+/**
+ * Places clients by contiguous id ranges: ids [0, rangeSize) live on shard 0,
+ * [rangeSize, 2 * rangeSize) on shard 1 and so on; the last shard takes the
+ * remainder.
+ */
+public class IdRangeShardResolver implements ShardResolver {
+	
+	private final int shards;
+	private final long rangeSize;
+	
+	public IdRangeShardResolver(int shards, long rangeSize) {
+		this.shards = shards;
+		this.rangeSize = rangeSize;
+	}
+
+	@Override
+	public int shardCount() {
+		return shards;
+	}
+
+	@Override
+	public int shardForId(long id) {
+		return (int) Math.min(id / rangeSize, shards - 1);
+	}
+
+	@Override
+	public long assignId(long sequenceValue, String cpf) {
+		return sequenceValue;
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.iftm.client.repositories.sharding;
+
+import java.time.Instant;
+
+import com.iftm.client.entities.ChangeType;
+
+/**
+ * A change written to a shard together with the client row, recording the
+ * outbox sequence it was meant to be published under. It is removed once
+ * that outbox row is known to be committed.
+ */
+public class PendingChange {
+	
+	private final int shard;
+	private final long sequence;
+	private final ChangeType type;
+	private final Long clientId;
+	private final Instant createdAt;
+	
+	public PendingChange(int shard, long sequence, ChangeType type, Long clientId, Instant createdAt) {
+		this.shard = shard;
+		this.sequence = sequence;
+		this.type = type;
+		this.clientId = clientId;
+		this.createdAt = createdAt;
+	}
+
+	public int getShard() {
+		return shard;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public ChangeType getType() {
+		return type;
+	}
+
+	public Long getClientId() {
+		return clientId;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+}
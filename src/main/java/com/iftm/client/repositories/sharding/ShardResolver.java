@@ -0,0 +1,11 @@
+package com.iftm.client.repositories.sharding;
+
+public interface ShardResolver {
+	
+	int shardCount();
+	
+	int shardForId(long id);
+	
+	long assignId(long sequenceValue, String cpf);
+
+}
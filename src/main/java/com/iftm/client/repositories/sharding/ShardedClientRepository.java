@@ -0,0 +1,294 @@
+package com.iftm.client.repositories.sharding;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityNotFoundException;
+import javax.sql.DataSource;
+
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.util.ClientSort;
+import com.iftm.client.repositories.util.PageMerger;
+
+/**
+ * Client storage spread over several databases. Single-client operations go to
+ * the shard chosen by the ShardResolver; listing and search queries are
+ * scattered to every shard in parallel and merged in sort order.
+ * Writes take the outbox sequence of the change they belong to and record it
+ * in {@code tb_client_change_pending} in the same shard transaction as the
+ * row, so a write whose outbox row never committed can be found and
+ * published later.
+ */
+public class ShardedClientRepository {
+	
+	private static final String COLUMNS = "id, name, cpf, income, birth_date, children";
+	private static final RowMapper<Client> ROW_MAPPER = ShardedClientRepository::mapRow;
+	
+	private final List<JdbcTemplate> shards;
+	private final List<TransactionTemplate> transactions;
+	private final ShardResolver resolver;
+	private final IdAllocator idAllocator;
+	private final ExecutorService executor;
+	
+	/**
+	 * Scatter queries run on a pool of {@code queryThreads} shared by all
+	 * requests; once its queue is full, callers run their shard queries
+	 * themselves.
+	 */
+	public ShardedClientRepository(List<DataSource> dataSources, ShardResolver resolver, int idBlockSize,
+			int queryThreads, int queueCapacity) {
+		this.shards = dataSources.stream().map(JdbcTemplate::new).collect(Collectors.toList());
+		this.transactions = dataSources.stream()
+				.map(x -> new TransactionTemplate(new DataSourceTransactionManager(x)))
+				.collect(Collectors.toList());
+		this.resolver = resolver;
+		for (JdbcTemplate shard : shards) {
+			shard.execute("CREATE TABLE IF NOT EXISTS tb_client (id BIGINT PRIMARY KEY, name VARCHAR(255), "
+					+ "cpf VARCHAR(255), income DOUBLE, birth_date TIMESTAMP WITH TIME ZONE, children INT)");
+			shard.execute("CREATE TABLE IF NOT EXISTS tb_client_change_pending (sequence BIGINT PRIMARY KEY, "
+					+ "change_type VARCHAR(16), client_id BIGINT, created_at TIMESTAMP WITH TIME ZONE)");
+		}
+		this.idAllocator = new IdAllocator(shards.get(0), idBlockSize);
+		this.executor = new ThreadPoolExecutor(queryThreads, queryThreads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), r -> {
+					Thread thread = new Thread(r, "shard-query");
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+	
+	public Optional<Client> findById(Long id) {
+		List<Client> list = shardFor(id).query("SELECT " + COLUMNS + " FROM tb_client WHERE id = ?", ROW_MAPPER, id);
+		return list.stream().findFirst();
+	}
+	
+	public List<Client> findAllById(Collection<Long> ids) {
+		Map<Integer, List<Long>> byShard = ids.stream().collect(Collectors.groupingBy(resolver::shardForId));
+		List<Client> result = new ArrayList<>();
+		for (Map.Entry<Integer, List<Long>> entry : byShard.entrySet()) {
+			String in = entry.getValue().stream().map(x -> "?").collect(Collectors.joining(","));
+			result.addAll(shards.get(entry.getKey()).query("SELECT " + COLUMNS + " FROM tb_client WHERE id IN (" + in + ")",
+					ROW_MAPPER, entry.getValue().toArray()));
+		}
+		return result;
+	}
+	
+	public List<Client> findAll() {
+		return scatter(shard -> shard.query("SELECT " + COLUMNS + " FROM tb_client", ROW_MAPPER))
+				.stream().flatMap(List::stream).collect(Collectors.toList());
+	}
+	
+	public Page<Client> findAll(Pageable pageable) {
+		return findPage("", new Object[0], pageable);
+	}
+	
+	public Page<Client> findByIncome(Double income, Pageable pageable) {
+		return findPage(" WHERE income >= ?", new Object[] { income }, pageable);
+	}
+	
+	public Slice<Client> findSliceBy(Pageable pageable) {
+		return findSlice("", new Object[0], pageable);
+	}
+	
+	public Slice<Client> findSliceByIncome(Double income, Pageable pageable) {
+		return findSlice(" WHERE income >= ?", new Object[] { income }, pageable);
+	}
+	
+	public List<Client> findBatchBetween(Long after, Long last, int limit) {
+		return scatter(shard -> shard.query("SELECT " + COLUMNS + " FROM tb_client WHERE id > ? AND id <= ? ORDER BY id LIMIT ?",
+				ROW_MAPPER, after, last, limit)).stream().flatMap(List::stream)
+				.sorted(Comparator.comparing(Client::getId)).limit(limit).collect(Collectors.toList());
+	}
+	
+	public Optional<long[]> findIdBounds() {
+		long[] bounds = null;
+		for (Map<String, Object> row : scatter(shard -> shard.queryForMap(
+				"SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM tb_client"))) {
+			if (row.get("min_id") != null) {
+				long min = ((Number) row.get("min_id")).longValue();
+				long max = ((Number) row.get("max_id")).longValue();
+				bounds = bounds == null ? new long[] { min, max }
+						: new long[] { Math.min(bounds[0], min), Math.max(bounds[1], max) };
+			}
+		}
+		return Optional.ofNullable(bounds);
+	}
+	
+	public List<Client> findByNameContainingIgnoreCase(String name) {
+		String pattern = "%" + name.toUpperCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+		return scatter(shard -> shard.query("SELECT " + COLUMNS + " FROM tb_client WHERE UPPER(name) LIKE ? ESCAPE '\\'",
+				ROW_MAPPER, pattern)).stream().flatMap(List::stream).collect(Collectors.toList());
+	}
+	
+	public List<Client> findByBirthDateRange(Instant start, Instant end) {
+		return scatter(shard -> shard.query("SELECT " + COLUMNS + " FROM tb_client WHERE birth_date >= ? AND birth_date < ?",
+				ROW_MAPPER, toTimestamp(start), toTimestamp(end))).stream().flatMap(List::stream).collect(Collectors.toList());
+	}
+	
+	public Client assignId(Client client) {
+		client.setId(resolver.assignId(idAllocator.next(), client.getCpf()));
+		return client;
+	}
+	
+	public Client insert(Client client, long sequence) {
+		Long id = client.getId();
+		write(id, sequence, ChangeType.INSERT, shard -> shard.update(
+				"INSERT INTO tb_client (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)",
+				id, client.getName(), client.getCpf(), client.getIncome(), toTimestamp(client.getBirthDate()),
+				client.getChildren()));
+		return client;
+	}
+	
+	public Client update(Client client, long sequence) {
+		write(client.getId(), sequence, ChangeType.UPDATE, shard -> {
+			int rows = shard.update(
+					"UPDATE tb_client SET name = ?, cpf = ?, income = ?, birth_date = ?, children = ? WHERE id = ?",
+					client.getName(), client.getCpf(), client.getIncome(), toTimestamp(client.getBirthDate()),
+					client.getChildren(), client.getId());
+			if (rows == 0) {
+				throw new EntityNotFoundException("Unable to find client with id " + client.getId());
+			}
+			return rows;
+		});
+		return client;
+	}
+	
+	public void deleteById(Long id, long sequence) {
+		write(id, sequence, ChangeType.DELETE, shard -> {
+			if (shard.update("DELETE FROM tb_client WHERE id = ?", id) == 0) {
+				throw new EmptyResultDataAccessException("No client entity with id " + id + " exists!", 1);
+			}
+			return 1;
+		});
+	}
+	
+	/**
+	 * Returns the pending changes recorded before {@code before}, oldest first.
+	 */
+	public List<PendingChange> findPendingChanges(Instant before) {
+		List<PendingChange> pending = new ArrayList<>();
+		for (int i = 0; i < shards.size(); i++) {
+			int shard = i;
+			pending.addAll(shards.get(i).query(
+					"SELECT sequence, change_type, client_id, created_at FROM tb_client_change_pending "
+							+ "WHERE created_at < ? ORDER BY sequence",
+					(rs, rowNum) -> new PendingChange(shard, rs.getLong("sequence"),
+							ChangeType.valueOf(rs.getString("change_type")), rs.getLong("client_id"),
+							rs.getObject("created_at", OffsetDateTime.class).toInstant()),
+					toTimestamp(before)));
+		}
+		pending.sort(Comparator.comparing(PendingChange::getCreatedAt));
+		return pending;
+	}
+	
+	public void acknowledge(Long clientId, long sequence) {
+		shardFor(clientId).update("DELETE FROM tb_client_change_pending WHERE sequence = ? AND client_id = ?",
+				sequence, clientId);
+	}
+	
+	public Map<Integer, Long> countByShard() {
+		Map<Integer, Long> counts = new HashMap<>();
+		List<Long> perShard = scatter(shard -> shard.queryForObject("SELECT COUNT(*) FROM tb_client", Long.class));
+		for (int i = 0; i < perShard.size(); i++) {
+			counts.put(i, perShard.get(i));
+		}
+		return counts;
+	}
+	
+	public SortedMap<Double, Long> countGroupByIncome() {
+		SortedMap<Double, Long> counts = new TreeMap<>();
+		for (List<Map<String, Object>> rows : scatter(shard -> shard.queryForList(
+				"SELECT income, COUNT(*) AS total FROM tb_client WHERE income IS NOT NULL GROUP BY income"))) {
+			for (Map<String, Object> row : rows) {
+				counts.merge(((Number) row.get("income")).doubleValue(), ((Number) row.get("total")).longValue(), Long::sum);
+			}
+		}
+		return counts;
+	}
+	
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+	
+	private Page<Client> findPage(String where, Object[] args, Pageable pageable) {
+		long limit = pageable.getOffset() + pageable.getPageSize();
+		String sql = "SELECT " + COLUMNS + " FROM tb_client" + where + ClientSort.orderBy(pageable.getSort()) + " LIMIT " + limit;
+		Comparator<Client> comparator = ClientSort.comparator(pageable.getSort());
+		List<List<Client>> parts = scatter(shard -> shard.query(sql, ROW_MAPPER, args));
+		long total = scatter(shard -> shard.queryForObject("SELECT COUNT(*) FROM tb_client" + where, Long.class, args))
+				.stream().mapToLong(Long::longValue).sum();
+		return PageMerger.merge(parts, comparator, pageable, total);
+	}
+	
+	private Slice<Client> findSlice(String where, Object[] args, Pageable pageable) {
+		long limit = pageable.getOffset() + pageable.getPageSize() + 1;
+		String sql = "SELECT " + COLUMNS + " FROM tb_client" + where + ClientSort.orderBy(pageable.getSort()) + " LIMIT " + limit;
+		List<List<Client>> parts = scatter(shard -> shard.query(sql, ROW_MAPPER, args));
+		return PageMerger.mergeSlice(parts, ClientSort.comparator(pageable.getSort()), pageable);
+	}
+	
+	private <T> List<T> scatter(Function<JdbcTemplate, T> query) {
+		List<CompletableFuture<T>> futures = shards.stream()
+				.map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), executor))
+				.collect(Collectors.toList());
+		return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+	}
+	
+	private void write(Long id, long sequence, ChangeType type, Function<JdbcTemplate, Integer> statement) {
+		int index = resolver.shardForId(id);
+		JdbcTemplate shard = shards.get(index);
+		transactions.get(index).executeWithoutResult(status -> {
+			statement.apply(shard);
+			shard.update("MERGE INTO tb_client_change_pending (sequence, change_type, client_id, created_at) "
+					+ "KEY (sequence) VALUES (?, ?, ?, ?)", sequence, type.name(), id, toTimestamp(Instant.now()));
+		});
+	}
+	
+	private JdbcTemplate shardFor(Long id) {
+		return shards.get(resolver.shardForId(id));
+	}
+	
+	private static Object toTimestamp(Instant instant) {
+		return instant == null ? null : OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+	}
+	
+	private static Client mapRow(ResultSet rs, int rowNum) throws SQLException {
+		OffsetDateTime birthDate = rs.getObject("birth_date", OffsetDateTime.class);
+		Object income = rs.getObject("income");
+		Object children = rs.getObject("children");
+		return new Client(rs.getLong("id"), rs.getString("name"), rs.getString("cpf"),
+				income == null ? null : ((Number) income).doubleValue(),
+				birthDate == null ? null : birthDate.toInstant(),
+				children == null ? null : ((Number) children).intValue());
+	}
+
+}
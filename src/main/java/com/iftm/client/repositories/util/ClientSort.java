@@ -0,0 +1,69 @@
+package com.iftm.client.repositories.util;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+import com.iftm.client.entities.Client;
+
+/**
+ * Maps a Spring Data Sort over Client properties to the equivalent SQL ORDER BY
+ * clause and in-memory comparator, always tie-breaking on id so both agree.
+ */
+public final class ClientSort {
+	
+	private static final Map<String, String> COLUMNS = Map.of(
+			"id", "id",
+			"name", "name",
+			"cpf", "cpf",
+			"income", "income",
+			"birthDate", "birth_date",
+			"children", "children");
+	
+	@SuppressWarnings("rawtypes")
+	private static final Map<String, Function<Client, Comparable>> PROPERTIES = Map.of(
+			"id", Client::getId,
+			"name", Client::getName,
+			"cpf", Client::getCpf,
+			"income", Client::getIncome,
+			"birthDate", Client::getBirthDate,
+			"children", Client::getChildren);
+	
+	private ClientSort() {
+	}
+	
+	public static String orderBy(Sort sort) {
+		StringBuilder sql = new StringBuilder(" ORDER BY ");
+		for (Sort.Order order : sort) {
+			sql.append(column(order.getProperty())).append(order.isAscending() ? " ASC, " : " DESC, ");
+		}
+		return sql.append("id ASC").toString();
+	}
+	
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public static Comparator<Client> comparator(Sort sort) {
+		Comparator<Client> comparator = null;
+		for (Sort.Order order : sort) {
+			column(order.getProperty());
+			Function<Client, Comparable> property = PROPERTIES.get(order.getProperty());
+			Comparator<Client> next = Comparator.comparing(property, Comparator.nullsFirst(Comparator.naturalOrder()));
+			if (order.isDescending()) {
+				next = next.reversed();
+			}
+			comparator = comparator == null ? next : comparator.thenComparing(next);
+		}
+		Comparator<Client> byId = Comparator.comparing(Client::getId);
+		return comparator == null ? byId : comparator.thenComparing(byId);
+	}
+	
+	private static String column(String property) {
+		String column = COLUMNS.get(property);
+		if (column == null) {
+			throw new IllegalArgumentException("Cannot sort clients by " + property);
+		}
+		return column;
+	}
+
+}
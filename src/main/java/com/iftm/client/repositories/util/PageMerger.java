@@ -0,0 +1,73 @@
+package com.iftm.client.repositories.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Builds one page out of several sources that are each already sorted and each
+ * hold at least offset + pageSize rows (or all of their rows), by k-way merging
+ * them and skipping to the requested offset.
+ */
+public final class PageMerger {
+	
+	private PageMerger() {
+	}
+	
+	public static <T> Page<T> merge(List<List<T>> sortedParts, Comparator<T> comparator, Pageable pageable, long total) {
+		List<T> merged = merge(sortedParts, comparator, pageable.getOffset() + pageable.getPageSize());
+		int from = (int) Math.min(pageable.getOffset(), merged.size());
+		return new PageImpl<>(new ArrayList<>(merged.subList(from, merged.size())), pageable, total);
+	}
+	
+	public static <T> Slice<T> mergeSlice(List<List<T>> sortedParts, Comparator<T> comparator, Pageable pageable) {
+		long end = pageable.getOffset() + pageable.getPageSize();
+		List<T> merged = merge(sortedParts, comparator, end + 1);
+		int from = (int) Math.min(pageable.getOffset(), merged.size());
+		int to = (int) Math.min(end, merged.size());
+		return new SliceImpl<>(new ArrayList<>(merged.subList(from, to)), pageable, merged.size() > end);
+	}
+	
+	public static <T> List<T> merge(List<List<T>> sortedParts, Comparator<T> comparator, long limit) {
+		PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> comparator.compare(a.current(), b.current()));
+		for (List<T> part : sortedParts) {
+			if (!part.isEmpty()) {
+				heads.add(new Cursor<>(part));
+			}
+		}
+		List<T> result = new ArrayList<>();
+		while (!heads.isEmpty() && result.size() < limit) {
+			Cursor<T> head = heads.poll();
+			result.add(head.current());
+			if (head.advance()) {
+				heads.add(head);
+			}
+		}
+		return result;
+	}
+	
+	private static final class Cursor<T> {
+		private final List<T> items;
+		private int index;
+		
+		private Cursor(List<T> items) {
+			this.items = items;
+		}
+		
+		private T current() {
+			return items.get(index);
+		}
+		
+		private boolean advance() {
+			return ++index < items.size();
+		}
+	}
+
+}
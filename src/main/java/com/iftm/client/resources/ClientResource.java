@@ -1,38 +1,101 @@
 package com.iftm.client.resources;
 
 import java.net.URI;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.iftm.client.config.RateLimitProperties;
+import com.iftm.client.dto.ClientChangeDTO;
 import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientField;
+import com.iftm.client.dto.ClientFieldsDTO;
+import com.iftm.client.dto.ScanPageDTO;
 import com.iftm.client.entities.Client;
+import com.iftm.client.resources.cache.ResponseCache;
+import com.iftm.client.resources.idempotency.IdempotentRequests;
+import com.iftm.client.resources.idempotency.StoredResponse;
+import com.iftm.client.resources.interceptors.RequestKeys;
+import com.iftm.client.resources.util.DateRange;
+import com.iftm.client.resources.util.DateRangeParser;
+import com.iftm.client.resources.util.FieldSetParser;
+import com.iftm.client.search.SegmentQuery;
+import com.iftm.client.services.ClientChangeService;
+import com.iftm.client.services.ClientSearchService;
+import com.iftm.client.services.ClientSegmentService;
 import com.iftm.client.services.ClientService;
+import com.iftm.client.services.ClientStatisticsService;
+import com.iftm.client.services.util.ScanRange;
+import com.iftm.client.warmup.HotClientTracker;
 
 @RestController
 @RequestMapping(value = "/clients")
 public class ClientResource {
 	
+	private static final String COUNT_EXACT = "exact";
+	private static final String COUNT_ESTIMATED = "estimated";
+	private static final String ESTIMATED_TOTAL_HEADER = "X-Total-Count-Estimate";
+	private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+	private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+	
 	@Autowired
 	private ClientService service;
 	
+	@Autowired
+	private ClientChangeService changeService;
+	
+	@Autowired
+	private DateRangeParser dateRangeParser;
+	
+	@Autowired
+	private FieldSetParser fieldSetParser;
+	
+	@Autowired
+	private ResponseCache responseCache;
+	
+	@Autowired
+	private ClientStatisticsService statistics;
+	
+	@Autowired
+	private ClientSearchService searchService;
+	
+	@Autowired
+	private ClientSegmentService segmentService;
+	
+	@Autowired
+	private IdempotentRequests idempotentRequests;
+	
+	@Autowired
+	private RateLimitProperties rateLimitProperties;
+	
+	@Autowired
+	private HotClientTracker hotClients;
+	
 	@GetMapping(value = "/findAll")
 	public ResponseEntity<List<ClientDTO>> findAll() {
 		List<ClientDTO> list = service.findAll();
@@ -40,42 +103,257 @@ public class ClientResource {
 	}
 
 	@GetMapping
-	public ResponseEntity<Page<ClientDTO>> findAll(
+	public ResponseEntity<Slice<ClientDTO>> findAll(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "includeArchived", defaultValue = "false") Boolean includeArchived,
+			@RequestParam(value = "count", defaultValue = COUNT_EXACT) String count,
+			WebRequest request) 
+	{
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		boolean sliced = !includeArchived && !COUNT_EXACT.equals(count);
+		String key = "findAllPaged?" + pageRequest + "&includeArchived=" + includeArchived + "&sliced=" + sliced;
+		long version = service.getDataVersion();
+		String etag = responseCache.etag(key, version);
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
+		Slice<ClientDTO> list = responseCache.get(key, version, () -> includeArchived
+				? service.findAllPaged(pageRequest, true)
+				: sliced ? service.findAllSliced(pageRequest) : service.findAllPaged(pageRequest));
+		BodyBuilder response = ResponseEntity.ok().cacheControl(responseCache.getCacheControl()).eTag(etag);
+		if (sliced && COUNT_ESTIMATED.equals(count)) {
+			statistics.estimateCount().ifPresent(x -> response.header(ESTIMATED_TOTAL_HEADER, String.valueOf(x)));
+		}
+		return response.body(list);
+	}
+	
+	@GetMapping(params = { "fields", "!ids" })
+	public ResponseEntity<Slice<ClientFieldsDTO>> findAllFields(
+			@RequestParam(value = "fields") String fields,
 			@RequestParam(value = "page", defaultValue = "0") Integer page,
 			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
 			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
-			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy) 
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "includeArchived", defaultValue = "false") Boolean includeArchived,
+			@RequestParam(value = "count", defaultValue = COUNT_EXACT) String count,
+			WebRequest request) 
 	{
+		Set<ClientField> fieldSet = fieldSetParser.parse(fields);
 		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
-		Page<ClientDTO> list = service.findAllPaged(pageRequest);
+		boolean sliced = !includeArchived && !COUNT_EXACT.equals(count);
+		String key = "findAllFields?" + fieldSet + "&" + pageRequest + "&includeArchived=" + includeArchived
+				+ "&sliced=" + sliced;
+		long version = service.getDataVersion();
+		String etag = responseCache.etag(key, version);
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
+		Slice<ClientFieldsDTO> list = responseCache.get(key, version, () -> includeArchived
+				? service.findAllPaged(pageRequest, true).map(x -> ClientFieldsDTO.of(x, fieldSet))
+				: sliced ? service.findAllSliced(pageRequest, fieldSet) : service.findAllPaged(pageRequest, fieldSet));
+		BodyBuilder response = ResponseEntity.ok().cacheControl(responseCache.getCacheControl()).eTag(etag);
+		if (sliced && COUNT_ESTIMATED.equals(count)) {
+			statistics.estimateCount().ifPresent(x -> response.header(ESTIMATED_TOTAL_HEADER, String.valueOf(x)));
+		}
+		return response.body(list);
+	}
+	
+	@GetMapping(params = "ids")
+	public ResponseEntity<List<ClientDTO>> findAllById(@RequestParam(value = "ids") List<Long> ids) {
+		List<ClientDTO> list = service.findAllById(ids);
 		return ResponseEntity.ok().body(list);
 	}
 	
 	@GetMapping(value = "/find-by-income")
-	public ResponseEntity<Page<ClientDTO>> findByIncome(
+	public ResponseEntity<Slice<ClientDTO>> findByIncome(
 		@RequestParam(value = "income", defaultValue = "") Double income,
 		@RequestParam(value = "page", defaultValue = "0") Integer page,
 		@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
 		@RequestParam(value = "direction", defaultValue = "ASC") String direction,
-		@RequestParam(value = "orderBy", defaultValue = "name") String orderBy)
+		@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+		@RequestParam(value = "includeArchived", defaultValue = "false") Boolean includeArchived,
+		@RequestParam(value = "count", defaultValue = COUNT_EXACT) String count,
+		WebRequest request)
 	{
 		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
-		Page<ClientDTO> list = service.findByIncome(income, pageRequest);
+		boolean sliced = !includeArchived && !COUNT_EXACT.equals(count);
+		String key = "findByIncome?income=" + income + "&" + pageRequest + "&includeArchived=" + includeArchived
+				+ "&sliced=" + sliced;
+		long version = service.getDataVersion();
+		String etag = responseCache.etag(key, version);
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
+		Slice<ClientDTO> list = responseCache.get(key, version, () -> includeArchived
+				? service.findByIncome(income, pageRequest, true)
+				: sliced ? service.findByIncomeSliced(income, pageRequest) : service.findByIncome(income, pageRequest));
+		BodyBuilder response = ResponseEntity.ok().cacheControl(responseCache.getCacheControl()).eTag(etag);
+		if (sliced && COUNT_ESTIMATED.equals(count)) {
+			statistics.estimateCountByIncome(income)
+					.ifPresent(x -> response.header(ESTIMATED_TOTAL_HEADER, String.valueOf(x)));
+		}
+		return response.body(list);
+	}
+	
+	@GetMapping(value = "/find-by-income", params = "fields")
+	public ResponseEntity<Slice<ClientFieldsDTO>> findByIncomeFields(
+		@RequestParam(value = "fields") String fields,
+		@RequestParam(value = "income", defaultValue = "") Double income,
+		@RequestParam(value = "page", defaultValue = "0") Integer page,
+		@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+		@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+		@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+		@RequestParam(value = "includeArchived", defaultValue = "false") Boolean includeArchived,
+		@RequestParam(value = "count", defaultValue = COUNT_EXACT) String count,
+		WebRequest request)
+	{
+		Set<ClientField> fieldSet = fieldSetParser.parse(fields);
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		boolean sliced = !includeArchived && !COUNT_EXACT.equals(count);
+		String key = "findByIncomeFields?" + fieldSet + "&income=" + income + "&" + pageRequest
+				+ "&includeArchived=" + includeArchived + "&sliced=" + sliced;
+		long version = service.getDataVersion();
+		String etag = responseCache.etag(key, version);
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
+		Slice<ClientFieldsDTO> list = responseCache.get(key, version, () -> includeArchived
+				? service.findByIncome(income, pageRequest, true).map(x -> ClientFieldsDTO.of(x, fieldSet))
+				: sliced ? service.findByIncomeSliced(income, pageRequest, fieldSet)
+						: service.findByIncome(income, pageRequest, fieldSet));
+		BodyBuilder response = ResponseEntity.ok().cacheControl(responseCache.getCacheControl()).eTag(etag);
+		if (sliced && COUNT_ESTIMATED.equals(count)) {
+			statistics.estimateCountByIncome(income)
+					.ifPresent(x -> response.header(ESTIMATED_TOTAL_HEADER, String.valueOf(x)));
+		}
+		return response.body(list);
+	}
+	
+	@GetMapping(value = "/search")
+	public ResponseEntity<Page<ClientDTO>> search(
+			@RequestParam(value = "q", defaultValue = "") String query,
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage)
+	{
+		Page<ClientDTO> list = searchService.search(query, PageRequest.of(page, linesPerPage));
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@GetMapping(value = "/search", params = "fields")
+	public ResponseEntity<Page<ClientFieldsDTO>> searchFields(
+			@RequestParam(value = "fields") String fields,
+			@RequestParam(value = "q", defaultValue = "") String query,
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage)
+	{
+		Page<ClientFieldsDTO> list = searchService.search(query, PageRequest.of(page, linesPerPage),
+				fieldSetParser.parse(fields));
 		return ResponseEntity.ok().body(list);
 	}
 	
+	@GetMapping(value = "/segment")
+	public ResponseEntity<Page<ClientDTO>> findSegment(
+			@RequestParam(value = "born", required = false) String born,
+			@RequestParam(value = "minIncome", required = false) Double minIncome,
+			@RequestParam(value = "maxIncome", required = false) Double maxIncome,
+			@RequestParam(value = "children", required = false) String children,
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage)
+	{
+		SegmentQuery query = SegmentQuery.parse(born, minIncome, maxIncome, children);
+		Page<ClientDTO> list = segmentService.find(query, PageRequest.of(page, linesPerPage));
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@GetMapping(value = "/segment/ids")
+	public ResponseEntity<Page<Long>> findSegmentIds(
+			@RequestParam(value = "born", required = false) String born,
+			@RequestParam(value = "minIncome", required = false) Double minIncome,
+			@RequestParam(value = "maxIncome", required = false) Double maxIncome,
+			@RequestParam(value = "children", required = false) String children,
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "1000") Integer linesPerPage)
+	{
+		SegmentQuery query = SegmentQuery.parse(born, minIncome, maxIncome, children);
+		Page<Long> ids = segmentService.findIds(query, PageRequest.of(page, linesPerPage));
+		return ResponseEntity.ok().body(ids);
+	}
+	
+	@GetMapping(value = "/scan")
+	public ResponseEntity<List<String>> scanTokens(@RequestParam(value = "segments", defaultValue = "8") Integer segments) {
+		List<String> tokens = service.scanRanges(segments).stream().map(ScanRange::getToken).collect(Collectors.toList());
+		return ResponseEntity.ok().body(tokens);
+	}
+	
+	@GetMapping(value = "/scan/{token}")
+	public ResponseEntity<ScanPageDTO> scan(
+			@PathVariable String token,
+			@RequestParam(value = "after", required = false) Long after,
+			@RequestParam(value = "limit", defaultValue = "1000") Integer limit)
+	{
+		int size = Math.min(Math.max(limit, 1), 10000);
+		List<ClientDTO> list = service.scan(ScanRange.parse(token), after, size);
+		Long next = list.size() < size ? null : list.get(list.size() - 1).getId();
+		return ResponseEntity.ok().body(new ScanPageDTO(list, next));
+	}
+	
+	@GetMapping(value = "/changes")
+	public CompletableFuture<ResponseEntity<List<ClientChangeDTO>>> findChanges(
+			@RequestParam(value = "since", defaultValue = "0") Long since,
+			@RequestParam(value = "limit", defaultValue = "100") Integer limit,
+			@RequestParam(value = "waitMs", defaultValue = "0") Long waitMs)
+	{
+		int size = Math.min(Math.max(limit, 1), 1000);
+		List<ClientChangeDTO> list = changeService.findChanges(since, size);
+		if (!list.isEmpty() || waitMs <= 0) {
+			return CompletableFuture.completedFuture(ResponseEntity.ok().body(list));
+		}
+		return changeService.awaitChanges(since, Math.min(waitMs, 30000L))
+				.thenApplyAsync(x -> ResponseEntity.ok().body(changeService.findChanges(since, size)));
+	}
+	
 	@GetMapping(value = "/{id}")
 	public ResponseEntity<ClientDTO> findById(@PathVariable Long id) {
 		ClientDTO dto = service.findById(id);
+		hotClients.record(id);
+		return ResponseEntity.ok().body(dto);
+	}
+	
+	@GetMapping(value = "/{id}", params = "fields")
+	public ResponseEntity<ClientFieldsDTO> findByIdFields(@PathVariable Long id, @RequestParam(value = "fields") String fields) {
+		ClientFieldsDTO dto = service.findById(id, fieldSetParser.parse(fields));
 		return ResponseEntity.ok().body(dto);
 	}
 	
 	@PostMapping
-	public ResponseEntity<ClientDTO> insert(@RequestBody ClientDTO dto) {
-		dto = service.insert(dto);
-		URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
-				.buildAndExpand(dto.getId()).toUri();
-		return ResponseEntity.created(uri).body(dto);
+	public ResponseEntity<ClientDTO> insert(@RequestBody ClientDTO dto,
+			@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+			HttpServletRequest httpRequest) 
+	{
+		if (idempotencyKey == null) {
+			dto = service.insert(dto);
+			URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+					.buildAndExpand(dto.getId()).toUri();
+			return ResponseEntity.created(uri).body(dto);
+		}
+		ClientDTO request = dto;
+		String fingerprint = Arrays.asList(dto.getName(), dto.getCpf(), dto.getIncome(), dto.getBirthDate(),
+				dto.getChildren()).toString();
+		String key = RequestKeys.clientKey(httpRequest, rateLimitProperties.getApiKeyHeader()) + "|" + idempotencyKey;
+		IdempotentRequests.Result result = idempotentRequests.execute(key, fingerprint, () -> {
+			ClientDTO inserted = service.insert(request);
+			URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+					.buildAndExpand(inserted.getId()).toUri();
+			return new StoredResponse(fingerprint, HttpStatus.CREATED.value(), uri.toString(), inserted);
+		});
+		StoredResponse stored = result.getResponse();
+		return ResponseEntity.status(stored.getStatus())
+				.location(URI.create(stored.getLocation()))
+				.header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.isReplayed()))
+				.body((ClientDTO) stored.getBody());
 	}
 	
 	@PutMapping(value = "/{id}")
@@ -84,6 +362,12 @@ public class ClientResource {
 		return ResponseEntity.ok().body(dto);
 	}
 	
+	@PostMapping(value = "/{id}/restore")
+	public ResponseEntity<ClientDTO> restore(@PathVariable Long id) {
+		ClientDTO dto = service.restore(id);
+		return ResponseEntity.ok().body(dto);
+	}
+	
 	@DeleteMapping(value = "/{id}")
 	public ResponseEntity<ClientDTO> delete(@PathVariable Long id) {
 		service.delete(id);
@@ -91,20 +375,24 @@ public class ClientResource {
 	}
 	
 	@GetMapping(value = "/n={name}")
-	public List<Client> findByNameContainingIgnoreCase(@PathVariable String name) {
-		return service.findByNameContainingIgnoreCase(name);
+	public ResponseEntity<List<Client>> findByNameContainingIgnoreCase(@PathVariable String name,
+			@RequestParam(value = "includeArchived", defaultValue = "false") Boolean includeArchived,
+			WebRequest request) {
+		String key = "findByName?name=" + name.toLowerCase() + "&includeArchived=" + includeArchived;
+		long version = service.getDataVersion();
+		String etag = responseCache.etag(key, version);
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
+		List<Client> list = responseCache.get(key, version, () -> includeArchived
+				? service.findByNameContainingIgnoreCase(name, true)
+				: service.findByNameContainingIgnoreCase(name));
+		return ResponseEntity.ok().cacheControl(responseCache.getCacheControl()).eTag(etag).body(list);
 	}
 	
 	@GetMapping(value = "/d={date}")
-	public List<Client> findByBirthDate(@PathVariable String date) throws ParseException {
-		SimpleDateFormat dateFormat;
-		if(date.length() == 4) {
-			dateFormat = new SimpleDateFormat("yyyy");
-        } else {
-        	dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-        }
-
-        Date newDate = dateFormat.parse(date);
-        return service.findByBirthDate(newDate.toInstant());
+	public List<Client> findByBirthDate(@PathVariable String date) {
+		DateRange range = dateRangeParser.parse(date);
+		return service.findByBirthDate(range.getStart(), range.getEnd());
 	}
 }
@@ -0,0 +1,69 @@
+package com.iftm.client.resources;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.iftm.client.datasource.QueryStatistics;
+import com.iftm.client.datasource.ReplicaMonitor;
+import com.iftm.client.resources.idempotency.IdempotentRequests;
+import com.iftm.client.resources.interceptors.ConcurrencyLimitInterceptor;
+import com.iftm.client.resources.interceptors.RateLimitInterceptor;
+import com.iftm.client.services.ClientService;
+import com.iftm.client.services.events.ClientEventDispatcher;
+import com.iftm.client.services.util.SingleFlight;
+
+@RestController
+@RequestMapping(value = "/metrics")
+public class MetricsResource {
+	
+	@Autowired
+	private ClientService service;
+	
+	@Autowired
+	private RateLimitInterceptor rateLimitInterceptor;
+	
+	@Autowired
+	private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+	
+	@Autowired
+	private ClientEventDispatcher eventDispatcher;
+	
+	@Autowired
+	private IdempotentRequests idempotentRequests;
+	
+	@Autowired(required = false)
+	private ReplicaMonitor replicaMonitor;
+	
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> metrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		SingleFlight flights = service.getReadFlights();
+		metrics.put("singleFlight.calls", flights.getCalls());
+		metrics.put("singleFlight.coalesced", flights.getCoalesced());
+		metrics.put("singleFlight.inFlight", flights.getInFlight());
+		metrics.put("rateLimit.throttled", rateLimitInterceptor.getThrottled());
+		metrics.put("concurrencyLimit.limits", concurrencyLimitInterceptor.getLimits());
+		metrics.put("concurrencyLimit.inFlight", concurrencyLimitInterceptor.getInFlight());
+		metrics.put("concurrencyLimit.rejected", concurrencyLimitInterceptor.getRejected());
+		metrics.put("events.queued", eventDispatcher.getQueued());
+		metrics.put("events.dispatched", eventDispatcher.getDispatched());
+		metrics.put("events.failed", eventDispatcher.getFailed());
+		metrics.put("events.blocked", eventDispatcher.getBlocked());
+		metrics.put("events.stale", eventDispatcher.getStale());
+		metrics.put("idempotency.replayed", idempotentRequests.getReplayed());
+		metrics.put("idempotency.coalesced", idempotentRequests.getCoalesced());
+		metrics.put("datasource.queries", QueryStatistics.getTotal());
+		metrics.put("datasource.slowQueries", QueryStatistics.getSlow());
+		if (replicaMonitor != null) {
+			metrics.put("datasource.replicaLag", replicaMonitor.getLag());
+		}
+		return ResponseEntity.ok().body(metrics);
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.iftm.client.resources;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.iftm.client.services.ClientSnapshotService;
+import com.iftm.client.services.exceptions.ResourceNotFoundException;
+
+@RestController
+@RequestMapping(value = "/snapshots")
+public class SnapshotResource {
+	
+	@Autowired
+	private ClientSnapshotService service;
+	
+	@GetMapping
+	public ResponseEntity<List<String>> list() {
+		return ResponseEntity.ok().body(service.list());
+	}
+	
+	/**
+	 * Starts writing a snapshot and answers 202 right away; the Location
+	 * returns 404 until the snapshot is complete.
+	 */
+	@PostMapping
+	public ResponseEntity<String> create() {
+		String name = service.requestSnapshot();
+		URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{name}").buildAndExpand(name).toUri();
+		return ResponseEntity.accepted().location(uri).body(name);
+	}
+	
+	@GetMapping(value = "/latest")
+	public ResponseEntity<Void> latest() {
+		String name = service.latest().orElseThrow(() -> new ResourceNotFoundException("No snapshot available"));
+		URI uri = ServletUriComponentsBuilder.fromCurrentContextPath().path("/snapshots/{name}").buildAndExpand(name)
+				.toUri();
+		return ResponseEntity.status(HttpStatus.FOUND).location(uri).build();
+	}
+	
+	/**
+	 * Serves a snapshot as a {@link Resource}, so Range requests are answered
+	 * with 206 partial content and interrupted downloads can resume. Snapshots
+	 * never change once written, their name doubles as the ETag.
+	 */
+	@GetMapping(value = "/{name:.+}")
+	public ResponseEntity<Resource> download(@PathVariable String name) {
+		Path file = service.resolve(name);
+		try {
+			return ResponseEntity.ok()
+					.contentType(MediaType.APPLICATION_OCTET_STREAM)
+					.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(name).build().toString())
+					.eTag("\"" + name + "\"")
+					.lastModified(Files.getLastModifiedTime(file).toMillis())
+					.body(new FileSystemResource(file));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
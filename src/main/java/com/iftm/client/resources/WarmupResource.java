@@ -0,0 +1,41 @@
+package com.iftm.client.resources;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.iftm.client.warmup.WarmupReport;
+import com.iftm.client.warmup.WarmupRunner;
+
+@RestController
+@RequestMapping(value = "/warmup")
+public class WarmupResource {
+	
+	@Autowired
+	private WarmupRunner warmupRunner;
+	
+	@Autowired
+	private ApplicationAvailability availability;
+	
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> warmup() {
+		WarmupReport report = warmupRunner.getReport();
+		ReadinessState readiness = availability.getReadinessState();
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("readiness", readiness);
+		body.put("complete", report.isComplete());
+		body.put("totalMillis", report.getTotalMillis());
+		body.put("phaseMillis", report.getPhaseMillis());
+		HttpStatus status = readiness == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+		return ResponseEntity.status(status).body(body);
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.iftm.client.resources.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import com.iftm.client.datasource.ReadWriteRoutingDataSource;
+import com.iftm.client.datasource.ReplicaMonitor;
+import com.iftm.client.datasource.RoutingContext;
+import com.iftm.client.services.ClientChangeService;
+
+/**
+ * Caches list/search responses keyed by their normalized query. Every entry
+ * remembers the data version it was computed for, so a write (which bumps the
+ * version) invalidates all entries at once without touching the map.
+ * The version only lives in this instance's memory, so ETags also carry a
+ * random instance epoch: after a restart, or on another node, an old ETag can
+ * never match again.
+ * A load is only cached when every connection it used went to the primary, or
+ * to a replica known to have replicated every change committed before the
+ * load started; a lagging replica's answer is returned but not cached, so it
+ * cannot be served under the newer version.
+ */
+@Component
+public class ResponseCache {
+	
+	private final int maxEntries;
+	private final String epoch = Long.toHexString(UUID.randomUUID().getLeastSignificantBits());
+	private final CacheControl cacheControl;
+	private final Map<String, Entry> entries;
+	
+	@Autowired(required = false)
+	private ReplicaMonitor replicaMonitor;
+	
+	@Autowired(required = false)
+	private ClientChangeService changeService;
+	
+	public ResponseCache(@Value("${client.response-cache.max-entries:1000}") int maxEntries,
+			@Value("${client.response-cache.max-age-seconds:0}") long maxAgeSeconds) {
+		this.maxEntries = maxEntries;
+		this.cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ResponseCache.Entry> eldest) {
+				return size() > ResponseCache.this.maxEntries;
+			}
+		};
+	}
+	
+	/**
+	 * Requests pinned to the primary bypass the cache: an entry may hold a
+	 * replica read from before their own write, filed under the newer version.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key, long version, Supplier<T> loader) {
+		if (RoutingContext.isPrimaryForced()) {
+			return loader.get();
+		}
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(key);
+		}
+		if (entry != null && entry.version == version) {
+			return (T) entry.value;
+		}
+		long sequence = changeService != null ? changeService.getLastCommittedSequence() : 0L;
+		RoutingContext.Routed<T> loaded = RoutingContext.track(loader);
+		if (!isCurrent(loaded.getRoutes(), sequence)) {
+			return loaded.getValue();
+		}
+		synchronized (entries) {
+			Entry current = entries.get(key);
+			if (current == null || current.version <= version) {
+				entries.put(key, new Entry(version, loaded.getValue()));
+			}
+		}
+		return loaded.getValue();
+	}
+	
+	private boolean isCurrent(Set<String> routes, long sequence) {
+		for (String route : routes) {
+			if (!ReadWriteRoutingDataSource.PRIMARY.equals(route)
+					&& (replicaMonitor == null || replicaMonitor.getPosition(route) < sequence)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public String etag(String key, long version) {
+		return "W/\"" + epoch + "-" + Long.toHexString(version) + "-" + Integer.toHexString(key.hashCode()) + "\"";
+	}
+	
+	public CacheControl getCacheControl() {
+		return cacheControl;
+	}
+	
+	private static final class Entry {
+		private final long version;
+		private final Object value;
+		
+		private Entry(long version, Object value) {
+			this.version = version;
+			this.value = value;
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+package com.iftm.client.resources.idempotency;
+
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.entities.IdempotencyRecord;
+import com.iftm.client.repositories.IdempotencyRecordRepository;
+
+/**
+ * Keeps idempotency keys in {@code tb_idempotency_key} so they are shared by
+ * every node. A key is reserved with a plain INSERT before the request runs;
+ * the primary key makes a second reservation fail, and the row holds no
+ * response until the request completes. A reservation without a response is
+ * a lease: once it is older than {@code leaseMillis} the node holding it is
+ * assumed gone and the key can be reserved again. Responses are stored as
+ * JSON; only the body types listed in {@code BODY_TYPES} are read back.
+ */
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+	
+	private static final Map<String, Class<? extends Serializable>> BODY_TYPES = Map.of(
+			ClientDTO.class.getName(), ClientDTO.class);
+	
+	private final IdempotencyRecordRepository repository;
+	private final ObjectMapper objectMapper;
+	private final long ttlMillis;
+	private final long leaseMillis;
+	
+	public DatabaseIdempotencyStore(IdempotencyRecordRepository repository, ObjectMapper objectMapper, long ttlMillis,
+			long leaseMillis) {
+		this.repository = repository;
+		this.objectMapper = objectMapper;
+		this.ttlMillis = ttlMillis;
+		this.leaseMillis = leaseMillis;
+	}
+	
+	/**
+	 * Not read-only: a read-only transaction may be routed to a replica that
+	 * has not yet seen the response another node just stored.
+	 */
+	@Override
+	@Transactional
+	public StoredResponse get(String key) {
+		return repository.findById(key)
+				.filter(x -> x.getResponse() != null && x.getCreatedAt().isAfter(cutoff()))
+				.map(x -> read(x.getResponse()))
+				.orElse(null);
+	}
+	
+	@Override
+	public boolean reserve(String key) {
+		try {
+			repository.reserve(key, Instant.now());
+			return true;
+		}
+		catch (DataIntegrityViolationException e) {
+			Instant now = Instant.now();
+			return repository.takeOver(key, now, now.minusMillis(leaseMillis), cutoff()) == 1;
+		}
+	}
+	
+	@Override
+	public void put(String key, StoredResponse response) {
+		String json = write(response);
+		if (repository.complete(key, json) == 0) {
+			repository.save(new IdempotencyRecord(key, json, Instant.now()));
+		}
+	}
+	
+	@Override
+	public void release(String key) {
+		repository.release(key);
+	}
+	
+	@Scheduled(fixedDelayString = "${client.idempotency.purge-interval-ms:600000}")
+	@Transactional
+	public void purgeExpired() {
+		repository.deleteCreatedBefore(cutoff());
+	}
+	
+	private Instant cutoff() {
+		return Instant.now().minusMillis(ttlMillis);
+	}
+	
+	private String write(StoredResponse response) {
+		ObjectNode node = objectMapper.createObjectNode();
+		node.put("fingerprint", response.getFingerprint());
+		node.put("status", response.getStatus());
+		node.put("location", response.getLocation());
+		if (response.getBody() != null) {
+			node.put("bodyType", response.getBody().getClass().getName());
+			node.set("body", objectMapper.valueToTree(response.getBody()));
+		}
+		try {
+			return objectMapper.writeValueAsString(node);
+		}
+		catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private StoredResponse read(String json) {
+		try {
+			JsonNode node = objectMapper.readTree(json);
+			Serializable body = null;
+			if (node.hasNonNull("bodyType")) {
+				String bodyType = node.get("bodyType").asText();
+				Class<? extends Serializable> type = BODY_TYPES.get(bodyType);
+				if (type == null) {
+					throw new IllegalStateException("Unexpected stored body type " + bodyType);
+				}
+				body = objectMapper.treeToValue(node.get("body"), type);
+			}
+			return new StoredResponse(node.get("fingerprint").asText(), node.get("status").asInt(),
+					node.path("location").asText(null), body);
+		}
+		catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
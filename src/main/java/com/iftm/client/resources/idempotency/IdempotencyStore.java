@@ -0,0 +1,20 @@
+package com.iftm.client.resources.idempotency;
+
+public interface IdempotencyStore {
+	
+	StoredResponse get(String key);
+	
+	void put(String key, StoredResponse response);
+	
+	/**
+	 * Claims the key before the request runs. Returns {@code false} when
+	 * another request, possibly on another node, already holds it.
+	 */
+	default boolean reserve(String key) {
+		return true;
+	}
+	
+	default void release(String key) {
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.iftm.client.resources.idempotency;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.iftm.client.services.exceptions.IdempotencyKeyInProgressException;
+import com.iftm.client.services.exceptions.IdempotencyKeyReusedException;
+import com.iftm.client.services.util.SingleFlight;
+
+/**
+ * Runs a request at most once per idempotency key. Completed responses are
+ * replayed from the {@link IdempotencyStore}; a duplicate that arrives while
+ * the first request is still running waits for it and gets the same response.
+ * The key is reserved in the store before the request runs, so a duplicate
+ * handled by another node while it is still running is rejected instead of
+ * executed twice. Failed requests release the key, so the client can retry.
+ */
+@Component
+public class IdempotentRequests {
+	
+	@Autowired
+	private IdempotencyStore store;
+	
+	private final SingleFlight flights = new SingleFlight();
+	private final LongAdder replayed = new LongAdder();
+	
+	public IdempotentRequests() {
+	}
+	
+	public IdempotentRequests(IdempotencyStore store) {
+		this.store = store;
+	}
+	
+	public Result execute(String key, String fingerprint, Supplier<StoredResponse> request) {
+		StoredResponse stored = store.get(key);
+		if (stored != null) {
+			return replay(stored, fingerprint);
+		}
+		boolean[] executed = new boolean[1];
+		Result result = flights.execute(key, () -> {
+			executed[0] = true;
+			StoredResponse previous = store.get(key);
+			if (previous != null) {
+				return new Result(previous, true);
+			}
+			if (!store.reserve(key)) {
+				previous = store.get(key);
+				if (previous == null) {
+					throw new IdempotencyKeyInProgressException("A request with this idempotency key is still in progress");
+				}
+				return new Result(previous, true);
+			}
+			StoredResponse response;
+			try {
+				response = request.get();
+			}
+			catch (RuntimeException e) {
+				store.release(key);
+				throw e;
+			}
+			store.put(key, response);
+			return new Result(response, false);
+		});
+		return executed[0] && !result.isReplayed() ? result : replay(result.getResponse(), fingerprint);
+	}
+	
+	public long getReplayed() {
+		return replayed.sum();
+	}
+	
+	public long getCoalesced() {
+		return flights.getCoalesced();
+	}
+	
+	private Result replay(StoredResponse stored, String fingerprint) {
+		if (!stored.getFingerprint().equals(fingerprint)) {
+			throw new IdempotencyKeyReusedException("Idempotency key was already used with a different request");
+		}
+		replayed.increment();
+		return new Result(stored, true);
+	}
+	
+	public static final class Result {
+		private final StoredResponse response;
+		private final boolean replayed;
+		
+		private Result(StoredResponse response, boolean replayed) {
+			this.response = response;
+			this.replayed = replayed;
+		}
+
+		public StoredResponse getResponse() {
+			return response;
+		}
+
+		public boolean isReplayed() {
+			return replayed;
+		}
+	}
+
+}
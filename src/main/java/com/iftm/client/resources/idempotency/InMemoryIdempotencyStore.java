@@ -0,0 +1,89 @@
+package com.iftm.client.resources.idempotency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, insertion-ordered map of idempotency keys whose entries expire after
+ * the TTL. Misses fall through to the optional persistent backend, and every
+ * put is written through to it, so keys survive restarts when one is set.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+	
+	private final long ttlMillis;
+	private final IdempotencyStore backend;
+	private final Map<String, Entry> entries;
+	
+	public InMemoryIdempotencyStore(int maxEntries, long ttlMillis, IdempotencyStore backend) {
+		this.ttlMillis = ttlMillis;
+		this.backend = backend;
+		this.entries = new LinkedHashMap<String, Entry>() {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, InMemoryIdempotencyStore.Entry> eldest) {
+				return size() > maxEntries || eldest.getValue().isExpired();
+			}
+		};
+	}
+	
+	@Override
+	public StoredResponse get(String key) {
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				if (!entry.isExpired()) {
+					return entry.response;
+				}
+				entries.remove(key);
+			}
+		}
+		if (backend == null) {
+			return null;
+		}
+		StoredResponse response = backend.get(key);
+		if (response != null) {
+			synchronized (entries) {
+				entries.putIfAbsent(key, new Entry(response, System.currentTimeMillis() + ttlMillis));
+			}
+		}
+		return response;
+	}
+	
+	@Override
+	public void put(String key, StoredResponse response) {
+		if (backend != null) {
+			backend.put(key, response);
+		}
+		synchronized (entries) {
+			entries.put(key, new Entry(response, System.currentTimeMillis() + ttlMillis));
+		}
+	}
+	
+	@Override
+	public boolean reserve(String key) {
+		return backend == null || backend.reserve(key);
+	}
+	
+	@Override
+	public void release(String key) {
+		if (backend != null) {
+			backend.release(key);
+		}
+	}
+	
+	private static final class Entry {
+		private final StoredResponse response;
+		private final long expiresAt;
+		
+		private Entry(StoredResponse response, long expiresAt) {
+			this.response = response;
+			this.expiresAt = expiresAt;
+		}
+		
+		private boolean isExpired() {
+			return System.currentTimeMillis() >= expiresAt;
+		}
+	}
+
+}
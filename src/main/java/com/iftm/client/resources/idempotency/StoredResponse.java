@@ -0,0 +1,36 @@
+package com.iftm.client.resources.idempotency;
+
+import java.io.Serializable;
+
+public class StoredResponse implements Serializable {
+	private static final long serialVersionUID = 1L;
+	
+	private final String fingerprint;
+	private final int status;
+	private final String location;
+	private final Serializable body;
+	
+	public StoredResponse(String fingerprint, int status, String location, Serializable body) {
+		this.fingerprint = fingerprint;
+		this.status = status;
+		this.location = location;
+		this.body = body;
+	}
+
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public String getLocation() {
+		return location;
+	}
+
+	public Serializable getBody() {
+		return body;
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.iftm.client.resources.interceptors;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.iftm.client.config.ConcurrencyLimitProperties;
+import com.iftm.client.services.exceptions.ServiceUnavailableException;
+import com.iftm.client.services.util.AdaptiveLimit;
+
+@Component
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+	
+	private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+	
+	@Autowired
+	private ConcurrencyLimitProperties properties;
+	
+	private final ConcurrentMap<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LongAdder> rejected = new ConcurrentHashMap<>();
+	
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!properties.isEnabled() || !(handler instanceof HandlerMethod)
+				|| request.getDispatcherType() == DispatcherType.ASYNC) {
+			return true;
+		}
+		String group = properties.groupFor(RequestKeys.route(request));
+		AdaptiveLimit limit = limits.computeIfAbsent(group, x -> newLimit(properties.group(x)));
+		boolean write = !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+		if (!limit.tryAcquire(write)) {
+			rejected.computeIfAbsent(group, x -> new LongAdder()).increment();
+			throw new ServiceUnavailableException("Too many concurrent requests for " + group, 1);
+		}
+		request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limit, System.nanoTime()));
+		return true;
+	}
+	
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+		if (permit != null) {
+			request.removeAttribute(PERMIT_ATTRIBUTE);
+			permit.limit.release(-1, false);
+		}
+	}
+	
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+		if (permit != null) {
+			request.removeAttribute(PERMIT_ATTRIBUTE);
+			int status = response.getStatus();
+			boolean failed = ex != null || status >= 500;
+			if (!failed && (status >= 400 || status == HttpServletResponse.SC_NOT_MODIFIED)) {
+				// rejected or short-circuited before doing real work: not a latency sample
+				permit.limit.release(-1, false);
+			}
+			else {
+				permit.limit.release(System.nanoTime() - permit.startNanos, failed);
+			}
+		}
+	}
+	
+	public Map<String, Integer> getLimits() {
+		Map<String, Integer> result = new TreeMap<>();
+		limits.forEach((group, limit) -> result.put(group, limit.getLimit()));
+		return Collections.unmodifiableMap(result);
+	}
+	
+	public Map<String, Integer> getInFlight() {
+		Map<String, Integer> result = new TreeMap<>();
+		limits.forEach((group, limit) -> result.put(group, limit.getInFlight()));
+		return Collections.unmodifiableMap(result);
+	}
+	
+	public Map<String, Long> getRejected() {
+		Map<String, Long> result = new TreeMap<>();
+		rejected.forEach((group, count) -> result.put(group, count.sum()));
+		return Collections.unmodifiableMap(result);
+	}
+	
+	private static AdaptiveLimit newLimit(ConcurrencyLimitProperties.Group group) {
+		return new AdaptiveLimit(group.getInitialLimit(), group.getMinLimit(), group.getMaxLimit(),
+				group.getReadShare(), group.getLatencyTolerance(), group.getBackoffRatio());
+	}
+	
+	private static final class Permit {
+		private final AdaptiveLimit limit;
+		private final long startNanos;
+		
+		private Permit(AdaptiveLimit limit, long startNanos) {
+			this.limit = limit;
+			this.startNanos = startNanos;
+		}
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.iftm.client.resources.interceptors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.iftm.client.datasource.QueryStatistics;
+
+/**
+ * Adds the number of statements the request thread executed as
+ * {@value #HEADER}. Statements run on other threads are not included: batched
+ * loads, scattered shard queries, parallel scans and the completion of async
+ * long polls all query from their own pools, so for those requests the header
+ * is a lower bound.
+ */
+@ControllerAdvice
+public class QueryCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+	
+	public static final String HEADER = "X-Query-Count";
+	
+	@Value("${client.query-log.count-header:false}")
+	private boolean enabled;
+	
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return enabled;
+	}
+	
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		response.getHeaders().set(HEADER, String.valueOf(QueryStatistics.getCount()));
+		return body;
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.iftm.client.resources.interceptors;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.iftm.client.datasource.QueryStatistics;
+
+@Component
+public class QueryCountInterceptor implements HandlerInterceptor {
+	
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		QueryStatistics.reset();
+		return true;
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.iftm.client.resources.interceptors;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.iftm.client.config.RateLimitProperties;
+import com.iftm.client.services.exceptions.TooManyRequestsException;
+import com.iftm.client.services.util.TokenBucket;
+
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+	
+	private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+	
+	@Autowired
+	private RateLimitProperties properties;
+	
+	private final ConcurrentMap<String, TokenBucket> globalBuckets = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LongAdder> throttled = new ConcurrentHashMap<>();
+	private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+	
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!properties.isEnabled() || !(handler instanceof HandlerMethod)) {
+			return true;
+		}
+		String route = RequestKeys.route(request);
+		RateLimitProperties.Limit limit = properties.limitFor(route);
+		
+		TokenBucket clientBucket = clientBucket(route, RequestKeys.clientKey(request, properties.getApiKeyHeader()), limit);
+		long waitNanos = clientBucket.tryAcquire();
+		if (waitNanos == 0L) {
+			waitNanos = globalBuckets
+					.computeIfAbsent(route, k -> new TokenBucket(limit.getGlobalPerSecond(), limit.getGlobalBurst()))
+					.tryAcquire();
+			if (waitNanos > 0L) {
+				clientBucket.refund();
+			}
+		}
+		if (waitNanos > 0L) {
+			throttled.computeIfAbsent(route, k -> new LongAdder()).increment();
+			long retryAfter = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+			throw new TooManyRequestsException("Rate limit exceeded for " + route, retryAfter);
+		}
+		return true;
+	}
+	
+	/**
+	 * Once too many callers are tracked, full (idle) buckets are dropped; if
+	 * every tracked bucket is in use, new callers share one overflow bucket per
+	 * route so cycling keys never resets anyone's bucket.
+	 */
+	private TokenBucket clientBucket(String route, String client, RateLimitProperties.Limit limit) {
+		String key = route + "|" + client;
+		TokenBucket bucket = clientBuckets.get(key);
+		if (bucket != null) {
+			return bucket;
+		}
+		if (clientBuckets.size() >= properties.getMaxTrackedClients()) {
+			evictIdle();
+			if (clientBuckets.size() >= properties.getMaxTrackedClients()) {
+				key = route + "|overflow";
+			}
+		}
+		return clientBuckets.computeIfAbsent(key, k -> new TokenBucket(limit.getPerSecond(), limit.getBurst()));
+	}
+	
+	private void evictIdle() {
+		long now = System.nanoTime();
+		long last = lastSweepNanos.get();
+		if (now - last >= SWEEP_INTERVAL_NANOS && lastSweepNanos.compareAndSet(last, now)) {
+			clientBuckets.values().removeIf(TokenBucket::isFull);
+		}
+	}
+	
+	public Map<String, Long> getThrottled() {
+		Map<String, Long> result = new TreeMap<>();
+		throttled.forEach((route, count) -> result.put(route, count.sum()));
+		return Collections.unmodifiableMap(result);
+	}
+
+}
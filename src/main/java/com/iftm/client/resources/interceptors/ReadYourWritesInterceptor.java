@@ -0,0 +1,82 @@
+package com.iftm.client.resources.interceptors;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.iftm.client.config.RateLimitProperties;
+import com.iftm.client.config.RoutingProperties;
+import com.iftm.client.datasource.RoutingContext;
+
+/**
+ * Pins a caller's reads to the primary for a short window after that caller
+ * wrote, so replica lag never hides its own writes. The write is recorded
+ * before it runs, since a fast follow-up read can arrive as soon as the
+ * response is flushed, and again on completion so the window starts after it.
+ */
+@Component
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+	
+	private static final int MAX_TRACKED_CLIENTS = 100000;
+	
+	@Autowired
+	private RoutingProperties properties;
+	
+	@Autowired
+	private RateLimitProperties rateLimitProperties;
+	
+	private final ConcurrentMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+	
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!properties.isEnabled()) {
+			return true;
+		}
+		if (!isRead(request)) {
+			recordWrite(request);
+			return true;
+		}
+		Long lastWrite = lastWrites.get(clientKey(request));
+		if (lastWrite != null && System.currentTimeMillis() - lastWrite < properties.getStickinessMs()) {
+			RoutingContext.forcePrimary();
+		}
+		return true;
+	}
+	
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		RoutingContext.clear();
+	}
+	
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		RoutingContext.clear();
+		if (properties.isEnabled() && !isRead(request)) {
+			recordWrite(request);
+		}
+	}
+	
+	private void recordWrite(HttpServletRequest request) {
+		long now = System.currentTimeMillis();
+		if (lastWrites.size() > MAX_TRACKED_CLIENTS) {
+			lastWrites.values().removeIf(x -> now - x >= properties.getStickinessMs());
+		}
+		lastWrites.put(clientKey(request), now);
+	}
+	
+	private String clientKey(HttpServletRequest request) {
+		return RequestKeys.clientKey(request, rateLimitProperties.getApiKeyHeader());
+	}
+	
+	private static boolean isRead(HttpServletRequest request) {
+		String method = request.getMethod();
+		return "GET".equals(method) || "HEAD".equals(method);
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.iftm.client.resources.interceptors;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.servlet.HandlerMapping;
+
+public final class RequestKeys {
+	
+	private RequestKeys() {
+	}
+	
+	public static String clientKey(HttpServletRequest request, String apiKeyHeader) {
+		String apiKey = request.getHeader(apiKeyHeader);
+		if (apiKey != null && !apiKey.isEmpty()) {
+			return "key:" + apiKey;
+		}
+		return "ip:" + request.getRemoteAddr();
+	}
+	
+	public static String route(HttpServletRequest request) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return pattern != null ? pattern.toString() : request.getRequestURI();
+	}
+
+}
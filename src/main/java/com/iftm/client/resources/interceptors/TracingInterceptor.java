@@ -0,0 +1,76 @@
+package com.iftm.client.resources.interceptors;
+
+import java.util.UUID;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.iftm.client.tracing.Span;
+import com.iftm.client.tracing.TraceContext;
+import com.iftm.client.tracing.Tracer;
+
+@Component
+public class TracingInterceptor implements AsyncHandlerInterceptor {
+	
+	public static final String REQUEST_ID_HEADER = "X-Request-Id";
+	
+	private static final String SPAN_ATTRIBUTE = TracingInterceptor.class.getName() + ".span";
+	private static final int MAX_REQUEST_ID_LENGTH = 128;
+	
+	@Autowired
+	private Tracer tracer;
+	
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!tracer.isEnabled()) {
+			return true;
+		}
+		String requestId = request.getHeader(REQUEST_ID_HEADER);
+		if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+			requestId = UUID.randomUUID().toString().replace("-", "");
+		}
+		response.setHeader(REQUEST_ID_HEADER, requestId);
+		Span span = tracer.startTrace(request.getMethod() + " " + RequestKeys.route(request), requestId,
+				request.getHeader("traceparent"));
+		if (span.isRecording()) {
+			span.setAttribute("http.method", request.getMethod());
+			span.setAttribute("http.target", request.getRequestURI());
+			if (handler instanceof HandlerMethod) {
+				HandlerMethod method = (HandlerMethod) handler;
+				span.setAttribute("code.function", method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+			}
+			request.setAttribute(SPAN_ATTRIBUTE, span);
+		}
+		return true;
+	}
+	
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Span span = (Span) request.getAttribute(SPAN_ATTRIBUTE);
+		if (span != null) {
+			request.removeAttribute(SPAN_ATTRIBUTE);
+			span.setAttribute("async", true);
+			span.end();
+		}
+		TraceContext.clear();
+	}
+	
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		Span span = (Span) request.getAttribute(SPAN_ATTRIBUTE);
+		if (span != null) {
+			span.setAttribute("http.status_code", response.getStatus());
+			if (ex != null) {
+				span.setError(ex);
+			}
+			span.end();
+		}
+		TraceContext.clear();
+	}
+
+}
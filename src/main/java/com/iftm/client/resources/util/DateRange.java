@@ -0,0 +1,23 @@
+package com.iftm.client.resources.util;
+
+import java.time.Instant;
+
+public class DateRange {
+	
+	private final Instant start;
+	private final Instant end;
+	
+	public DateRange(Instant start, Instant end) {
+		this.start = start;
+		this.end = end;
+	}
+
+	public Instant getStart() {
+		return start;
+	}
+
+	public Instant getEnd() {
+		return end;
+	}
+
+}
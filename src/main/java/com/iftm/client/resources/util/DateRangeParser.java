@@ -0,0 +1,53 @@
+package com.iftm.client.resources.util;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+
+import org.springframework.stereotype.Component;
+
+import com.iftm.client.services.exceptions.InvalidDateException;
+
+/**
+ * Parses "yyyy", "yyyy-MM" and "yyyy-MM-dd" into a half-open UTC instant range
+ * covering the whole year, month or day.
+ */
+@Component
+public class DateRangeParser {
+	
+	private static final DateTimeFormatter YEAR = DateTimeFormatter.ofPattern("uuuu")
+			.withResolverStyle(ResolverStyle.STRICT);
+	private static final DateTimeFormatter YEAR_MONTH = DateTimeFormatter.ofPattern("uuuu-MM")
+			.withResolverStyle(ResolverStyle.STRICT);
+	private static final DateTimeFormatter DATE = DateTimeFormatter.ISO_LOCAL_DATE
+			.withResolverStyle(ResolverStyle.STRICT);
+	
+	public DateRange parse(String text) {
+		try {
+			switch (text.length()) {
+			case 4:
+				LocalDate year = Year.parse(text, YEAR).atDay(1);
+				return range(year, year.plusYears(1));
+			case 7:
+				LocalDate month = YearMonth.parse(text, YEAR_MONTH).atDay(1);
+				return range(month, month.plusMonths(1));
+			case 10:
+				LocalDate day = LocalDate.parse(text, DATE);
+				return range(day, day.plusDays(1));
+			default:
+				throw new InvalidDateException("Invalid date " + text + ", expected yyyy, yyyy-MM or yyyy-MM-dd");
+			}
+		} catch (DateTimeParseException e) {
+			throw new InvalidDateException("Invalid date " + text + ", expected yyyy, yyyy-MM or yyyy-MM-dd");
+		}
+	}
+	
+	private static DateRange range(LocalDate start, LocalDate end) {
+		return new DateRange(start.atStartOfDay(ZoneOffset.UTC).toInstant(), end.atStartOfDay(ZoneOffset.UTC).toInstant());
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.iftm.client.resources.util;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.iftm.client.dto.ClientField;
+import com.iftm.client.services.exceptions.InvalidFieldException;
+
+/**
+ * Parses a comma separated "fields" parameter such as "id,name" into the set of
+ * client fields to load and serialize. The id is always included.
+ */
+@Component
+public class FieldSetParser {
+	
+	public Set<ClientField> parse(String text) {
+		Set<ClientField> fields = EnumSet.of(ClientField.ID);
+		for (String property : text.split(",")) {
+			if (property.trim().isEmpty()) {
+				continue;
+			}
+			ClientField field = ClientField.fromProperty(property.trim());
+			if (field == null) {
+				throw new InvalidFieldException("Unknown client field " + property.trim());
+			}
+			fields.add(field);
+		}
+		return fields;
+	}
+
+}
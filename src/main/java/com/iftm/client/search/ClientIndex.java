@@ -0,0 +1,24 @@
+package com.iftm.client.search;
+
+import com.iftm.client.entities.Client;
+
+/**
+ * In-memory client index kept current by {@link ClientIndexUpdater}. A rebuild
+ * fills an {@link #emptyCopy()} and then swaps its contents in with
+ * {@link #replaceWith}, so readers never see a half-built index.
+ */
+public interface ClientIndex<I extends ClientIndex<I>> {
+	
+	boolean isEnabled();
+	
+	void put(Client client);
+	
+	void remove(Long id);
+	
+	int size();
+	
+	I emptyCopy();
+	
+	void replaceWith(I other);
+
+}
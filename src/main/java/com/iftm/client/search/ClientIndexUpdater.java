@@ -0,0 +1,97 @@
+package com.iftm.client.search;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.repositories.sharding.ShardedClientRepository;
+import com.iftm.client.services.events.ClientEvent;
+import com.iftm.client.services.events.ClientEventHandler;
+
+/**
+ * Applies committed client events to every {@link ClientIndex} and rebuilds
+ * them from the database. A rebuild fills an empty copy while the live index
+ * keeps taking events; those events are also recorded and replayed on the copy
+ * before it is swapped in, so nothing committed during the rebuild is lost.
+ */
+@Component
+public class ClientIndexUpdater implements ClientEventHandler {
+
+	@Autowired(required = false)
+	private List<ClientIndex<?>> indexes = new ArrayList<>();
+
+	@Autowired
+	private ClientRepository repository;
+
+	@Autowired(required = false)
+	private ShardedClientRepository sharded;
+
+	private final Map<ClientIndex<?>, List<ClientEvent>> recordings = new IdentityHashMap<>();
+
+	@Override
+	public void handle(List<ClientEvent> events) {
+		for (ClientIndex<?> index : indexes) {
+			synchronized (recordings) {
+				apply(index, events);
+				List<ClientEvent> recording = recordings.get(index);
+				if (recording != null) {
+					recording.addAll(events);
+				}
+			}
+		}
+	}
+
+	public <I extends ClientIndex<I>> long rebuild(I index, int batchSize) {
+		I fresh = index.emptyCopy();
+		synchronized (recordings) {
+			if (recordings.putIfAbsent(index, new ArrayList<>()) != null) {
+				throw new IllegalStateException("Index is already being rebuilt");
+			}
+		}
+		try {
+			load(fresh, batchSize);
+			synchronized (recordings) {
+				apply(fresh, recordings.get(index));
+				index.replaceWith(fresh);
+			}
+		}
+		finally {
+			synchronized (recordings) {
+				recordings.remove(index);
+			}
+		}
+		return index.size();
+	}
+
+	private void load(ClientIndex<?> index, int batchSize) {
+		if (sharded != null) {
+			sharded.findAll().forEach(index::put);
+			return;
+		}
+		PageRequest pageRequest = PageRequest.of(0, batchSize);
+		List<Client> batch = repository.findBatchAfter(0L, pageRequest);
+		while (!batch.isEmpty()) {
+			batch.forEach(index::put);
+			batch = repository.findBatchAfter(batch.get(batch.size() - 1).getId(), pageRequest);
+		}
+	}
+
+	private static void apply(ClientIndex<?> index, List<ClientEvent> events) {
+		for (ClientEvent event : events) {
+			if (event.getClient() != null) {
+				index.put(event.getClient());
+			}
+			else {
+				index.remove(event.getClientId());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,248 @@
+package com.iftm.client.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.iftm.client.entities.Client;
+
+/**
+ * In-memory trigram index over client names and CPFs. Name terms match fuzzily
+ * by trigram overlap, CPF fragments match as substrings and income ranges
+ * filter; every term of a query has to match and results are ranked by the sum
+ * of the term similarities.
+ */
+@Component
+public class ClientSearchIndex implements ClientIndex<ClientSearchIndex> {
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+	private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+	private static final String CPF_PREFIX = "#";
+
+	private volatile Map<Long, Document> documents = new ConcurrentHashMap<>();
+	private volatile Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+	@Value("${client.search.enabled:true}")
+	private boolean enabled = true;
+
+	@Value("${client.search.min-similarity:0.5}")
+	private double minSimilarity = 0.5;
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public synchronized void put(Client client) {
+		if (!enabled) {
+			return;
+		}
+		remove(client.getId());
+		Client copy = new Client(client.getId(), client.getName(), client.getCpf(), client.getIncome(),
+				client.getBirthDate(), client.getChildren());
+		Set<String> grams = new LinkedHashSet<>();
+		for (String word : words(client.getName())) {
+			grams.addAll(trigrams(word));
+		}
+		String cpf = digits(client.getCpf());
+		for (int i = 0; i + 3 <= cpf.length(); i++) {
+			grams.add(CPF_PREFIX + cpf.substring(i, i + 3));
+		}
+		for (String gram : grams) {
+			postings.computeIfAbsent(gram, x -> ConcurrentHashMap.newKeySet()).add(client.getId());
+		}
+		documents.put(client.getId(), new Document(copy, cpf, grams));
+	}
+
+	@Override
+	public synchronized void remove(Long id) {
+		Document document = documents.remove(id);
+		if (document == null) {
+			return;
+		}
+		for (String gram : document.grams) {
+			Set<Long> ids = postings.get(gram);
+			if (ids != null) {
+				ids.remove(id);
+				if (ids.isEmpty()) {
+					postings.remove(gram);
+				}
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		documents.clear();
+		postings.clear();
+	}
+
+	@Override
+	public int size() {
+		return documents.size();
+	}
+
+	@Override
+	public ClientSearchIndex emptyCopy() {
+		ClientSearchIndex copy = new ClientSearchIndex();
+		copy.enabled = enabled;
+		copy.minSimilarity = minSimilarity;
+		return copy;
+	}
+
+	@Override
+	public synchronized void replaceWith(ClientSearchIndex other) {
+		synchronized (other) {
+			documents = other.documents;
+			postings = other.postings;
+		}
+	}
+
+	public Page<Client> search(String text, Pageable pageable) {
+		SearchQuery query = SearchQuery.parse(text);
+		Map<Long, Double> scores = null;
+		for (String term : query.getNameTerms()) {
+			scores = retain(scores, matchName(term));
+		}
+		for (String fragment : query.getCpfFragments()) {
+			scores = retain(scores, matchCpf(fragment));
+		}
+		if (scores == null) {
+			scores = new HashMap<>();
+			if (query.hasIncomeRange()) {
+				for (Long id : documents.keySet()) {
+					scores.put(id, 1.0);
+				}
+			}
+		}
+		List<Map.Entry<Long, Double>> ranked = new ArrayList<>();
+		for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+			Document document = documents.get(entry.getKey());
+			if (document != null && query.acceptsIncome(document.client.getIncome())) {
+				ranked.add(entry);
+			}
+		}
+		ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+				.thenComparing(Map.Entry.comparingByKey()));
+		List<Client> content = new ArrayList<>();
+		for (long i = pageable.getOffset(); i < ranked.size() && content.size() < pageable.getPageSize(); i++) {
+			Document document = documents.get(ranked.get((int) i).getKey());
+			if (document != null) {
+				content.add(document.client);
+			}
+		}
+		return new PageImpl<>(content, pageable, ranked.size());
+	}
+
+	private Map<Long, Double> matchName(String term) {
+		List<String> grams = trigrams(term);
+		Map<Long, Integer> hits = new HashMap<>();
+		for (String gram : grams) {
+			Set<Long> ids = postings.get(gram);
+			if (ids != null) {
+				for (Long id : ids) {
+					hits.merge(id, 1, Integer::sum);
+				}
+			}
+		}
+		Map<Long, Double> scores = new HashMap<>();
+		for (Map.Entry<Long, Integer> entry : hits.entrySet()) {
+			double similarity = (double) entry.getValue() / grams.size();
+			if (similarity >= minSimilarity) {
+				scores.put(entry.getKey(), similarity);
+			}
+		}
+		return scores;
+	}
+
+	private Map<Long, Double> matchCpf(String fragment) {
+		Set<Long> candidates = null;
+		for (int i = 0; i + 3 <= fragment.length(); i++) {
+			Set<Long> ids = postings.getOrDefault(CPF_PREFIX + fragment.substring(i, i + 3), Set.of());
+			if (candidates == null) {
+				candidates = new LinkedHashSet<>(ids);
+			}
+			else {
+				candidates.retainAll(ids);
+			}
+		}
+		Map<Long, Double> scores = new HashMap<>();
+		for (Long id : candidates) {
+			Document document = documents.get(id);
+			if (document != null && document.cpf.contains(fragment)) {
+				scores.put(id, 1.0);
+			}
+		}
+		return scores;
+	}
+
+	private static Map<Long, Double> retain(Map<Long, Double> scores, Map<Long, Double> matches) {
+		if (scores == null) {
+			return matches;
+		}
+		Map<Long, Double> retained = new HashMap<>();
+		for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+			Double score = matches.get(entry.getKey());
+			if (score != null) {
+				retained.put(entry.getKey(), entry.getValue() + score);
+			}
+		}
+		return retained;
+	}
+
+	static List<String> words(String text) {
+		List<String> words = new ArrayList<>();
+		if (text == null) {
+			return words;
+		}
+		String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+		for (String word : NON_ALPHANUMERIC.split(normalized.toLowerCase())) {
+			if (!word.isEmpty()) {
+				words.add(word);
+			}
+		}
+		return words;
+	}
+
+	static String digits(String text) {
+		return text == null ? "" : text.replaceAll("\\D", "");
+	}
+
+	private static List<String> trigrams(String word) {
+		String padded = "  " + word + " ";
+		List<String> grams = new ArrayList<>();
+		for (int i = 0; i + 3 <= padded.length(); i++) {
+			String gram = padded.substring(i, i + 3);
+			if (!grams.contains(gram)) {
+				grams.add(gram);
+			}
+		}
+		return grams;
+	}
+
+	private static final class Document {
+		private final Client client;
+		private final String cpf;
+		private final Set<String> grams;
+
+		private Document(Client client, String cpf, Set<String> grams) {
+			this.client = client;
+			this.cpf = cpf;
+			this.grams = grams;
+		}
+	}
+
+}
@@ -0,0 +1,251 @@
+package com.iftm.client.search;
+
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.DoublePredicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.iftm.client.entities.Client;
+import com.iftm.client.search.SegmentQuery.Range;
+
+/**
+ * In-memory bitmap indexes over client birth year, income band and number of
+ * children. A segment query is answered by OR-ing the bitmaps of the values
+ * each criterion accepts and AND-ing the criteria together; only the clients in
+ * the two boundary income bands are checked against their exact income.
+ */
+@Component
+public class ClientSegmentIndex implements ClientIndex<ClientSegmentIndex> {
+
+	private static final Logger logger = LoggerFactory.getLogger(ClientSegmentIndex.class);
+
+	private RoaringBitmap all = new RoaringBitmap();
+	private NavigableMap<Integer, RoaringBitmap> birthYears = new TreeMap<>();
+	private NavigableMap<Long, RoaringBitmap> incomeBands = new TreeMap<>();
+	private NavigableMap<Integer, RoaringBitmap> children = new TreeMap<>();
+	private Map<Long, Attributes> attributes = new HashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	@Value("${client.segments.enabled:true}")
+	private boolean enabled = true;
+
+	@Value("${client.segments.income-band-width:1000}")
+	private double incomeBandWidth = 1000;
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void put(Client client) {
+		if (!enabled) {
+			return;
+		}
+		if (!RoaringBitmap.fits(client.getId())) {
+			logger.warn("Client {} is outside the 32-bit id range of the segment index and is not indexed",
+					client.getId());
+			return;
+		}
+		Attributes entry = new Attributes(
+				client.getBirthDate() == null ? null : client.getBirthDate().atZone(ZoneOffset.UTC).getYear(),
+				client.getIncome(), client.getChildren());
+		lock.writeLock().lock();
+		try {
+			remove(client.getId(), attributes.put(client.getId(), entry));
+			long id = client.getId();
+			all.add(id);
+			if (entry.birthYear != null) {
+				birthYears.computeIfAbsent(entry.birthYear, x -> new RoaringBitmap()).add(id);
+			}
+			if (entry.income != null) {
+				incomeBands.computeIfAbsent(band(entry.income), x -> new RoaringBitmap()).add(id);
+			}
+			if (entry.children != null) {
+				children.computeIfAbsent(entry.children, x -> new RoaringBitmap()).add(id);
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void remove(Long id) {
+		lock.writeLock().lock();
+		try {
+			remove(id, attributes.remove(id));
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			all = new RoaringBitmap();
+			birthYears.clear();
+			incomeBands.clear();
+			children.clear();
+			attributes.clear();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return attributes.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public ClientSegmentIndex emptyCopy() {
+		ClientSegmentIndex copy = new ClientSegmentIndex();
+		copy.enabled = enabled;
+		copy.incomeBandWidth = incomeBandWidth;
+		return copy;
+	}
+
+	@Override
+	public void replaceWith(ClientSegmentIndex other) {
+		lock.writeLock().lock();
+		other.lock.readLock().lock();
+		try {
+			all = other.all;
+			birthYears = other.birthYears;
+			incomeBands = other.incomeBands;
+			children = other.children;
+			attributes = other.attributes;
+		}
+		finally {
+			other.lock.readLock().unlock();
+			lock.writeLock().unlock();
+		}
+	}
+
+	public RoaringBitmap select(SegmentQuery query) {
+		lock.readLock().lock();
+		try {
+			RoaringBitmap result = all.copy();
+			if (!query.getBirthYears().isEmpty()) {
+				result = result.and(union(birthYears, query.getBirthYears()));
+			}
+			if (query.getMinIncome() != null || query.getMaxIncome() != null) {
+				result = result.and(incomeRange(query.getMinIncome(), query.getMaxIncome()));
+			}
+			if (!query.getChildren().isEmpty()) {
+				result = result.and(union(children, query.getChildren()));
+			}
+			return result;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void remove(Long id, Attributes previous) {
+		if (previous == null) {
+			return;
+		}
+		all.remove(id);
+		if (previous.birthYear != null) {
+			removeFrom(birthYears, previous.birthYear, id);
+		}
+		if (previous.income != null) {
+			removeFrom(incomeBands, band(previous.income), id);
+		}
+		if (previous.children != null) {
+			removeFrom(children, previous.children, id);
+		}
+	}
+
+	private RoaringBitmap incomeRange(Double min, Double max) {
+		long from = min == null ? Long.MIN_VALUE : band(min);
+		long to = max == null ? Long.MAX_VALUE : band(max);
+		RoaringBitmap result = new RoaringBitmap();
+		if (from > to) {
+			return result;
+		}
+		for (RoaringBitmap bitmap : incomeBands.subMap(from, true, to, true).values()) {
+			result = result.or(bitmap);
+		}
+		if (min != null) {
+			exclude(result, incomeBands.get(from), x -> x < min);
+		}
+		if (max != null) {
+			exclude(result, incomeBands.get(to), x -> x > max);
+		}
+		return result;
+	}
+
+	private void exclude(RoaringBitmap result, RoaringBitmap band, DoublePredicate outside) {
+		if (band == null) {
+			return;
+		}
+		for (long id : band.toArray()) {
+			if (outside.test(attributes.get(id).income)) {
+				result.remove(id);
+			}
+		}
+	}
+
+	private static RoaringBitmap union(NavigableMap<Integer, RoaringBitmap> index, List<Range> ranges) {
+		RoaringBitmap result = new RoaringBitmap();
+		for (Range range : ranges) {
+			if (range.getFrom() > range.getTo()) {
+				continue;
+			}
+			Collection<RoaringBitmap> bitmaps = index.subMap(range.getFrom(), true, range.getTo(), true).values();
+			for (RoaringBitmap bitmap : bitmaps) {
+				result = result.or(bitmap);
+			}
+		}
+		return result;
+	}
+
+	private static <K> void removeFrom(Map<K, RoaringBitmap> index, K key, long id) {
+		RoaringBitmap bitmap = index.get(key);
+		if (bitmap != null) {
+			bitmap.remove(id);
+			if (bitmap.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+	private long band(double income) {
+		return (long) Math.floor(income / incomeBandWidth);
+	}
+
+	private static final class Attributes {
+		private final Integer birthYear;
+		private final Double income;
+		private final Integer children;
+
+		private Attributes(Integer birthYear, Double income, Integer children) {
+			this.birthYear = birthYear;
+			this.income = income;
+			this.children = children;
+		}
+	}
+
+}
@@ -0,0 +1,463 @@
+package com.iftm.client.search;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of unsigned 32-bit values in the style of Roaring bitmaps.
+ * Values are split by their high 16 bits into chunks; a chunk with at most
+ * 4096 values is kept as a sorted char array, a denser one as a 65536-bit
+ * bitmap. Not thread-safe.
+ */
+public final class RoaringBitmap {
+
+	private static final int ARRAY_MAX = 4096;
+	private static final int BITMAP_WORDS = 1 << 10;
+
+	private char[] keys = new char[4];
+	private Container[] containers = new Container[4];
+	private int size;
+
+	public static RoaringBitmap of(long... values) {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		for (long value : values) {
+			bitmap.add(value);
+		}
+		return bitmap;
+	}
+
+	public static boolean fits(long value) {
+		return value >= 0 && value <= 0xFFFFFFFFL;
+	}
+
+	public void add(long value) {
+		checkRange(value);
+		char high = (char) (value >>> 16);
+		int i = indexOf(high);
+		if (i < 0) {
+			i = -i - 1;
+			insert(i, high, new ArrayContainer());
+		}
+		containers[i] = containers[i].add((char) value);
+	}
+
+	public void remove(long value) {
+		if (!fits(value)) {
+			return;
+		}
+		int i = indexOf((char) (value >>> 16));
+		if (i < 0) {
+			return;
+		}
+		containers[i] = containers[i].remove((char) value);
+		if (containers[i].cardinality() == 0) {
+			delete(i);
+		}
+	}
+
+	public boolean contains(long value) {
+		if (!fits(value)) {
+			return false;
+		}
+		int i = indexOf((char) (value >>> 16));
+		return i >= 0 && containers[i].contains((char) value);
+	}
+
+	public long cardinality() {
+		long cardinality = 0;
+		for (int i = 0; i < size; i++) {
+			cardinality += containers[i].cardinality();
+		}
+		return cardinality;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public RoaringBitmap copy() {
+		RoaringBitmap copy = new RoaringBitmap();
+		copy.keys = Arrays.copyOf(keys, keys.length);
+		copy.containers = new Container[containers.length];
+		for (int i = 0; i < size; i++) {
+			copy.containers[i] = containers[i].copy();
+		}
+		copy.size = size;
+		return copy;
+	}
+
+	public RoaringBitmap and(RoaringBitmap other) {
+		RoaringBitmap result = new RoaringBitmap();
+		int i = 0;
+		int j = 0;
+		while (i < size && j < other.size) {
+			if (keys[i] < other.keys[j]) {
+				i++;
+			}
+			else if (keys[i] > other.keys[j]) {
+				j++;
+			}
+			else {
+				Container container = containers[i].and(other.containers[j]);
+				if (container.cardinality() > 0) {
+					result.append(keys[i], container);
+				}
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	public RoaringBitmap or(RoaringBitmap other) {
+		RoaringBitmap result = new RoaringBitmap();
+		int i = 0;
+		int j = 0;
+		while (i < size || j < other.size) {
+			if (j >= other.size || (i < size && keys[i] < other.keys[j])) {
+				result.append(keys[i], containers[i].copy());
+				i++;
+			}
+			else if (i >= size || keys[i] > other.keys[j]) {
+				result.append(other.keys[j], other.containers[j].copy());
+				j++;
+			}
+			else {
+				result.append(keys[i], containers[i].or(other.containers[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	public RoaringBitmap andNot(RoaringBitmap other) {
+		RoaringBitmap result = new RoaringBitmap();
+		int j = 0;
+		for (int i = 0; i < size; i++) {
+			while (j < other.size && other.keys[j] < keys[i]) {
+				j++;
+			}
+			Container container = j < other.size && other.keys[j] == keys[i]
+					? containers[i].andNot(other.containers[j]) : containers[i].copy();
+			if (container.cardinality() > 0) {
+				result.append(keys[i], container);
+			}
+		}
+		return result;
+	}
+
+	public long[] toArray() {
+		return toArray(0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns up to {@code limit} values in ascending order, skipping the first
+	 * {@code offset}. Whole chunks are skipped by their cardinality.
+	 */
+	public long[] toArray(long offset, int limit) {
+		long remaining = Math.max(0, Math.min(limit, cardinality() - offset));
+		long[] values = new long[(int) remaining];
+		int n = 0;
+		for (int i = 0; i < size && n < values.length; i++) {
+			Container container = containers[i];
+			if (offset >= container.cardinality()) {
+				offset -= container.cardinality();
+				continue;
+			}
+			n = container.fill(values, n, (long) keys[i] << 16, (int) offset);
+			offset = 0;
+		}
+		return values;
+	}
+
+	private int indexOf(char key) {
+		return Arrays.binarySearch(keys, 0, size, key);
+	}
+
+	private void insert(int i, char key, Container container) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			containers = Arrays.copyOf(containers, size * 2);
+		}
+		System.arraycopy(keys, i, keys, i + 1, size - i);
+		System.arraycopy(containers, i, containers, i + 1, size - i);
+		keys[i] = key;
+		containers[i] = container;
+		size++;
+	}
+
+	private void append(char key, Container container) {
+		insert(size, key, container);
+	}
+
+	private void delete(int i) {
+		System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+		System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+		containers[--size] = null;
+	}
+
+	private static void checkRange(long value) {
+		if (!fits(value)) {
+			throw new IllegalArgumentException("Value out of range: " + value);
+		}
+	}
+
+	private abstract static class Container {
+
+		abstract Container add(char value);
+
+		abstract Container remove(char value);
+
+		abstract boolean contains(char value);
+
+		abstract int cardinality();
+
+		abstract Container copy();
+
+		abstract BitmapContainer toBitmap();
+
+		/**
+		 * Writes this container's values, skipping the first {@code skip}, into
+		 * {@code values} from position {@code n} until it is full.
+		 */
+		abstract int fill(long[] values, int n, long high, int skip);
+
+		Container and(Container other) {
+			if (this instanceof ArrayContainer) {
+				return ((ArrayContainer) this).filter(other, true);
+			}
+			if (other instanceof ArrayContainer) {
+				return ((ArrayContainer) other).filter(this, true);
+			}
+			long[] words = ((BitmapContainer) this).words.clone();
+			long[] others = ((BitmapContainer) other).words;
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				words[i] &= others[i];
+			}
+			return new BitmapContainer(words).optimize();
+		}
+
+		Container or(Container other) {
+			if (this instanceof ArrayContainer && other instanceof ArrayContainer
+					&& cardinality() + other.cardinality() <= ARRAY_MAX) {
+				return ((ArrayContainer) this).merge((ArrayContainer) other);
+			}
+			long[] words = toBitmap().words.clone();
+			long[] others = other.toBitmap().words;
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				words[i] |= others[i];
+			}
+			return new BitmapContainer(words).optimize();
+		}
+
+		Container andNot(Container other) {
+			if (this instanceof ArrayContainer) {
+				return ((ArrayContainer) this).filter(other, false);
+			}
+			long[] words = ((BitmapContainer) this).words.clone();
+			long[] others = other.toBitmap().words;
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				words[i] &= ~others[i];
+			}
+			return new BitmapContainer(words).optimize();
+		}
+
+	}
+
+	private static final class ArrayContainer extends Container {
+
+		private char[] values;
+		private int cardinality;
+
+		private ArrayContainer() {
+			this(new char[4], 0);
+		}
+
+		private ArrayContainer(char[] values, int cardinality) {
+			this.values = values;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		Container add(char value) {
+			int i = Arrays.binarySearch(values, 0, cardinality, value);
+			if (i >= 0) {
+				return this;
+			}
+			if (cardinality == ARRAY_MAX) {
+				return toBitmap().add(value);
+			}
+			i = -i - 1;
+			if (cardinality == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+			}
+			System.arraycopy(values, i, values, i + 1, cardinality - i);
+			values[i] = value;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			int i = Arrays.binarySearch(values, 0, cardinality, value);
+			if (i >= 0) {
+				System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+				cardinality--;
+			}
+			return this;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		Container copy() {
+			return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+		}
+
+		@Override
+		BitmapContainer toBitmap() {
+			long[] words = new long[BITMAP_WORDS];
+			for (int i = 0; i < cardinality; i++) {
+				words[values[i] >>> 6] |= 1L << values[i];
+			}
+			return new BitmapContainer(words);
+		}
+
+		@Override
+		int fill(long[] out, int n, long high, int skip) {
+			for (int i = skip; i < cardinality && n < out.length; i++) {
+				out[n++] = high | values[i];
+			}
+			return n;
+		}
+
+		private Container filter(Container other, boolean keep) {
+			char[] kept = new char[Math.max(cardinality, 1)];
+			int n = 0;
+			for (int i = 0; i < cardinality; i++) {
+				if (other.contains(values[i]) == keep) {
+					kept[n++] = values[i];
+				}
+			}
+			return new ArrayContainer(kept, n);
+		}
+
+		private Container merge(ArrayContainer other) {
+			char[] merged = new char[Math.max(cardinality + other.cardinality, 1)];
+			int i = 0;
+			int j = 0;
+			int n = 0;
+			while (i < cardinality || j < other.cardinality) {
+				if (j >= other.cardinality || (i < cardinality && values[i] < other.values[j])) {
+					merged[n++] = values[i++];
+				}
+				else if (i >= cardinality || values[i] > other.values[j]) {
+					merged[n++] = other.values[j++];
+				}
+				else {
+					merged[n++] = values[i++];
+					j++;
+				}
+			}
+			return new ArrayContainer(merged, n);
+		}
+
+	}
+
+	private static final class BitmapContainer extends Container {
+
+		private final long[] words;
+		private int cardinality;
+
+		private BitmapContainer(long[] words) {
+			this.words = words;
+			for (long word : words) {
+				cardinality += Long.bitCount(word);
+			}
+		}
+
+		@Override
+		Container add(char value) {
+			long bit = 1L << value;
+			if ((words[value >>> 6] & bit) == 0) {
+				words[value >>> 6] |= bit;
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			long bit = 1L << value;
+			if ((words[value >>> 6] & bit) != 0) {
+				words[value >>> 6] &= ~bit;
+				cardinality--;
+			}
+			return optimize();
+		}
+
+		@Override
+		boolean contains(char value) {
+			return (words[value >>> 6] & (1L << value)) != 0;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		Container copy() {
+			return new BitmapContainer(words.clone());
+		}
+
+		@Override
+		BitmapContainer toBitmap() {
+			return this;
+		}
+
+		@Override
+		int fill(long[] out, int n, long high, int skip) {
+			for (int i = 0; i < BITMAP_WORDS && n < out.length; i++) {
+				long word = words[i];
+				while (word != 0 && n < out.length) {
+					long lowest = word & -word;
+					if (skip > 0) {
+						skip--;
+					}
+					else {
+						out[n++] = high | (i << 6) | Long.numberOfTrailingZeros(lowest);
+					}
+					word ^= lowest;
+				}
+			}
+			return n;
+		}
+
+		private Container optimize() {
+			if (cardinality > ARRAY_MAX) {
+				return this;
+			}
+			char[] values = new char[Math.max(cardinality, 1)];
+			int n = 0;
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				long word = words[i];
+				while (word != 0) {
+					values[n++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return new ArrayContainer(values, n);
+		}
+
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.iftm.client.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits a free-text query into name terms, CPF fragments (three or more
+ * digits, dots and dashes ignored) and an income band written as
+ * {@code income:min-max}, {@code income:min-} or {@code income:-max}.
+ */
+public final class SearchQuery {
+
+	private static final Pattern INCOME_RANGE = Pattern.compile("income:(\\d+(?:\\.\\d+)?)?-(\\d+(?:\\.\\d+)?)?",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern CPF_FRAGMENT = Pattern.compile("[\\d.\\-]*\\d{3}[\\d.\\-]*");
+
+	private final List<String> nameTerms = new ArrayList<>();
+	private final List<String> cpfFragments = new ArrayList<>();
+	private Double minIncome;
+	private Double maxIncome;
+
+	private SearchQuery() {
+	}
+
+	public static SearchQuery parse(String text) {
+		SearchQuery query = new SearchQuery();
+		if (text == null) {
+			return query;
+		}
+		for (String token : text.trim().split("\\s+")) {
+			if (token.isEmpty()) {
+				continue;
+			}
+			Matcher range = INCOME_RANGE.matcher(token);
+			if (range.matches()) {
+				query.minIncome = range.group(1) == null ? null : Double.valueOf(range.group(1));
+				query.maxIncome = range.group(2) == null ? null : Double.valueOf(range.group(2));
+			}
+			else if (CPF_FRAGMENT.matcher(token).matches()) {
+				query.cpfFragments.add(ClientSearchIndex.digits(token));
+			}
+			else {
+				query.nameTerms.addAll(ClientSearchIndex.words(token));
+			}
+		}
+		return query;
+	}
+
+	public List<String> getNameTerms() {
+		return nameTerms;
+	}
+
+	public List<String> getCpfFragments() {
+		return cpfFragments;
+	}
+
+	public boolean hasIncomeRange() {
+		return minIncome != null || maxIncome != null;
+	}
+
+	public boolean acceptsIncome(Double income) {
+		if (!hasIncomeRange()) {
+			return true;
+		}
+		if (income == null) {
+			return false;
+		}
+		return (minIncome == null || income >= minIncome) && (maxIncome == null || income <= maxIncome);
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.iftm.client.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.iftm.client.services.exceptions.InvalidQueryException;
+
+/**
+ * Describes a client segment as an AND of optional criteria, each of which may
+ * OR several ranges: birth years written as {@code 1980s}, {@code 1995} or
+ * {@code 2000-2004}, an income band and children counts written as {@code 0}
+ * or {@code 3+}, comma separated.
+ */
+public final class SegmentQuery {
+
+	private static final Pattern YEARS = Pattern.compile("(\\d{4})(s|-(\\d{4}))?");
+	private static final Pattern COUNT = Pattern.compile("(\\d+)(\\+)?");
+
+	private final List<Range> birthYears;
+	private final Double minIncome;
+	private final Double maxIncome;
+	private final List<Range> children;
+
+	private SegmentQuery(List<Range> birthYears, Double minIncome, Double maxIncome, List<Range> children) {
+		this.birthYears = birthYears;
+		this.minIncome = minIncome;
+		this.maxIncome = maxIncome;
+		this.children = children;
+	}
+
+	public static SegmentQuery parse(String born, Double minIncome, Double maxIncome, String children) {
+		List<Range> years = new ArrayList<>();
+		for (String part : split(born)) {
+			Matcher matcher = YEARS.matcher(part);
+			if (!matcher.matches()) {
+				throw new InvalidQueryException("Invalid birth year " + part + ", expected yyyy, yyyys or yyyy-yyyy");
+			}
+			int from = Integer.parseInt(matcher.group(1));
+			int to = matcher.group(3) != null ? Integer.parseInt(matcher.group(3))
+					: matcher.group(2) != null ? from + 9 : from;
+			years.add(new Range(from, to));
+		}
+		List<Range> counts = new ArrayList<>();
+		for (String part : split(children)) {
+			Matcher matcher = COUNT.matcher(part);
+			if (!matcher.matches()) {
+				throw new InvalidQueryException("Invalid children count " + part + ", expected n or n+");
+			}
+			int from = Integer.parseInt(matcher.group(1));
+			counts.add(new Range(from, matcher.group(2) != null ? Integer.MAX_VALUE : from));
+		}
+		return new SegmentQuery(years, minIncome, maxIncome, counts);
+	}
+
+	private static List<String> split(String text) {
+		if (text == null || text.trim().isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<String> parts = new ArrayList<>();
+		for (String part : text.split(",")) {
+			if (!part.trim().isEmpty()) {
+				parts.add(part.trim());
+			}
+		}
+		return parts;
+	}
+
+	public List<Range> getBirthYears() {
+		return birthYears;
+	}
+
+	public Double getMinIncome() {
+		return minIncome;
+	}
+
+	public Double getMaxIncome() {
+		return maxIncome;
+	}
+
+	public List<Range> getChildren() {
+		return children;
+	}
+
+	@Override
+	public String toString() {
+		return "born=" + birthYears + "&minIncome=" + minIncome + "&maxIncome=" + maxIncome + "&children=" + children;
+	}
+
+	public static final class Range {
+		private final int from;
+		private final int to;
+
+		public Range(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		public int getFrom() {
+			return from;
+		}
+
+		public int getTo() {
+			return to;
+		}
+
+		@Override
+		public String toString() {
+			return from + "-" + to;
+		}
+	}
+
+}
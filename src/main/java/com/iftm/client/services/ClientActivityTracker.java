@@ -0,0 +1,64 @@
+package com.iftm.client.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iftm.client.repositories.ClientRepository;
+
+/**
+ * Collects the ids of clients that were read and periodically bumps their
+ * {@code lastActivity}, which the entity callbacks only update on writes.
+ * Archival flushes it before looking for inactive clients.
+ */
+@Component
+public class ClientActivityTracker {
+	
+	@Autowired
+	private ClientRepository repository;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@Value("${client.archival.enabled:false}")
+	private boolean enabled;
+	
+	@Value("${client.archival.activity-batch-size:500}")
+	private int batchSize;
+	
+	private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+	
+	public void record(Long id) {
+		if (enabled) {
+			pending.add(id);
+		}
+	}
+	
+	@Scheduled(fixedDelayString = "${client.archival.activity-flush-ms:60000}")
+	public void flush() {
+		Instant now = Instant.now();
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		List<Long> batch = new ArrayList<>();
+		Iterator<Long> it = pending.iterator();
+		while (it.hasNext()) {
+			batch.add(it.next());
+			it.remove();
+			if (batch.size() == batchSize || !it.hasNext()) {
+				List<Long> ids = batch;
+				transaction.executeWithoutResult(status -> repository.touchActivity(ids, now));
+				batch = new ArrayList<>();
+			}
+		}
+	}
+
+}
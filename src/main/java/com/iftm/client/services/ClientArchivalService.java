@@ -0,0 +1,103 @@
+package com.iftm.client.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iftm.client.entities.ArchivedClient;
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.ArchivedClientRepository;
+import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.services.events.ClientArchivedEvent;
+
+@Service
+public class ClientArchivalService {
+	
+	@Autowired
+	private ClientRepository repository;
+	
+	@Autowired
+	private ArchivedClientRepository archiveRepository;
+	
+	@Autowired
+	private ClientService clientService;
+	
+	@Autowired
+	private ClientChangeService changeService;
+	
+	@Autowired
+	private ClientActivityTracker activity;
+	
+	@Autowired
+	private ApplicationEventPublisher publisher;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@Value("${client.archival.enabled:false}")
+	private boolean enabled;
+	
+	@Value("${client.archival.inactive-days:365}")
+	private long inactiveDays;
+	
+	@Value("${client.archival.batch-size:500}")
+	private int batchSize;
+	
+	@Scheduled(fixedDelayString = "${client.archival.interval-ms:3600000}")
+	public void archiveInactiveClients() {
+		if (enabled) {
+			archiveInactive(Instant.now().minus(Duration.ofDays(inactiveDays)));
+		}
+	}
+	
+	public long archiveInactive(Instant cutoff) {
+		activity.flush();
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		long total = 0;
+		int moved;
+		do {
+			moved = transaction.execute(status -> archiveBatch(cutoff));
+			total += moved;
+		} while (moved == batchSize);
+		return total;
+	}
+	
+	/**
+	 * Locks a batch of inactive rows and deletes only those still inactive, so
+	 * a client written or read since the scan stays in the hot table. Only the
+	 * rows the delete actually removed are copied to the archive.
+	 */
+	private int archiveBatch(Instant cutoff) {
+		List<Client> inactive = repository.findInactiveForUpdate(cutoff, PageRequest.of(0, batchSize));
+		if (inactive.isEmpty()) {
+			return 0;
+		}
+		Set<Long> ids = inactive.stream().map(Client::getId).collect(Collectors.toSet());
+		repository.deleteInactive(ids, cutoff);
+		Set<Long> remaining = new HashSet<>(repository.findExistingIds(ids));
+		List<Client> archived = inactive.stream().filter(x -> !remaining.contains(x.getId()))
+				.collect(Collectors.toList());
+		Instant now = Instant.now();
+		archiveRepository.saveAll(archived.stream().map(x -> new ArchivedClient(x, now)).collect(Collectors.toList()));
+		List<ClientArchivedEvent> events = archived.stream()
+				.map(x -> new ClientArchivedEvent(x.getId(), changeService.append(ChangeType.ARCHIVE, x.getId(), null)))
+				.collect(Collectors.toList());
+		clientService.dataChanged();
+		events.forEach(publisher::publishEvent);
+		return archived.size();
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.iftm.client.services;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.iftm.client.datasource.RoutingContext;
+import com.iftm.client.dto.ClientChangeDTO;
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.Client;
+import com.iftm.client.entities.ClientChange;
+import com.iftm.client.entities.ClientChangeSequence;
+import com.iftm.client.journal.ClientJournal;
+import com.iftm.client.repositories.ClientChangeRepository;
+import com.iftm.client.repositories.ClientChangeSequenceRepository;
+import com.iftm.client.services.exceptions.InvalidFieldException;
+import com.iftm.client.services.util.AfterCommit;
+
+@Service
+public class ClientChangeService {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ClientChangeService.class);
+	
+	@Autowired
+	private ClientChangeRepository repository;
+	
+	@Autowired
+	private ClientChangeSequenceRepository sequenceRepository;
+	
+	@Autowired
+	private ClientJournal journal;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	private final AtomicLong lastCommittedSequence = new AtomicLong();
+	private final Set<CompletableFuture<Void>> waiters = ConcurrentHashMap.newKeySet();
+	
+	/**
+	 * Sequences come from a counter row that stays locked until the
+	 * transaction ends, so changes commit in sequence order and a reader that
+	 * has seen a sequence has also seen every sequence below it. Returns the
+	 * sequence assigned to the change.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public long append(ChangeType type, Long clientId, Client snapshot) {
+		try {
+			journal.validate(snapshot);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidFieldException(e.getMessage());
+		}
+		ClientChangeSequence counter = sequenceRepository.findForUpdate(ClientChangeSequence.ID)
+				.orElseGet(this::createCounter);
+		long sequence = counter.next();
+		entityManager.persist(new ClientChange(sequence, type, clientId, Instant.now(), snapshot));
+		AfterCommit.run(() -> {
+			try {
+				journal.append(type, clientId, snapshot);
+			} catch (RuntimeException e) {
+				logger.error("Could not journal change {} after commit", sequence, e);
+			}
+			committed(sequence);
+		});
+		return sequence;
+	}
+	
+	/**
+	 * Read from the primary: a long poll is woken as soon as a change commits
+	 * there, and a replica may not have applied it yet.
+	 */
+	@Transactional(readOnly = true)
+	public List<ClientChangeDTO> findChanges(Long since, int limit) {
+		return RoutingContext.onPrimary(() -> repository.findSince(since, PageRequest.of(0, limit)).stream()
+				.map(x -> new ClientChangeDTO(x)).collect(Collectors.toList()));
+	}
+	
+	public CompletableFuture<Void> awaitChanges(Long since, long timeoutMillis) {
+		CompletableFuture<Void> waiter = new CompletableFuture<>();
+		waiters.add(waiter);
+		if (lastCommittedSequence.get() > since) {
+			waiter.complete(null);
+		}
+		return waiter.completeOnTimeout(null, timeoutMillis, TimeUnit.MILLISECONDS)
+				.whenComplete((v, e) -> waiters.remove(waiter));
+	}
+	
+	public long getLastCommittedSequence() {
+		return lastCommittedSequence.get();
+	}
+	
+	private ClientChangeSequence createCounter() {
+		Long last = repository.findLastSequence();
+		ClientChangeSequence counter = new ClientChangeSequence(ClientChangeSequence.ID, last != null ? last : 0L);
+		entityManager.persist(counter);
+		entityManager.flush();
+		return sequenceRepository.findForUpdate(ClientChangeSequence.ID).orElse(counter);
+	}
+	
+	private void committed(long sequence) {
+		lastCommittedSequence.accumulateAndGet(sequence, Math::max);
+		for (CompletableFuture<Void> waiter : waiters) {
+			waiter.complete(null);
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.iftm.client.services;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientField;
+import com.iftm.client.dto.ClientFieldsDTO;
+import com.iftm.client.search.ClientIndexUpdater;
+import com.iftm.client.search.ClientSearchIndex;
+
+@Service
+public class ClientSearchService {
+
+	@Autowired
+	private ClientSearchIndex index;
+
+	@Autowired
+	private ClientIndexUpdater indexUpdater;
+
+	@Value("${client.search.reindex-batch-size:1000}")
+	private int batchSize;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (index.isEnabled()) {
+			reindex();
+		}
+	}
+
+	public Page<ClientDTO> search(String query, PageRequest pageRequest) {
+		return index.search(query, pageRequest).map(x -> new ClientDTO(x));
+	}
+	
+	public Page<ClientFieldsDTO> search(String query, PageRequest pageRequest, Set<ClientField> fields) {
+		return index.search(query, pageRequest).map(x -> ClientFieldsDTO.of(new ClientDTO(x), fields));
+	}
+
+	public long reindex() {
+		return indexUpdater.rebuild(index, batchSize);
+	}
+
+}
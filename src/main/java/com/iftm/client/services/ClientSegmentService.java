@@ -0,0 +1,69 @@
+package com.iftm.client.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.search.ClientIndexUpdater;
+import com.iftm.client.search.ClientSegmentIndex;
+import com.iftm.client.search.RoaringBitmap;
+import com.iftm.client.search.SegmentQuery;
+
+@Service
+public class ClientSegmentService {
+
+	@Autowired
+	private ClientService service;
+
+	@Autowired
+	private ClientSegmentIndex index;
+
+	@Autowired
+	private ClientIndexUpdater indexUpdater;
+
+	@Value("${client.segments.reindex-batch-size:1000}")
+	private int batchSize;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (index.isEnabled()) {
+			reindex();
+		}
+	}
+
+	public long count(SegmentQuery query) {
+		return index.select(query).cardinality();
+	}
+
+	public Page<Long> findIds(SegmentQuery query, PageRequest pageRequest) {
+		RoaringBitmap ids = index.select(query);
+		return new PageImpl<>(page(ids, pageRequest), pageRequest, ids.cardinality());
+	}
+
+	public Page<ClientDTO> find(SegmentQuery query, PageRequest pageRequest) {
+		RoaringBitmap ids = index.select(query);
+		return new PageImpl<>(service.findAllById(page(ids, pageRequest)), pageRequest, ids.cardinality());
+	}
+
+	public long reindex() {
+		return indexUpdater.rebuild(index, batchSize);
+	}
+
+	private static List<Long> page(RoaringBitmap ids, PageRequest pageRequest) {
+		List<Long> page = new ArrayList<>();
+		for (long id : ids.toArray(pageRequest.getOffset(), pageRequest.getPageSize())) {
+			page.add(id);
+		}
+		return page;
+	}
+
+}
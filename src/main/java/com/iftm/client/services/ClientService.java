@@ -1,25 +1,69 @@
 package com.iftm.client.services;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.persistence.EntityNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.iftm.client.datasource.RoutingContext;
 import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientField;
+import com.iftm.client.dto.ClientFieldsDTO;
+import com.iftm.client.entities.ArchivedClient;
+import com.iftm.client.entities.ChangeType;
 import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.ArchivedClientRepository;
 import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.repositories.sharding.ShardedClientRepository;
+import com.iftm.client.repositories.util.ClientSort;
+import com.iftm.client.repositories.util.PageMerger;
+import com.iftm.client.services.events.ClientCreatedEvent;
+import com.iftm.client.services.events.ClientDeletedEvent;
+import com.iftm.client.services.events.ClientUpdatedEvent;
 import com.iftm.client.services.exceptions.DatabaseException;
+import com.iftm.client.services.exceptions.InvalidQueryException;
 import com.iftm.client.services.exceptions.ResourceNotFoundException;
+import com.iftm.client.services.exceptions.ServiceUnavailableException;
+import com.iftm.client.services.util.AfterCommit;
+import com.iftm.client.services.util.BatchLoader;
+import com.iftm.client.services.util.ScanRange;
+import com.iftm.client.services.util.SingleFlight;
 
 @Service
 public class ClientService {
@@ -27,53 +71,359 @@ public class ClientService {
 	@Autowired
 	private ClientRepository repository;
 	
+	@Autowired
+	private ArchivedClientRepository archiveRepository;
+	
+	@Autowired(required = false)
+	private ShardedClientRepository sharded;
+	
+	@Autowired
+	private ClientChangeService changeService;
+	
+	@Autowired
+	private ClientActivityTracker activity;
+	
+	@Autowired
+	private ApplicationEventPublisher publisher;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@Value("${client.batch.enabled:false}")
+	private boolean batchEnabled;
+	
+	@Value("${client.batch.window-micros:1000}")
+	private long batchWindowMicros;
+	
+	@Value("${client.batch.max-size:64}")
+	private int batchMaxSize;
+	
+	@Value("${client.batch.threads:4}")
+	private int batchThreads;
+	
+	@Value("${client.batch.queue-capacity:1000}")
+	private int batchQueueCapacity;
+	
+	@Value("${client.batch.max-ids:100}")
+	private int maxIds;
+	
+	@Value("${client.scan.max-segments:64}")
+	private int maxScanSegments;
+	
+	@Value("${client.scan.batch-size:1000}")
+	private int scanBatchSize;
+	
+	@Value("${client.scan.parallelism:0}")
+	private int scanParallelism;
+	
+	private final SingleFlight readFlights = new SingleFlight();
+	
+	private final AtomicLong dataVersion = new AtomicLong();
+	
+	private BatchLoader<Long, ClientDTO> byIdLoader;
+	
+	private ThreadPoolExecutor batchPool;
+	
+	private ForkJoinPool scanPool;
+	
+	@PostConstruct
+	public void init() {
+		if (batchEnabled) {
+			batchPool = new ThreadPoolExecutor(batchThreads, batchThreads, 0L, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<>(batchQueueCapacity), r -> {
+						Thread thread = new Thread(r, "batch-loader-worker");
+						thread.setDaemon(true);
+						return thread;
+					});
+			byIdLoader = new BatchLoader<>(this::loadBatch, batchWindowMicros, batchMaxSize, batchPool);
+		}
+		scanPool = new ForkJoinPool(scanParallelism > 0 ? scanParallelism : Runtime.getRuntime().availableProcessors());
+	}
+	
+	@PreDestroy
+	public void destroy() {
+		if (byIdLoader != null) {
+			byIdLoader.shutdown();
+			batchPool.shutdown();
+		}
+		if (scanPool != null) {
+			scanPool.shutdown();
+		}
+	}
+	
 	@Transactional(readOnly = true)
 	public List<ClientDTO> findAll() {
-		List<Client> list = repository.findAll();
+		List<Client> list = sharded != null ? sharded.findAll() : repository.findAll();
 		return list.stream().map(x -> new ClientDTO(x)).collect(Collectors.toList());
 	}
 	
 	@Transactional(readOnly = true)
 	public Page<ClientDTO> findAllPaged(PageRequest pageRequest) {
-		Page<Client> list =  repository.findAll(pageRequest);
+		Page<Client> list = sharded != null ? sharded.findAll(pageRequest) : repository.findAll(pageRequest);
 		return list.map(x -> new ClientDTO(x));
 	}
 	
 	@Transactional(readOnly = true)
 	public Page<ClientDTO> findByIncome(Double income, PageRequest pageRequest) {
-		Page<Client> list =  repository.findByIncome(income, pageRequest);
+		return coalesce(Arrays.asList("findByIncome", income, pageRequest), () -> {
+			Page<Client> list = sharded != null ? sharded.findByIncome(income, pageRequest)
+					: repository.findByIncome(income, pageRequest);
+			return list.map(x -> new ClientDTO(x));
+		});
+	}
+	
+	@Transactional(readOnly = true)
+	public Slice<ClientDTO> findAllSliced(PageRequest pageRequest) {
+		Slice<Client> list = sharded != null ? sharded.findSliceBy(pageRequest) : repository.findSliceBy(pageRequest);
 		return list.map(x -> new ClientDTO(x));
 	}
 	
+	@Transactional(readOnly = true)
+	public Slice<ClientDTO> findByIncomeSliced(Double income, PageRequest pageRequest) {
+		return coalesce(Arrays.asList("findByIncomeSliced", income, pageRequest), () -> {
+			Slice<Client> list = sharded != null ? sharded.findSliceByIncome(income, pageRequest)
+					: repository.findSliceByIncome(income, pageRequest);
+			return list.map(x -> new ClientDTO(x));
+		});
+	}
+	
+	@Transactional(readOnly = true)
+	public Slice<ClientFieldsDTO> findAllSliced(PageRequest pageRequest, Set<ClientField> fields) {
+		if (sharded != null) {
+			return sharded.findSliceBy(pageRequest).map(x -> ClientFieldsDTO.of(new ClientDTO(x), fields));
+		}
+		return repository.findFieldsBy(fields, pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	public Slice<ClientFieldsDTO> findByIncomeSliced(Double income, PageRequest pageRequest, Set<ClientField> fields) {
+		if (sharded != null) {
+			return sharded.findSliceByIncome(income, pageRequest).map(x -> ClientFieldsDTO.of(new ClientDTO(x), fields));
+		}
+		return repository.findFieldsByIncome(fields, income, pageRequest);
+	}
+	
+	/**
+	 * The columns come from the projection query; the total from a count query
+	 * that is skipped when the page itself shows where the results end.
+	 */
+	@Transactional(readOnly = true)
+	public Page<ClientFieldsDTO> findAllPaged(PageRequest pageRequest, Set<ClientField> fields) {
+		if (sharded != null) {
+			return sharded.findAll(pageRequest).map(x -> ClientFieldsDTO.of(new ClientDTO(x), fields));
+		}
+		return PageableExecutionUtils.getPage(repository.findFieldsBy(fields, pageRequest).getContent(), pageRequest,
+				repository::count);
+	}
+	
+	@Transactional(readOnly = true)
+	public Page<ClientFieldsDTO> findByIncome(Double income, PageRequest pageRequest, Set<ClientField> fields) {
+		if (sharded != null) {
+			return sharded.findByIncome(income, pageRequest).map(x -> ClientFieldsDTO.of(new ClientDTO(x), fields));
+		}
+		return PageableExecutionUtils.getPage(repository.findFieldsByIncome(fields, income, pageRequest).getContent(),
+				pageRequest, () -> repository.countByIncome(income));
+	}
+	
+	@Transactional(readOnly = true)
+	public Page<ClientDTO> findAllPaged(PageRequest pageRequest, boolean includeArchived) {
+		if (!includeArchived) {
+			return findAllPaged(pageRequest);
+		}
+		PageRequest top = topOf(pageRequest);
+		return mergeWithArchive(repository.findAll(top), archiveRepository.findAll(top), pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	public Page<ClientDTO> findByIncome(Double income, PageRequest pageRequest, boolean includeArchived) {
+		if (!includeArchived) {
+			return findByIncome(income, pageRequest);
+		}
+		PageRequest top = topOf(pageRequest);
+		return mergeWithArchive(repository.findByIncome(income, top), archiveRepository.findByIncome(income, top),
+				pageRequest);
+	}
+	
+	private static PageRequest topOf(PageRequest pageRequest) {
+		Sort sort = pageRequest.getSort().and(Sort.by("id"));
+		return PageRequest.of(0, (int) (pageRequest.getOffset() + pageRequest.getPageSize()), sort);
+	}
+	
+	private static Page<ClientDTO> mergeWithArchive(Page<Client> hot, Page<ArchivedClient> archived, PageRequest pageRequest) {
+		List<Client> cold = archived.getContent().stream().map(x -> x.toClient()).collect(Collectors.toList());
+		long total = hot.getTotalElements() + archived.getTotalElements();
+		return PageMerger.merge(Arrays.asList(hot.getContent(), cold), ClientSort.comparator(pageRequest.getSort()),
+				pageRequest, total).map(x -> new ClientDTO(x));
+	}
+	
 	@Transactional(readOnly = true)
 	public ClientDTO findById(Long id) {
-		Optional<Client> obj = repository.findById(id);
-		Client entity = obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
-		return new ClientDTO(entity);
+		ClientDTO dto = coalesce(Arrays.asList("findById", id), () -> {
+			Optional<ClientDTO> obj = byIdLoader != null && !RoutingContext.isPrimaryForced()
+					? Optional.ofNullable(loadBatched(id))
+					: loadById(id).map(x -> new ClientDTO(x));
+			return obj.or(() -> findArchived(id).map(x -> new ClientDTO(x)))
+					.orElseThrow(ResourceNotFoundException::entityNotFound);
+		});
+		activity.record(id);
+		return dto;
+	}
+	
+	@Transactional(readOnly = true)
+	public ClientFieldsDTO findById(Long id, Set<ClientField> fields) {
+		if (sharded != null) {
+			return ClientFieldsDTO.of(findById(id), fields);
+		}
+		ClientFieldsDTO dto = repository.findFieldsById(fields, id)
+				.or(() -> findArchived(id).map(x -> ClientFieldsDTO.of(new ClientDTO(x), fields)))
+				.orElseThrow(ResourceNotFoundException::entityNotFound);
+		activity.record(id);
+		return dto;
+	}
+	
+	private Optional<Client> findArchived(Long id) {
+		return sharded != null ? Optional.empty() : archiveRepository.findById(id).map(x -> x.toClient());
+	}
+	
+	@Transactional(readOnly = true)
+	public List<ClientDTO> findAllById(List<Long> ids) {
+		if (ids.size() > maxIds) {
+			throw new InvalidQueryException("At most " + maxIds + " ids can be requested at once");
+		}
+		Map<Long, Client> found = loadAllById(ids);
+		return ids.stream().distinct().map(found::get).filter(Objects::nonNull)
+				.map(x -> new ClientDTO(x)).collect(Collectors.toList());
+	}
+	
+	/**
+	 * Shares concurrent identical reads, except for callers pinned to the
+	 * primary: a flight already running on a replica may predate their write.
+	 * Callers that joined a flight also inherit the routes it read from.
+	 */
+	private <T> T coalesce(Object key, Supplier<T> supplier) {
+		if (RoutingContext.isPrimaryForced()) {
+			return supplier.get();
+		}
+		RoutingContext.Routed<T> result = readFlights.execute(key, () -> RoutingContext.track(supplier));
+		RoutingContext.recordRoutes(result.getRoutes());
+		return result.getValue();
+	}
+	
+	private Optional<Client> loadById(Long id) {
+		return sharded != null ? sharded.findById(id) : repository.findById(id);
+	}
+	
+	private ClientDTO loadBatched(Long id) {
+		try {
+			return byIdLoader.load(id);
+		} catch (RejectedExecutionException e) {
+			throw new ServiceUnavailableException("Too many pending loads by id", 1);
+		}
+	}
+	
+	/**
+	 * Runs on the batch pool, outside any caller's transaction, so it opens a
+	 * read-only one of its own and hands back detached DTOs.
+	 */
+	private Map<Long, ClientDTO> loadBatch(Collection<Long> ids) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(true);
+		return transaction.execute(status -> {
+			Map<Long, ClientDTO> found = new HashMap<>();
+			loadAllById(ids).forEach((id, client) -> found.put(id, new ClientDTO(client)));
+			return found;
+		});
+	}
+	
+	private Map<Long, Client> loadAllById(Collection<Long> ids) {
+		Map<Long, Client> found = new HashMap<>();
+		for (Client client : sharded != null ? sharded.findAllById(ids) : repository.findAllById(ids)) {
+			found.put(client.getId(), client);
+		}
+		return found;
 	}
 	
 	@Transactional
 	public ClientDTO insert(ClientDTO dto) {
 		Client entity = dto.toEntity();
-		entity = repository.save(entity);
+		long sequence;
+		if (sharded != null) {
+			Client client = sharded.assignId(entity);
+			sequence = appendSharded(ChangeType.INSERT, client.getId(), client, x -> sharded.insert(client, x));
+		} else {
+			entity = repository.save(entity);
+			sequence = changeService.append(ChangeType.INSERT, entity.getId(), entity);
+		}
+		dataChanged();
+		publisher.publishEvent(new ClientCreatedEvent(entity, sequence));
 		return new ClientDTO(entity);
 	}
 	
 	@Transactional
 	public ClientDTO update(Long id, ClientDTO dto) {
+		Client entity;
 		try {
-			Client entity = repository.getOne(id);
+			entity = sharded != null ? sharded.findById(id).orElseThrow(EntityNotFoundException::new)
+					: repository.getOne(id);
 			updateData(entity, dto);
-			entity = repository.save(entity);
-			return new ClientDTO(entity);
 		} catch (EntityNotFoundException e) {
-			throw new ResourceNotFoundException("Id not found " + id);
+			entity = restoreArchived(id).orElseThrow(() -> new ResourceNotFoundException("Id not found " + id));
+			updateData(entity, dto);
+		}
+		long sequence;
+		if (sharded != null) {
+			Client client = entity;
+			sequence = appendSharded(ChangeType.UPDATE, id, client, x -> sharded.update(client, x));
+		} else {
+			entity = repository.save(entity);
+			sequence = changeService.append(ChangeType.UPDATE, entity.getId(), entity);
+		}
+		dataChanged();
+		publisher.publishEvent(new ClientUpdatedEvent(entity, sequence));
+		return new ClientDTO(entity);
+	}
+	
+	@Transactional
+	public ClientDTO restore(Long id) {
+		Client entity = restoreArchived(id).orElseThrow(() -> new ResourceNotFoundException("Id not found " + id));
+		long sequence = changeService.append(ChangeType.RESTORE, id, entity);
+		dataChanged();
+		publisher.publishEvent(new ClientCreatedEvent(entity, sequence));
+		return new ClientDTO(entity);
+	}
+	
+	/**
+	 * Moves an archived client back to the hot table under its original id.
+	 */
+	private Optional<Client> restoreArchived(Long id) {
+		Optional<ArchivedClient> archived = sharded != null ? Optional.empty() : archiveRepository.findById(id);
+		if (archived.isEmpty()) {
+			return Optional.empty();
 		}
+		ArchivedClient x = archived.get();
+		archiveRepository.delete(x);
+		repository.insertWithId(x.getId(), x.getName(), x.getCpf(), x.getIncome(), x.getBirthDate(), x.getChildren(),
+				Instant.now());
+		return repository.findById(id);
 	}
 	
+	@Transactional
 	public void delete(Long id) {
 		try {
-			repository.deleteById(id);
+			long sequence;
+			if (sharded != null) {
+				sequence = appendSharded(ChangeType.DELETE, id, null, x -> sharded.deleteById(id, x));
+			} else {
+				if (archiveRepository.existsById(id)) {
+					archiveRepository.deleteById(id);
+				} else {
+					repository.deleteById(id);
+					repository.flush();
+				}
+				sequence = changeService.append(ChangeType.DELETE, id, null);
+			}
+			dataChanged();
+			publisher.publishEvent(new ClientDeletedEvent(id, sequence));
 		} catch (EmptyResultDataAccessException e) {
 			throw new ResourceNotFoundException("Id not found " + id);
 		} catch (DataIntegrityViolationException e) {
@@ -81,6 +431,20 @@ public class ClientService {
 		}
 	}
 
+	/**
+	 * The shards are separate databases, so the shard write cannot join the
+	 * outbox transaction. The outbox row is appended first and the shard write
+	 * records its sequence as pending in the same shard transaction; the
+	 * pending row is acknowledged once the outbox commits, and ShardChangeRelay
+	 * publishes the ones left behind when it does not.
+	 */
+	private long appendSharded(ChangeType type, Long id, Client snapshot, LongConsumer write) {
+		long sequence = changeService.append(type, id, snapshot);
+		write.accept(sequence);
+		AfterCommit.run(() -> sharded.acknowledge(id, sequence));
+		return sequence;
+	}
+
 	private void updateData(Client entity, ClientDTO dto) {
 		entity.setName(dto.getName());
 		entity.setCpf(dto.getCpf());
@@ -90,12 +454,117 @@ public class ClientService {
 	}
 	
 	public List<Client> findByNameContainingIgnoreCase(String name) {
+		if (sharded != null) {
+			return sharded.findByNameContainingIgnoreCase(name);
+		}
 		return repository.findByNameContainingIgnoreCase(name);
 	}
 	
+	@Transactional(readOnly = true)
+	public List<Client> findByNameContainingIgnoreCase(String name, boolean includeArchived) {
+		List<Client> list = new ArrayList<>(findByNameContainingIgnoreCase(name));
+		if (includeArchived) {
+			archiveRepository.findByNameContainingIgnoreCase(name).forEach(x -> list.add(x.toClient()));
+		}
+		return list;
+	}
+	
 	public List<Client> findByBirthDate(Instant instant) {
 		return repository.findByBirthDate(instant);
 	}
 	
+	public List<Client> findByBirthDate(Instant start, Instant end) {
+		if (sharded != null) {
+			return sharded.findByBirthDateRange(start, end);
+		}
+		return repository.findByBirthDateRange(start, end);
+	}
+	
+	@Transactional(readOnly = true)
+	public List<ScanRange> scanRanges(int segments) {
+		int count = Math.min(Math.max(segments, 1), maxScanSegments);
+		Optional<long[]> bounds;
+		if (sharded != null) {
+			bounds = sharded.findIdBounds();
+		}
+		else {
+			Object[] row = repository.findIdBounds().get(0);
+			bounds = row[0] == null ? Optional.empty()
+					: Optional.of(new long[] { ((Number) row[0]).longValue(), ((Number) row[1]).longValue() });
+		}
+		return bounds.map(x -> ScanRange.split(x[0], x[1], count))
+				.orElseGet(() -> List.of(new ScanRange(0, Long.MAX_VALUE)));
+	}
+	
+	@Transactional(readOnly = true)
+	public List<ClientDTO> scan(ScanRange range, Long after, int limit) {
+		long from = after == null ? range.getFirst() - 1 : Math.max(after, range.getFirst() - 1);
+		List<Client> batch = sharded != null ? sharded.findBatchBetween(from, range.getLast(), limit)
+				: repository.findBatchBetween(from, range.getLast(), PageRequest.of(0, limit));
+		return batch.stream().map(x -> new ClientDTO(x)).collect(Collectors.toList());
+	}
+	
+	/**
+	 * Returns the next archived clients after {@code after}, in id order.
+	 * Sharded storage has no archive.
+	 */
+	@Transactional(readOnly = true)
+	public List<ClientDTO> scanArchived(Long after, int limit) {
+		if (sharded != null) {
+			return List.of();
+		}
+		return archiveRepository.findBatchAfter(after == null ? -1L : after, PageRequest.of(0, limit)).stream()
+				.map(x -> new ClientDTO(x.toClient())).collect(Collectors.toList());
+	}
+	
+	/**
+	 * Streams every client to {@code consumer} in batches, scanning the id
+	 * ranges in parallel on the scan pool. Batches of different ranges arrive
+	 * concurrently, so the consumer must be thread-safe. Returns the number of
+	 * clients scanned. Each range runs on a pool thread, outside the caller's
+	 * transaction, so its batches are read in read-only transactions of their own.
+	 */
+	@Transactional(readOnly = true)
+	public long parallelScan(int segments, Consumer<List<ClientDTO>> consumer) {
+		List<ForkJoinTask<Long>> tasks = new ArrayList<>();
+		for (ScanRange range : scanRanges(segments)) {
+			tasks.add(scanPool.submit(() -> scanAll(range, consumer)));
+		}
+		long total = 0;
+		for (ForkJoinTask<Long> task : tasks) {
+			total += task.join();
+		}
+		return total;
+	}
+	
+	private long scanAll(ScanRange range, Consumer<List<ClientDTO>> consumer) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(true);
+		long total = 0;
+		List<ClientDTO> batch = transaction.execute(status -> scan(range, null, scanBatchSize));
+		while (!batch.isEmpty()) {
+			consumer.accept(batch);
+			total += batch.size();
+			if (batch.size() < scanBatchSize) {
+				break;
+			}
+			Long after = batch.get(batch.size() - 1).getId();
+			batch = transaction.execute(status -> scan(range, after, scanBatchSize));
+		}
+		return total;
+	}
+	
+	public void dataChanged() {
+		AfterCommit.run(dataVersion::incrementAndGet);
+	}
+	
+	public long getDataVersion() {
+		return dataVersion.get();
+	}
+	
+	public SingleFlight getReadFlights() {
+		return readFlights;
+	}
+	
 
 }
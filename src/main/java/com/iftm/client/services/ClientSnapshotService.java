@@ -0,0 +1,281 @@
+package com.iftm.client.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.services.exceptions.ResourceNotFoundException;
+import com.iftm.client.services.exceptions.ServiceUnavailableException;
+import com.iftm.client.services.util.ScanRange;
+import com.iftm.client.snapshot.ColumnarClientWriter;
+
+@Service
+public class ClientSnapshotService {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ClientSnapshotService.class);
+	
+	private static final String PREFIX = "clients-";
+	private static final String SUFFIX = ".ccol";
+	private static final Pattern NAME = Pattern.compile("clients-\\d{8}T\\d{6}Z\\.ccol");
+	private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+			.withZone(ZoneOffset.UTC);
+	
+	@Autowired
+	private ClientService service;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@Value("${client.snapshot.enabled:false}")
+	private boolean enabled;
+	
+	@Value("${client.snapshot.directory:snapshots}")
+	private String directory;
+	
+	@Value("${client.snapshot.row-group-size:65536}")
+	private int rowGroupSize;
+	
+	@Value("${client.snapshot.batch-size:1000}")
+	private int batchSize;
+	
+	@Value("${client.snapshot.retention:7}")
+	private int retention;
+	
+	@Value("${client.snapshot.retry-after-seconds:60}")
+	private long retryAfterSeconds;
+	
+	private final AtomicReference<String> running = new AtomicReference<>();
+	
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "client-snapshot");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
+	
+	@Scheduled(cron = "${client.snapshot.cron:0 0 2 * * *}")
+	public void scheduledSnapshot() {
+		if (!enabled) {
+			return;
+		}
+		try {
+			logger.info("Started scheduled client snapshot {}", requestSnapshot());
+		}
+		catch (ServiceUnavailableException e) {
+			logger.warn("Skipped scheduled client snapshot: {}", e.getMessage());
+		}
+		catch (RejectedExecutionException e) {
+			logger.error("Could not start scheduled client snapshot", e);
+		}
+	}
+	
+	/**
+	 * Starts a snapshot in the background and returns the name it will have
+	 * once written. Only one snapshot is written at a time; asking for another
+	 * while one is running fails with {@link ServiceUnavailableException}.
+	 */
+	public String requestSnapshot() {
+		String name = newName();
+		if (!running.compareAndSet(null, name)) {
+			throw new ServiceUnavailableException("Snapshot " + running.get() + " is still being written",
+					retryAfterSeconds);
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					logger.info("Wrote client snapshot {}", createSnapshot(name));
+				}
+				catch (RuntimeException e) {
+					logger.error("Client snapshot {} failed", name, e);
+				}
+				finally {
+					running.set(null);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			running.set(null);
+			throw e;
+		}
+		return name;
+	}
+	
+	/**
+	 * Streams every client, hot and archived, in id order into a new snapshot
+	 * file. All batches
+	 * are read in one read-only, repeatable-read transaction, so the snapshot is
+	 * a point-in-time view of the table as of its first read. With sharding
+	 * enabled each shard is read on its own connection and only the per-shard
+	 * reads are consistent. The file is written under a temporary name and
+	 * renamed once complete, so downloads never see a partial snapshot. Older
+	 * snapshots beyond the retention count are deleted.
+	 */
+	private Path createSnapshot(String name) {
+		Path dir = Paths.get(directory);
+		Path temp = null;
+		try {
+			Files.createDirectories(dir);
+			temp = Files.createTempFile(dir, PREFIX, ".tmp");
+			try (OutputStream out = Files.newOutputStream(temp);
+					ColumnarClientWriter writer = new ColumnarClientWriter(out, rowGroupSize)) {
+				TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+				transaction.setReadOnly(true);
+				transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+				transaction.executeWithoutResult(status -> write(writer));
+			}
+			Path file = dir.resolve(name);
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			prune();
+			return file;
+		}
+		catch (IOException e) {
+			deleteQuietly(temp);
+			throw new UncheckedIOException(e);
+		}
+		catch (RuntimeException e) {
+			deleteQuietly(temp);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Returns the snapshot names, newest first.
+	 */
+	public List<String> list() {
+		List<String> names = new ArrayList<>();
+		Path dir = Paths.get(directory);
+		if (!Files.isDirectory(dir)) {
+			return names;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				if (NAME.matcher(name).matches()) {
+					names.add(name);
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		names.sort(Collections.reverseOrder());
+		return names;
+	}
+	
+	public Optional<String> latest() {
+		return list().stream().findFirst();
+	}
+	
+	public Path resolve(String name) {
+		if (NAME.matcher(name).matches()) {
+			Path file = Paths.get(directory).resolve(name);
+			if (Files.isRegularFile(file)) {
+				return file;
+			}
+		}
+		throw new ResourceNotFoundException("Snapshot not found: " + name);
+	}
+	
+	private void write(ColumnarClientWriter writer) {
+		ScanRange all = new ScanRange(0, Long.MAX_VALUE);
+		Cursor hot = new Cursor(after -> service.scan(all, after, batchSize), batchSize);
+		Cursor archived = new Cursor(after -> service.scanArchived(after, batchSize), batchSize);
+		while (hot.peek() != null || archived.peek() != null) {
+			Cursor next = archived.peek() == null
+					|| (hot.peek() != null && hot.peek().getId() < archived.peek().getId()) ? hot : archived;
+			try {
+				writer.write(next.peek());
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			next.advance();
+		}
+	}
+	
+	private static String newName() {
+		return PREFIX + TIMESTAMP.format(Instant.now()) + SUFFIX;
+	}
+	
+	private void prune() throws IOException {
+		List<String> names = list();
+		for (String name : names.subList(Math.min(Math.max(retention, 1), names.size()), names.size())) {
+			Files.deleteIfExists(Paths.get(directory).resolve(name));
+		}
+	}
+	
+	/**
+	 * Walks the batches of one table in id order.
+	 */
+	private static final class Cursor {
+		private final Function<Long, List<ClientDTO>> loader;
+		private final int batchSize;
+		private List<ClientDTO> batch;
+		private int index;
+		
+		private Cursor(Function<Long, List<ClientDTO>> loader, int batchSize) {
+			this.loader = loader;
+			this.batchSize = batchSize;
+		}
+		
+		private ClientDTO peek() {
+			if (batch == null || (index == batch.size() && batch.size() == batchSize)) {
+				batch = loader.apply(batch == null ? null : batch.get(batch.size() - 1).getId());
+				index = 0;
+			}
+			return index < batch.size() ? batch.get(index) : null;
+		}
+		
+		private void advance() {
+			index++;
+		}
+	}
+	
+	private static void deleteQuietly(Path file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file);
+		}
+		catch (IOException e) {
+			logger.warn("Could not delete {}", file, e);
+		}
+	}
+
+}
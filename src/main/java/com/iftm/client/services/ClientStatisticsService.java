@@ -0,0 +1,83 @@
+package com.iftm.client.services;
+
+import java.util.OptionalLong;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.repositories.sharding.ShardedClientRepository;
+import com.iftm.client.services.util.Histogram;
+
+/**
+ * Keeps an income histogram for count estimates. It is built at startup and
+ * on the scheduler, never on a request thread; until the first build the
+ * estimates are empty.
+ */
+@Service
+public class ClientStatisticsService {
+
+	@Autowired
+	private ClientRepository repository;
+
+	@Autowired(required = false)
+	private ShardedClientRepository sharded;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${client.statistics.buckets:100}")
+	private int buckets;
+
+	private volatile Histogram incomeHistogram;
+
+	private volatile long totalCount;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		refresh();
+	}
+
+	@Scheduled(fixedDelayString = "${client.statistics.refresh-interval-ms:60000}",
+			initialDelayString = "${client.statistics.refresh-interval-ms:60000}")
+	public void refresh() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(true);
+		transaction.executeWithoutResult(status -> {
+			SortedMap<Double, Long> incomes = sharded != null ? sharded.countGroupByIncome() : loadIncomeCounts();
+			long total = sharded != null ? sharded.countByShard().values().stream().mapToLong(Long::longValue).sum()
+					: repository.count();
+			totalCount = total;
+			incomeHistogram = Histogram.of(incomes, buckets);
+		});
+	}
+
+	public OptionalLong estimateCount() {
+		return incomeHistogram != null ? OptionalLong.of(totalCount) : OptionalLong.empty();
+	}
+
+	public OptionalLong estimateCountByIncome(Double income) {
+		Histogram histogram = incomeHistogram;
+		if (income == null) {
+			return estimateCount();
+		}
+		return histogram != null ? OptionalLong.of(histogram.estimateAtLeast(income)) : OptionalLong.empty();
+	}
+
+	private SortedMap<Double, Long> loadIncomeCounts() {
+		SortedMap<Double, Long> counts = new TreeMap<>();
+		for (Object[] row : repository.countGroupByIncome()) {
+			counts.put(((Number) row[0]).doubleValue(), ((Number) row[1]).longValue());
+		}
+		return counts;
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.iftm.client.services;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.ClientChangeRepository;
+import com.iftm.client.repositories.sharding.PendingChange;
+import com.iftm.client.repositories.sharding.ShardedClientRepository;
+import com.iftm.client.services.events.ClientCreatedEvent;
+import com.iftm.client.services.events.ClientDeletedEvent;
+import com.iftm.client.services.events.ClientUpdatedEvent;
+
+/**
+ * Publishes shard writes whose outbox row never committed. A pending change
+ * older than the grace period whose sequence is not in the outbox for the
+ * same client is republished from the row's current state on the shard.
+ */
+@Service
+public class ShardChangeRelay {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ShardChangeRelay.class);
+	
+	@Autowired(required = false)
+	private ShardedClientRepository sharded;
+	
+	@Autowired
+	private ClientChangeRepository changeRepository;
+	
+	@Autowired
+	private ClientChangeService changeService;
+	
+	@Autowired
+	private ClientService clientService;
+	
+	@Autowired
+	private ApplicationEventPublisher publisher;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@Value("${client.sharding.relay-grace-ms:60000}")
+	private long graceMillis;
+	
+	@Scheduled(fixedDelayString = "${client.sharding.relay-interval-ms:10000}")
+	public void relayPendingChanges() {
+		if (sharded != null) {
+			relay(Instant.now().minusMillis(graceMillis));
+		}
+	}
+	
+	/**
+	 * Resolves the pending changes recorded before {@code before} and returns
+	 * how many had to be republished.
+	 */
+	public int relay(Instant before) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		int published = 0;
+		for (PendingChange pending : sharded.findPendingChanges(before)) {
+			boolean committed = changeRepository.findById(pending.getSequence())
+					.map(x -> pending.getClientId().equals(x.getClientId()))
+					.orElse(false);
+			if (!committed) {
+				transaction.executeWithoutResult(status -> publish(pending));
+				published++;
+			}
+			sharded.acknowledge(pending.getClientId(), pending.getSequence());
+		}
+		return published;
+	}
+	
+	private void publish(PendingChange pending) {
+		Long id = pending.getClientId();
+		Optional<Client> current = sharded.findById(id);
+		ChangeType type = current.isEmpty() ? ChangeType.DELETE
+				: pending.getType() == ChangeType.DELETE ? ChangeType.UPDATE : pending.getType();
+		logger.warn("Change {} to client {} was written to its shard without an outbox row; publishing it as {}",
+				pending.getSequence(), id, type);
+		long sequence = changeService.append(type, id, current.orElse(null));
+		clientService.dataChanged();
+		if (type == ChangeType.INSERT) {
+			publisher.publishEvent(new ClientCreatedEvent(current.get(), sequence));
+		} else if (type == ChangeType.UPDATE) {
+			publisher.publishEvent(new ClientUpdatedEvent(current.get(), sequence));
+		} else {
+			publisher.publishEvent(new ClientDeletedEvent(id, sequence));
+		}
+	}
+
+}
@@ -0,0 +1,9 @@
+package com.iftm.client.services.events;
+
+public class ClientArchivedEvent extends ClientEvent {
+	
+	public ClientArchivedEvent(Long clientId, long sequence) {
+		super(clientId, null, sequence);
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.iftm.client.services.events;
+
+import com.iftm.client.entities.Client;
+
+public class ClientCreatedEvent extends ClientEvent {
+	
+	public ClientCreatedEvent(Client client, long sequence) {
+		super(client.getId(), client, sequence);
+	}
+
+}
@@ -0,0 +1,9 @@
+package com.iftm.client.services.events;
+
+public class ClientDeletedEvent extends ClientEvent {
+	
+	public ClientDeletedEvent(Long clientId, long sequence) {
+		super(clientId, null, sequence);
+	}
+
+}
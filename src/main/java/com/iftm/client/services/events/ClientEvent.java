@@ -0,0 +1,41 @@
+package com.iftm.client.services.events;
+
+import java.time.Instant;
+
+import com.iftm.client.entities.Client;
+
+public abstract class ClientEvent {
+	
+	private final Long clientId;
+	private final Client client;
+	private final long sequence;
+	private final Instant occurredAt = Instant.now();
+	
+	protected ClientEvent(Long clientId, Client client, long sequence) {
+		this.clientId = clientId;
+		this.sequence = sequence;
+		this.client = client == null ? null : new Client(client.getId(), client.getName(), client.getCpf(),
+				client.getIncome(), client.getBirthDate(), client.getChildren());
+	}
+	
+	public Long getClientId() {
+		return clientId;
+	}
+	
+	public Client getClient() {
+		return client;
+	}
+	
+	/**
+	 * Sequence of the change-log entry written with this event, used to
+	 * recognize events for the same client that arrive out of commit order.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+	
+	public Instant getOccurredAt() {
+		return occurredAt;
+	}
+
+}
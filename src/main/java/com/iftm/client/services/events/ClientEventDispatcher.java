@@ -0,0 +1,202 @@
+package com.iftm.client.services.events;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hands committed client events to the {@link ClientEventHandler}s on
+ * background workers. Each client is pinned to one worker, but after-commit
+ * listeners of concurrent transactions can still enqueue a client's events out
+ * of commit order; the worker remembers the last change sequence it handled per
+ * client and drops older events. Queues are bounded: when a worker falls
+ * behind, publishers block until there is room again, which slows writers down
+ * instead of dropping events.
+ */
+@Component
+public class ClientEventDispatcher {
+
+	private static final Logger logger = LoggerFactory.getLogger(ClientEventDispatcher.class);
+
+	@Autowired(required = false)
+	private List<ClientEventHandler> handlers = new ArrayList<>();
+
+	@Value("${client.events.workers:2}")
+	private int workers;
+
+	@Value("${client.events.queue-capacity:10000}")
+	private int queueCapacity;
+
+	@Value("${client.events.batch-size:100}")
+	private int batchSize;
+
+	@Value("${client.events.max-attempts:3}")
+	private int maxAttempts;
+
+	@Value("${client.events.retry-backoff-ms:100}")
+	private long retryBackoffMillis;
+
+	@Value("${client.events.max-tracked-clients:100000}")
+	private int maxTrackedClients;
+
+	private final LongAdder dispatched = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder blocked = new LongAdder();
+	private final LongAdder stale = new LongAdder();
+
+	private List<BlockingQueue<ClientEvent>> queues;
+	private List<Thread> threads;
+	private volatile boolean running;
+
+	@PostConstruct
+	public void start() {
+		running = true;
+		queues = new ArrayList<>();
+		threads = new ArrayList<>();
+		for (int i = 0; i < workers; i++) {
+			BlockingQueue<ClientEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+			Thread thread = new Thread(() -> work(queue), "client-events-" + i);
+			thread.setDaemon(true);
+			queues.add(queue);
+			threads.add(thread);
+			thread.start();
+		}
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		for (Thread thread : threads) {
+			thread.interrupt();
+		}
+		for (Thread thread : threads) {
+			thread.join(TimeUnit.SECONDS.toMillis(5));
+		}
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onEvent(ClientEvent event) throws InterruptedException {
+		BlockingQueue<ClientEvent> queue = queues.get(Math.floorMod(event.getClientId().hashCode(), queues.size()));
+		if (!queue.offer(event)) {
+			blocked.increment();
+			queue.put(event);
+		}
+	}
+
+	public long getQueued() {
+		return queues.stream().mapToLong(BlockingQueue::size).sum();
+	}
+
+	public long getDispatched() {
+		return dispatched.sum();
+	}
+
+	public long getFailed() {
+		return failed.sum();
+	}
+
+	public long getBlocked() {
+		return blocked.sum();
+	}
+
+	public long getStale() {
+		return stale.sum();
+	}
+
+	private void work(BlockingQueue<ClientEvent> queue) {
+		List<ClientEvent> batch = new ArrayList<>(batchSize);
+		Map<Long, Long> lastSequences = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+				return size() > maxTrackedClients;
+			}
+		};
+		while (running || !queue.isEmpty()) {
+			try {
+				ClientEvent first = running ? queue.take() : queue.poll();
+				if (first == null) {
+					break;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				batch.removeIf(x -> isStale(x, lastSequences));
+				if (!batch.isEmpty()) {
+					dispatch(batch);
+				}
+			}
+			catch (InterruptedException e) {
+				if (!running) {
+					continue;
+				}
+				Thread.currentThread().interrupt();
+				return;
+			}
+			finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private boolean isStale(ClientEvent event, Map<Long, Long> lastSequences) {
+		Long last = lastSequences.get(event.getClientId());
+		if (last != null && last > event.getSequence()) {
+			stale.increment();
+			return true;
+		}
+		lastSequences.put(event.getClientId(), event.getSequence());
+		return false;
+	}
+
+	private void dispatch(List<ClientEvent> batch) {
+		for (ClientEventHandler handler : handlers) {
+			for (int attempt = 1;; attempt++) {
+				try {
+					handler.handle(batch);
+					break;
+				}
+				catch (RuntimeException e) {
+					if (attempt >= maxAttempts) {
+						failed.add(batch.size());
+						logger.error("Dropping {} client events for {} after {} attempts", batch.size(),
+								handler.getClass().getSimpleName(), attempt, e);
+						break;
+					}
+					if (!backOff(attempt)) {
+						return;
+					}
+				}
+			}
+		}
+		dispatched.add(batch.size());
+	}
+
+	private boolean backOff(int attempt) {
+		try {
+			Thread.sleep(retryBackoffMillis << (attempt - 1));
+			return true;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.iftm.client.services.events;
+
+import java.util.List;
+
+/**
+ * Receives committed client events in batches, on a dispatcher thread. Events
+ * for the same client arrive in change-sequence order, with events superseded
+ * by a later one already handled dropped; a handler that throws gets the whole
+ * batch again on retry, so handling should be idempotent.
+ */
+public interface ClientEventHandler {
+	
+	void handle(List<ClientEvent> events);
+
+}
@@ -0,0 +1,11 @@
+package com.iftm.client.services.events;
+
+import com.iftm.client.entities.Client;
+
+public class ClientUpdatedEvent extends ClientEvent {
+	
+	public ClientUpdatedEvent(Client client, long sequence) {
+		super(client.getId(), client, sequence);
+	}
+
+}
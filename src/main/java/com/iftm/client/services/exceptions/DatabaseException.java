@@ -1,6 +1,6 @@
 package com.iftm.client.services.exceptions;
 
-public class DatabaseException extends RuntimeException {
+public class DatabaseException extends ServiceException {
 	private static final long serialVersionUID = 1L;
 	
 	public DatabaseException(String msg) {
@@ -0,0 +1,10 @@
+package com.iftm.client.services.exceptions;
+
+public class IdempotencyKeyInProgressException extends ServiceException {
+	private static final long serialVersionUID = 1L;
+	
+	public IdempotencyKeyInProgressException(String msg) {
+		super(msg);
+	}
+
+}
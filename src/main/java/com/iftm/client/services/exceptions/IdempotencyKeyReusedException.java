@@ -0,0 +1,10 @@
+package com.iftm.client.services.exceptions;
+
+public class IdempotencyKeyReusedException extends ServiceException {
+	private static final long serialVersionUID = 1L;
+	
+	public IdempotencyKeyReusedException(String msg) {
+		super(msg);
+	}
+
+}
@@ -0,0 +1,10 @@
+package com.iftm.client.services.exceptions;
+
+public class InvalidDateException extends ServiceException {
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidDateException(String msg) {
+		super(msg);
+	}
+
+}
@@ -0,0 +1,10 @@
+package com.iftm.client.services.exceptions;
+
+public class InvalidFieldException extends ServiceException {
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidFieldException(String msg) {
+		super(msg);
+	}
+
+}
@@ -0,0 +1,10 @@
+package com.iftm.client.services.exceptions;
+
+public class InvalidQueryException extends ServiceException {
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidQueryException(String msg) {
+		super(msg);
+	}
+
+}
@@ -1,10 +1,20 @@
 package com.iftm.client.services.exceptions;
 
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends ServiceException {
 	private static final long serialVersionUID = 1L;
 	
+	private static final ResourceNotFoundException ENTITY_NOT_FOUND = new ResourceNotFoundException("Entity not found", true);
+	
 	public ResourceNotFoundException(String msg) {
 		super(msg);
 	}
+	
+	private ResourceNotFoundException(String msg, boolean shared) {
+		super(msg, shared);
+	}
+	
+	public static ResourceNotFoundException entityNotFound() {
+		return isStackTraces() ? new ResourceNotFoundException("Entity not found") : ENTITY_NOT_FOUND;
+	}
 
 }
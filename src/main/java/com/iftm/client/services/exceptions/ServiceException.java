@@ -0,0 +1,34 @@
+package com.iftm.client.services.exceptions;
+
+/**
+ * Base class for the service exceptions. Stack traces can be switched off
+ * globally (client.exceptions.stack-traces=false) because these exceptions are
+ * expected control flow and are always translated to an HTTP error response.
+ */
+public abstract class ServiceException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+	
+	private static volatile boolean stackTraces = true;
+	
+	public ServiceException(String msg) {
+		super(msg);
+	}
+	
+	protected ServiceException(String msg, boolean shared) {
+		super(msg, null, !shared, !shared);
+	}
+	
+	public static boolean isStackTraces() {
+		return stackTraces;
+	}
+	
+	public static void setStackTraces(boolean enabled) {
+		stackTraces = enabled;
+	}
+	
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return stackTraces ? super.fillInStackTrace() : this;
+	}
+
+}
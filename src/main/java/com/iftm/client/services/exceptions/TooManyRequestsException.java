@@ -0,0 +1,17 @@
+package com.iftm.client.services.exceptions;
+
+public class TooManyRequestsException extends ServiceException {
+	private static final long serialVersionUID = 1L;
+	
+	private final long retryAfterSeconds;
+	
+	public TooManyRequestsException(String msg, long retryAfterSeconds) {
+		super(msg);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+
+}
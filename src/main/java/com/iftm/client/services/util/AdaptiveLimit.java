@@ -0,0 +1,98 @@
+package com.iftm.client.services.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency with AIMD: while requests
+ * complete within {@code tolerance} times the baseline latency and the limit
+ * is actually used, it grows by about one per round trip; a slow or failed
+ * request cuts it by {@code backoffRatio}, at most once per round trip. The
+ * baseline is the lowest latency seen in the current window of samples, so it
+ * follows lasting shifts.
+ * Non-priority requests only get {@code share} of the limit, which leaves the
+ * rest for priority ones.
+ */
+public class AdaptiveLimit {
+	
+	private static final int BASELINE_WINDOW = 1000;
+	private static final long MIN_SLACK_NANOS = 5_000_000L;
+	
+	private final int minLimit;
+	private final int maxLimit;
+	private final double share;
+	private final double tolerance;
+	private final double backoffRatio;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	
+	private volatile double limit;
+	private long baselineNanos = Long.MAX_VALUE;
+	private long windowMinNanos = Long.MAX_VALUE;
+	private int windowSamples;
+	private long lastDecreaseNanos;
+	private boolean decreased;
+	
+	public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double share, double tolerance,
+			double backoffRatio) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.share = share;
+		this.tolerance = tolerance;
+		this.backoffRatio = backoffRatio;
+		this.limit = Math.min(maxLimit, Math.max(minLimit, initialLimit));
+	}
+	
+	public boolean tryAcquire(boolean priority) {
+		int allowed = priority ? (int) limit : Math.max(1, (int) (limit * share));
+		while (true) {
+			int current = inFlight.get();
+			if (current >= allowed) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Releases a permit taken by {@link #tryAcquire(boolean)}. A negative
+	 * latency releases it without adjusting the limit.
+	 */
+	public void release(long latencyNanos, boolean failed) {
+		int current = inFlight.getAndDecrement();
+		if (latencyNanos >= 0) {
+			update(latencyNanos, failed, current);
+		}
+	}
+	
+	private synchronized void update(long latencyNanos, boolean failed, int inFlightBefore) {
+		windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+		baselineNanos = Math.min(baselineNanos, latencyNanos);
+		if (++windowSamples >= BASELINE_WINDOW) {
+			baselineNanos = windowMinNanos;
+			windowMinNanos = Long.MAX_VALUE;
+			windowSamples = 0;
+		}
+		long threshold = Math.max((long) (baselineNanos * tolerance), baselineNanos + MIN_SLACK_NANOS);
+		if (failed || latencyNanos > threshold) {
+			long now = System.nanoTime();
+			if (!decreased || now - lastDecreaseNanos > latencyNanos) {
+				limit = Math.max(minLimit, limit * backoffRatio);
+				lastDecreaseNanos = now;
+				decreased = true;
+			}
+		}
+		else if (inFlightBefore * 2 >= limit) {
+			limit = Math.min(maxLimit, limit + 1.0 / limit);
+		}
+	}
+	
+	public int getLimit() {
+		return (int) limit;
+	}
+	
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+}
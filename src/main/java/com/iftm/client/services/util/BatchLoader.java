@@ -0,0 +1,135 @@
+package com.iftm.client.services.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects single-key loads issued within a short window (or until a maximum
+ * batch size is reached) and resolves them with one bulk call. Bulk calls
+ * always run on {@code executor}, never on the caller's or the timer's
+ * thread, so the caller's transaction and persistence context are never
+ * shared with other waiters; values should therefore be detached. If the
+ * executor rejects a batch, its loads fail with the
+ * {@link RejectedExecutionException}.
+ */
+public class BatchLoader<K, V> {
+
+	private final Function<Collection<K>, Map<K, V>> bulkLoader;
+	private final long windowMicros;
+	private final int maxBatchSize;
+	private final Executor executor;
+	private final ScheduledExecutorService scheduler;
+
+	private List<Pending<K, V>> pending = new ArrayList<>();
+
+	public BatchLoader(Function<Collection<K>, Map<K, V>> bulkLoader, long windowMicros, int maxBatchSize,
+			Executor executor) {
+		this.bulkLoader = bulkLoader;
+		this.windowMicros = windowMicros;
+		this.maxBatchSize = maxBatchSize;
+		this.executor = executor;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "batch-loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public V load(K key) {
+		CompletableFuture<V> future = new CompletableFuture<>();
+		List<Pending<K, V>> full = null;
+		boolean first;
+		synchronized (this) {
+			first = pending.isEmpty();
+			pending.add(new Pending<>(key, future));
+			if (pending.size() >= maxBatchSize) {
+				full = drain();
+			}
+		}
+		if (full != null) {
+			dispatch(full);
+		} else if (first) {
+			scheduler.schedule(this::flush, windowMicros, TimeUnit.MICROSECONDS);
+		}
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	public void shutdown() {
+		scheduler.shutdownNow();
+		flush();
+	}
+
+	private void flush() {
+		List<Pending<K, V>> batch;
+		synchronized (this) {
+			batch = drain();
+		}
+		dispatch(batch);
+	}
+
+	private List<Pending<K, V>> drain() {
+		List<Pending<K, V>> batch = pending;
+		pending = new ArrayList<>();
+		return batch;
+	}
+
+	private void dispatch(List<Pending<K, V>> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		try {
+			executor.execute(() -> run(batch));
+		} catch (RejectedExecutionException e) {
+			for (Pending<K, V> p : batch) {
+				p.future.completeExceptionally(e);
+			}
+		}
+	}
+
+	private void run(List<Pending<K, V>> batch) {
+		Set<K> keys = new LinkedHashSet<>();
+		for (Pending<K, V> p : batch) {
+			keys.add(p.key);
+		}
+		try {
+			Map<K, V> result = bulkLoader.apply(keys);
+			for (Pending<K, V> p : batch) {
+				p.future.complete(result.get(p.key));
+			}
+		} catch (RuntimeException e) {
+			for (Pending<K, V> p : batch) {
+				p.future.completeExceptionally(e);
+			}
+		}
+	}
+
+	private static final class Pending<K, V> {
+		private final K key;
+		private final CompletableFuture<V> future;
+
+		private Pending(K key, CompletableFuture<V> future) {
+			this.key = key;
+			this.future = future;
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.iftm.client.services.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Equi-depth histogram built from per-value counts. Each bucket holds roughly
+ * total / maxBuckets rows, so range estimates stay accurate where the data is
+ * dense; inside a bucket values are assumed to be spread uniformly.
+ */
+public final class Histogram {
+
+	private final double[] lower;
+	private final double[] upper;
+	private final long[] counts;
+	private final long total;
+
+	private Histogram(double[] lower, double[] upper, long[] counts, long total) {
+		this.lower = lower;
+		this.upper = upper;
+		this.counts = counts;
+		this.total = total;
+	}
+
+	public static Histogram of(SortedMap<Double, Long> valueCounts, int maxBuckets) {
+		long total = valueCounts.values().stream().mapToLong(Long::longValue).sum();
+		int size = Math.max(1, Math.min(maxBuckets, valueCounts.size()));
+		double[] lower = new double[size];
+		double[] upper = new double[size];
+		long[] counts = new long[size];
+		double depth = (double) total / size;
+		int bucket = -1;
+		long seen = 0;
+		for (Map.Entry<Double, Long> entry : valueCounts.entrySet()) {
+			if (bucket < 0 || (seen >= depth * (bucket + 1) && bucket < size - 1)) {
+				bucket++;
+				lower[bucket] = entry.getKey();
+			}
+			upper[bucket] = entry.getKey();
+			counts[bucket] += entry.getValue();
+			seen += entry.getValue();
+		}
+		int used = bucket + 1;
+		return new Histogram(Arrays.copyOf(lower, used), Arrays.copyOf(upper, used), Arrays.copyOf(counts, used), total);
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public long estimateAtLeast(double value) {
+		double estimate = 0;
+		for (int i = counts.length - 1; i >= 0 && upper[i] >= value; i--) {
+			if (lower[i] >= value || upper[i] == lower[i]) {
+				estimate += counts[i];
+			}
+			else {
+				estimate += counts[i] * (upper[i] - value) / (upper[i] - lower[i]);
+			}
+		}
+		return Math.round(estimate);
+	}
+
+}
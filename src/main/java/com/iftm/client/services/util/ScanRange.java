@@ -0,0 +1,75 @@
+package com.iftm.client.services.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.iftm.client.services.exceptions.InvalidQueryException;
+
+/**
+ * Inclusive range of client ids that can be scanned independently of the
+ * others. Its token, "first-last", is what batch consumers pass back to stream
+ * the range.
+ */
+public final class ScanRange {
+	
+	private static final Pattern TOKEN = Pattern.compile("(\\d+)-(\\d+)");
+	
+	private final long first;
+	private final long last;
+	
+	public ScanRange(long first, long last) {
+		this.first = first;
+		this.last = last;
+	}
+	
+	/**
+	 * Splits [min, max] into at most {@code segments} ranges of equal width.
+	 * The last range is open-ended so clients inserted after the split are
+	 * still scanned.
+	 */
+	public static List<ScanRange> split(long min, long max, int segments) {
+		List<ScanRange> ranges = new ArrayList<>();
+		long width = Math.max(1, (max - min) / segments + 1);
+		for (long first = min; ranges.size() < segments && first <= max; first += width) {
+			ranges.add(new ScanRange(first, first + width - 1));
+		}
+		ranges.set(ranges.size() - 1, new ScanRange(ranges.get(ranges.size() - 1).first, Long.MAX_VALUE));
+		return ranges;
+	}
+	
+	public static ScanRange parse(String token) {
+		Matcher matcher = TOKEN.matcher(token);
+		if (!matcher.matches()) {
+			throw new InvalidQueryException("Invalid scan token " + token);
+		}
+		try {
+			ScanRange range = new ScanRange(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)));
+			if (range.first > range.last) {
+				throw new InvalidQueryException("Invalid scan token " + token);
+			}
+			return range;
+		} catch (NumberFormatException e) {
+			throw new InvalidQueryException("Invalid scan token " + token);
+		}
+	}
+
+	public long getFirst() {
+		return first;
+	}
+
+	public long getLast() {
+		return last;
+	}
+	
+	public String getToken() {
+		return first + "-" + last;
+	}
+	
+	@Override
+	public String toString() {
+		return getToken();
+	}
+
+}
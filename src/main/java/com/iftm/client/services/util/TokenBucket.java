@@ -0,0 +1,53 @@
+package com.iftm.client.services.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm: the
+ * whole bucket state is the theoretical arrival time of the next token, updated
+ * with a single compare-and-set.
+ */
+public class TokenBucket {
+	
+	private final long intervalNanos;
+	private final long toleranceNanos;
+	private final AtomicLong theoreticalArrival;
+	
+	public TokenBucket(double perSecond, int burst) {
+		this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / perSecond));
+		this.toleranceNanos = intervalNanos * Math.max(1, burst);
+		this.theoreticalArrival = new AtomicLong(System.nanoTime());
+	}
+	
+	public long tryAcquire() {
+		long now = System.nanoTime();
+		while (true) {
+			long arrival = theoreticalArrival.get();
+			long next = (arrival - now > 0 ? arrival : now) + intervalNanos;
+			long waitNanos = next - now - toleranceNanos;
+			if (waitNanos > 0) {
+				return waitNanos;
+			}
+			if (theoreticalArrival.compareAndSet(arrival, next)) {
+				return 0L;
+			}
+		}
+	}
+	
+	/**
+	 * Gives back a token taken by {@link #tryAcquire()}, for when a later check
+	 * rejected the request anyway.
+	 */
+	public void refund() {
+		theoreticalArrival.addAndGet(-intervalNanos);
+	}
+	
+	/**
+	 * A full bucket behaves exactly like a new one, so it can be dropped
+	 * without giving its owner any extra tokens.
+	 */
+	public boolean isFull() {
+		return theoreticalArrival.get() - System.nanoTime() <= 0;
+	}
+
+}
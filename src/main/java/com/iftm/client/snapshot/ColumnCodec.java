@@ -0,0 +1,185 @@
+package com.iftm.client.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.iftm.client.dto.ClientField;
+
+/**
+ * Encodes one column of a row group. A column starts with its encoding and a
+ * presence bitmap, followed by the values of the non-null rows: integral
+ * columns (ids, children, birth dates as epoch milliseconds) as zigzag varint
+ * deltas, strings and doubles either plain or, when at most a quarter of the
+ * values are distinct, as a dictionary plus varint indexes.
+ */
+final class ColumnCodec {
+	
+	static final int PLAIN = 0;
+	static final int DELTA = 1;
+	static final int DICTIONARY = 2;
+	
+	private ColumnCodec() {
+	}
+	
+	static void encode(ClientField field, Object[] values, int rows, ByteArrayOutputStream out) {
+		byte[] presence = new byte[(rows + 7) / 8];
+		List<Object> present = new ArrayList<>(rows);
+		Map<Object, Integer> dictionary = new HashMap<>();
+		for (int i = 0; i < rows; i++) {
+			if (values[i] != null) {
+				presence[i >>> 3] |= 1 << (i & 7);
+				Object value = toColumn(values[i]);
+				present.add(value);
+				dictionary.putIfAbsent(value, dictionary.size());
+			}
+		}
+		boolean integral = isIntegral(field);
+		int encoding = integral ? DELTA : dictionary.size() * 4 <= present.size() ? DICTIONARY : PLAIN;
+		out.write(encoding);
+		out.write(presence, 0, presence.length);
+		if (encoding == DELTA) {
+			long previous = 0;
+			for (Object value : present) {
+				writeVarint(out, zigzag((Long) value - previous));
+				previous = (Long) value;
+			}
+		}
+		else if (encoding == DICTIONARY) {
+			Object[] entries = new Object[dictionary.size()];
+			dictionary.forEach((value, index) -> entries[index] = value);
+			writeVarint(out, entries.length);
+			for (Object entry : entries) {
+				writePlain(out, entry);
+			}
+			for (Object value : present) {
+				writeVarint(out, dictionary.get(value));
+			}
+		}
+		else {
+			for (Object value : present) {
+				writePlain(out, value);
+			}
+		}
+	}
+	
+	static Object[] decode(ClientField field, ByteBuffer in, int rows) throws IOException {
+		int encoding = in.get();
+		byte[] presence = new byte[(rows + 7) / 8];
+		in.get(presence);
+		boolean string = field == ClientField.NAME || field == ClientField.CPF;
+		Object[] entries = null;
+		if (encoding == DICTIONARY) {
+			entries = new Object[(int) readVarint(in)];
+			for (int i = 0; i < entries.length; i++) {
+				entries[i] = readPlain(in, string);
+			}
+		}
+		else if (encoding != PLAIN && encoding != DELTA) {
+			throw new IOException("Unknown encoding " + encoding + " for column " + field.getProperty());
+		}
+		Object[] values = new Object[rows];
+		long previous = 0;
+		for (int i = 0; i < rows; i++) {
+			if ((presence[i >>> 3] & (1 << (i & 7))) == 0) {
+				continue;
+			}
+			Object value;
+			if (encoding == DELTA) {
+				previous += unzigzag(readVarint(in));
+				value = previous;
+			}
+			else if (encoding == DICTIONARY) {
+				value = entries[(int) readVarint(in)];
+			}
+			else {
+				value = readPlain(in, string);
+			}
+			values[i] = fromColumn(field, value);
+		}
+		return values;
+	}
+	
+	static void writeVarint(ByteArrayOutputStream out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+	
+	static long readVarint(ByteBuffer in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = in.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+	
+	private static boolean isIntegral(ClientField field) {
+		return field == ClientField.ID || field == ClientField.CHILDREN || field == ClientField.BIRTH_DATE;
+	}
+	
+	private static Object toColumn(Object value) {
+		if (value instanceof Instant) {
+			return ((Instant) value).toEpochMilli();
+		}
+		if (value instanceof Integer) {
+			return ((Integer) value).longValue();
+		}
+		return value;
+	}
+	
+	private static Object fromColumn(ClientField field, Object value) {
+		switch (field) {
+		case BIRTH_DATE:
+			return Instant.ofEpochMilli((Long) value);
+		case CHILDREN:
+			return ((Long) value).intValue();
+		default:
+			return value;
+		}
+	}
+	
+	private static void writePlain(ByteArrayOutputStream out, Object value) {
+		if (value instanceof String) {
+			byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+			writeVarint(out, bytes.length);
+			out.write(bytes, 0, bytes.length);
+		}
+		else {
+			long bits = Double.doubleToLongBits((Double) value);
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				out.write((int) (bits >>> shift));
+			}
+		}
+	}
+	
+	private static Object readPlain(ByteBuffer in, boolean string) throws IOException {
+		if (!string) {
+			return Double.longBitsToDouble(in.getLong());
+		}
+		byte[] bytes = new byte[(int) readVarint(in)];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+	
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+}
@@ -0,0 +1,151 @@
+package com.iftm.client.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientField;
+
+/**
+ * Reads files written by {@link ColumnarClientWriter}, one row group at a time.
+ */
+public class ColumnarClientReader implements Closeable {
+	
+	private static final int TRAILER = Integer.BYTES + ColumnarClientWriter.MAGIC.length;
+	
+	private final FileChannel channel;
+	private final List<ClientField> columns = new ArrayList<>();
+	private final long[] groupOffsets;
+	private final int[] groupRows;
+	private final long rowCount;
+	
+	public ColumnarClientReader(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (size < ColumnarClientWriter.MAGIC.length + TRAILER || !hasMagic(read(0, ColumnarClientWriter.MAGIC.length))
+					|| !hasMagic(read(size - ColumnarClientWriter.MAGIC.length, ColumnarClientWriter.MAGIC.length))) {
+				throw new IOException("Not a client snapshot: " + file);
+			}
+			int footerLength = read(size - TRAILER, Integer.BYTES).getInt();
+			long footerOffset = size - TRAILER - footerLength;
+			if (footerLength <= 0 || footerOffset < ColumnarClientWriter.MAGIC.length) {
+				throw new IOException("Corrupt snapshot footer: " + file);
+			}
+			DataInputStream footer = new DataInputStream(new ByteArrayInputStream(read(footerOffset, footerLength).array()));
+			int version = footer.readByte();
+			if (version != ColumnarClientWriter.VERSION) {
+				throw new IOException("Unsupported snapshot version " + version);
+			}
+			int columnCount = footer.readInt();
+			for (int i = 0; i < columnCount; i++) {
+				String name = footer.readUTF();
+				ClientField column = ClientField.fromProperty(name);
+				if (column == null) {
+					throw new IOException("Unknown column " + name);
+				}
+				columns.add(column);
+			}
+			int groups = footer.readInt();
+			groupOffsets = new long[groups + 1];
+			groupRows = new int[groups];
+			for (int i = 0; i < groups; i++) {
+				groupOffsets[i] = footer.readLong();
+				groupRows[i] = footer.readInt();
+			}
+			groupOffsets[groups] = footerOffset;
+			rowCount = footer.readLong();
+		}
+		catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	public int getGroupCount() {
+		return groupRows.length;
+	}
+	
+	public long getRowCount() {
+		return rowCount;
+	}
+	
+	public List<ClientDTO> readGroup(int group) throws IOException {
+		int rows = groupRows[group];
+		ByteBuffer in = read(groupOffsets[group], (int) (groupOffsets[group + 1] - groupOffsets[group]));
+		List<ClientDTO> clients = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			clients.add(new ClientDTO());
+		}
+		Inflater inflater = new Inflater();
+		try {
+			for (ClientField column : columns) {
+				byte[] raw = new byte[(int) ColumnCodec.readVarint(in)];
+				byte[] compressed = new byte[(int) ColumnCodec.readVarint(in)];
+				in.get(compressed);
+				inflater.reset();
+				inflater.setInput(compressed);
+				int n = 0;
+				while (n < raw.length && !inflater.finished() && !inflater.needsInput()) {
+					n += inflater.inflate(raw, n, raw.length - n);
+				}
+				if (n != raw.length) {
+					throw new IOException("Truncated column " + column.getProperty() + " in group " + group);
+				}
+				Object[] values = ColumnCodec.decode(column, ByteBuffer.wrap(raw), rows);
+				for (int i = 0; i < rows; i++) {
+					clients.get(i).set(column, values[i]);
+				}
+			}
+		}
+		catch (DataFormatException e) {
+			throw new IOException("Corrupt group " + group, e);
+		}
+		finally {
+			inflater.end();
+		}
+		return clients;
+	}
+	
+	public List<ClientDTO> readAll() throws IOException {
+		List<ClientDTO> clients = new ArrayList<>();
+		for (int i = 0; i < getGroupCount(); i++) {
+			clients.addAll(readGroup(i));
+		}
+		return clients;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+	private ByteBuffer read(long offset, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, offset + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of snapshot");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+	
+	private static boolean hasMagic(ByteBuffer buffer) {
+		byte[] magic = new byte[ColumnarClientWriter.MAGIC.length];
+		buffer.get(magic);
+		return Arrays.equals(magic, ColumnarClientWriter.MAGIC);
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.iftm.client.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientField;
+
+/**
+ * Writes clients to a compressed columnar file. Rows are buffered into row
+ * groups; each column of a group is encoded by {@link ColumnCodec} and deflated
+ * on its own. The file is laid out as
+ * {@code MAGIC group* footer [footerLength:int] MAGIC}, where the footer holds
+ * the column names and the offset and row count of every group, so readers can
+ * fetch any group directly.
+ */
+public class ColumnarClientWriter implements Closeable {
+	
+	static final byte[] MAGIC = { 'C', 'L', 'I', 'C', 'O', 'L', '0', '1' };
+	static final int VERSION = 1;
+	
+	private static final ClientField[] COLUMNS = ClientField.values();
+	
+	private final OutputStream out;
+	private final int rowGroupSize;
+	private final Object[][] columns;
+	private final ByteArrayOutputStream group = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+	private final byte[] chunk = new byte[8192];
+	private final List<long[]> groups = new ArrayList<>();
+	
+	private int rows;
+	private long position;
+	private long rowCount;
+	private boolean closed;
+	
+	public ColumnarClientWriter(OutputStream out, int rowGroupSize) throws IOException {
+		if (rowGroupSize <= 0) {
+			throw new IllegalArgumentException("Row group size must be positive");
+		}
+		this.out = out;
+		this.rowGroupSize = rowGroupSize;
+		this.columns = new Object[COLUMNS.length][rowGroupSize];
+		out.write(MAGIC);
+		position = MAGIC.length;
+	}
+	
+	public void write(ClientDTO client) throws IOException {
+		for (ClientField column : COLUMNS) {
+			columns[column.ordinal()][rows] = client.get(column);
+		}
+		rowCount++;
+		if (++rows == rowGroupSize) {
+			flushGroup();
+		}
+	}
+	
+	public long getRowCount() {
+		return rowCount;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			flushGroup();
+			ByteArrayOutputStream footer = new ByteArrayOutputStream();
+			DataOutputStream data = new DataOutputStream(footer);
+			data.writeByte(VERSION);
+			data.writeInt(COLUMNS.length);
+			for (ClientField column : COLUMNS) {
+				data.writeUTF(column.getProperty());
+			}
+			data.writeInt(groups.size());
+			for (long[] entry : groups) {
+				data.writeLong(entry[0]);
+				data.writeInt((int) entry[1]);
+			}
+			data.writeLong(rowCount);
+			data.flush();
+			footer.writeTo(out);
+			new DataOutputStream(out).writeInt(footer.size());
+			out.write(MAGIC);
+			out.flush();
+		}
+		finally {
+			deflater.end();
+			out.close();
+		}
+	}
+	
+	private void flushGroup() throws IOException {
+		if (rows == 0) {
+			return;
+		}
+		group.reset();
+		for (ClientField column : COLUMNS) {
+			raw.reset();
+			ColumnCodec.encode(column, columns[column.ordinal()], rows, raw);
+			byte[] compressed = deflate(raw.toByteArray());
+			ColumnCodec.writeVarint(group, raw.size());
+			ColumnCodec.writeVarint(group, compressed.length);
+			group.write(compressed, 0, compressed.length);
+			Arrays.fill(columns[column.ordinal()], 0, rows, null);
+		}
+		groups.add(new long[] { position, rows });
+		group.writeTo(out);
+		position += group.size();
+		rows = 0;
+	}
+	
+	private byte[] deflate(byte[] input) {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(input.length / 2 + 16);
+		deflater.reset();
+		deflater.setInput(input);
+		deflater.finish();
+		while (!deflater.finished()) {
+			int n = deflater.deflate(chunk);
+			compressed.write(chunk, 0, n);
+		}
+		return compressed.toByteArray();
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.iftm.client.tracing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Appends each finished trace to a file as one JSON line per span, shaped like
+ * the OTLP/JSON span encoding so the file can be replayed into a collector.
+ */
+public class FileSpanExporter implements SpanExporter {
+	
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final BufferedWriter writer;
+	
+	public FileSpanExporter(Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+	}
+	
+	@Override
+	public synchronized void export(List<Span> spans) {
+		try {
+			for (Span span : spans) {
+				writer.write(mapper.writeValueAsString(toOtlp(span)));
+				writer.newLine();
+			}
+			writer.flush();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	@Override
+	public synchronized void shutdown() {
+		try {
+			writer.close();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	static Map<String, Object> toOtlp(Span span) {
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("traceId", span.getTraceId());
+		json.put("spanId", span.getSpanId());
+		if (span.getParentSpanId() != null) {
+			json.put("parentSpanId", span.getParentSpanId());
+		}
+		json.put("name", span.getName());
+		json.put("kind", "SPAN_KIND_" + span.getKind());
+		json.put("startTimeUnixNano", String.valueOf(span.getStartTimeUnixNano()));
+		json.put("endTimeUnixNano", String.valueOf(span.getEndTimeUnixNano()));
+		List<Map<String, Object>> attributes = new ArrayList<>();
+		for (Map.Entry<String, Object> entry : span.getAttributes().entrySet()) {
+			Map<String, Object> attribute = new LinkedHashMap<>();
+			attribute.put("key", entry.getKey());
+			attribute.put("value", value(entry.getValue()));
+			attributes.add(attribute);
+		}
+		json.put("attributes", attributes);
+		Map<String, Object> status = new LinkedHashMap<>();
+		status.put("code", span.getError() == null ? "STATUS_CODE_OK" : "STATUS_CODE_ERROR");
+		if (span.getError() != null) {
+			status.put("message", span.getError());
+		}
+		json.put("status", status);
+		return json;
+	}
+	
+	private static Map<String, Object> value(Object value) {
+		Map<String, Object> json = new LinkedHashMap<>();
+		if (value instanceof Long || value instanceof Integer) {
+			json.put("intValue", String.valueOf(value));
+		}
+		else if (value instanceof Number) {
+			json.put("doubleValue", value);
+		}
+		else if (value instanceof Boolean) {
+			json.put("boolValue", value);
+		}
+		else {
+			json.put("stringValue", String.valueOf(value));
+		}
+		return json;
+	}
+
+}
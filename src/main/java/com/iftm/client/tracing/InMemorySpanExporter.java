@@ -0,0 +1,35 @@
+package com.iftm.client.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+public class InMemorySpanExporter implements SpanExporter {
+	
+	private final int maxSpans;
+	private final Deque<Span> spans = new ArrayDeque<>();
+	
+	public InMemorySpanExporter(int maxSpans) {
+		this.maxSpans = maxSpans;
+	}
+	
+	@Override
+	public synchronized void export(List<Span> batch) {
+		for (Span span : batch) {
+			if (spans.size() == maxSpans) {
+				spans.removeFirst();
+			}
+			spans.addLast(span);
+		}
+	}
+	
+	public synchronized List<Span> getFinishedSpans() {
+		return new ArrayList<>(spans);
+	}
+	
+	public synchronized void reset() {
+		spans.clear();
+	}
+
+}
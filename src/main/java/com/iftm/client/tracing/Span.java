@@ -0,0 +1,149 @@
+package com.iftm.client.tracing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A timed operation inside a trace, using the OpenTelemetry data model (ids as
+ * lowercase hex, timestamps in Unix epoch nanoseconds). Children are collected
+ * on the root span and handed to the exporter as one batch when the root ends.
+ */
+public class Span {
+	
+	public static final Span NOOP = new Span();
+	
+	public enum Kind {
+		SERVER, INTERNAL, CLIENT
+	}
+	
+	private final String traceId;
+	private final String spanId;
+	private final String parentSpanId;
+	private final String name;
+	private final Kind kind;
+	private final long startTimeUnixNano;
+	private final long startNanoTime;
+	private final Span root;
+	private final Span parent;
+	private final SpanExporter exporter;
+	private final Map<String, Object> attributes = new LinkedHashMap<>();
+	private final List<Span> finished;
+	private long endTimeUnixNano;
+	private String error;
+	
+	private Span() {
+		this.traceId = null;
+		this.spanId = null;
+		this.parentSpanId = null;
+		this.name = null;
+		this.kind = null;
+		this.startTimeUnixNano = 0;
+		this.startNanoTime = 0;
+		this.root = null;
+		this.parent = null;
+		this.exporter = null;
+		this.finished = null;
+	}
+	
+	Span(String traceId, String parentSpanId, String name, Kind kind, SpanExporter exporter) {
+		this.traceId = traceId;
+		this.spanId = TraceIds.spanId();
+		this.parentSpanId = parentSpanId;
+		this.name = name;
+		this.kind = kind;
+		this.startNanoTime = System.nanoTime();
+		this.startTimeUnixNano = System.currentTimeMillis() * 1_000_000L;
+		this.root = this;
+		this.parent = null;
+		this.exporter = exporter;
+		this.finished = new ArrayList<>();
+	}
+	
+	private Span(Span parent, String name, Kind kind) {
+		this.traceId = parent.traceId;
+		this.spanId = TraceIds.spanId();
+		this.parentSpanId = parent.spanId;
+		this.name = name;
+		this.kind = kind;
+		this.startNanoTime = System.nanoTime();
+		this.startTimeUnixNano = parent.root.startTimeUnixNano + (startNanoTime - parent.root.startNanoTime);
+		this.root = parent.root;
+		this.parent = parent;
+		this.exporter = parent.exporter;
+		this.finished = null;
+	}
+	
+	Span child(String name, Kind kind) {
+		return new Span(this, name, kind);
+	}
+	
+	public Span setAttribute(String key, Object value) {
+		if (this != NOOP && value != null) {
+			attributes.put(key, value);
+		}
+		return this;
+	}
+	
+	public void setError(Throwable e) {
+		if (this != NOOP) {
+			error = e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+		}
+	}
+	
+	public void end() {
+		if (this == NOOP || endTimeUnixNano != 0) {
+			return;
+		}
+		endTimeUnixNano = root.startTimeUnixNano + (System.nanoTime() - root.startNanoTime);
+		TraceContext.ended(this, parent);
+		synchronized (root.finished) {
+			root.finished.add(this);
+		}
+		if (root == this) {
+			exporter.export(finished);
+		}
+	}
+	
+	public boolean isRecording() {
+		return this != NOOP;
+	}
+	
+	public String getTraceId() {
+		return traceId;
+	}
+	
+	public String getSpanId() {
+		return spanId;
+	}
+	
+	public String getParentSpanId() {
+		return parentSpanId;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public Kind getKind() {
+		return kind;
+	}
+	
+	public long getStartTimeUnixNano() {
+		return startTimeUnixNano;
+	}
+	
+	public long getEndTimeUnixNano() {
+		return endTimeUnixNano;
+	}
+	
+	public Map<String, Object> getAttributes() {
+		return attributes;
+	}
+	
+	public String getError() {
+		return error;
+	}
+
+}
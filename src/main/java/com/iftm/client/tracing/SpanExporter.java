@@ -0,0 +1,12 @@
+package com.iftm.client.tracing;
+
+import java.util.List;
+
+public interface SpanExporter {
+	
+	void export(List<Span> spans);
+	
+	default void shutdown() {
+	}
+
+}
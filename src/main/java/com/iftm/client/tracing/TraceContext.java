@@ -0,0 +1,53 @@
+package com.iftm.client.tracing;
+
+/**
+ * Holds the span currently active on this thread. Code below the web layer
+ * opens child spans through {@link #startSpan}, which costs a single
+ * thread-local read when the request is not being traced.
+ */
+public final class TraceContext {
+	
+	private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+	
+	private TraceContext() {
+	}
+	
+	public static Span current() {
+		Span span = CURRENT.get();
+		return span != null ? span : Span.NOOP;
+	}
+	
+	public static Span startSpan(String name) {
+		return startSpan(name, Span.Kind.INTERNAL);
+	}
+	
+	public static Span startSpan(String name, Span.Kind kind) {
+		Span parent = CURRENT.get();
+		if (parent == null) {
+			return Span.NOOP;
+		}
+		Span span = parent.child(name, kind);
+		CURRENT.set(span);
+		return span;
+	}
+	
+	public static void clear() {
+		CURRENT.remove();
+	}
+	
+	static void started(Span root) {
+		CURRENT.set(root);
+	}
+	
+	static void ended(Span span, Span parent) {
+		if (CURRENT.get() == span) {
+			if (parent != null) {
+				CURRENT.set(parent);
+			}
+			else {
+				CURRENT.remove();
+			}
+		}
+	}
+
+}
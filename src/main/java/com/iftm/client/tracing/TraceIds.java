@@ -0,0 +1,39 @@
+package com.iftm.client.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+final class TraceIds {
+	
+	private TraceIds() {
+	}
+	
+	static String traceId() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return hex(random.nextLong()) + hex(random.nextLong());
+	}
+	
+	static String spanId() {
+		return hex(ThreadLocalRandom.current().nextLong());
+	}
+	
+	static boolean isValid(String id, int length) {
+		if (id == null || id.length() != length) {
+			return false;
+		}
+		boolean nonZero = false;
+		for (int i = 0; i < length; i++) {
+			char c = id.charAt(i);
+			if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+				return false;
+			}
+			nonZero |= c != '0';
+		}
+		return nonZero;
+	}
+	
+	private static String hex(long value) {
+		String hex = Long.toHexString(value);
+		return "0000000000000000".substring(hex.length()) + hex;
+	}
+
+}
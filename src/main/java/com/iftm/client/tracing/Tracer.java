@@ -0,0 +1,65 @@
+package com.iftm.client.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts root spans for incoming requests. The sampling decision is made once
+ * per trace. A W3C traceparent header always links the span to the caller's
+ * trace, but its sampled flag is only honoured when inbound sampling is
+ * trusted; otherwise the configured rate applies, so callers cannot force
+ * every request to be recorded.
+ */
+public class Tracer {
+	
+	private final boolean enabled;
+	private final double sampleRate;
+	private final boolean trustInboundSampling;
+	private final SpanExporter exporter;
+	
+	public Tracer(boolean enabled, double sampleRate, boolean trustInboundSampling, SpanExporter exporter) {
+		this.enabled = enabled;
+		this.sampleRate = sampleRate;
+		this.trustInboundSampling = trustInboundSampling;
+		this.exporter = exporter;
+	}
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	public SpanExporter getExporter() {
+		return exporter;
+	}
+	
+	public Span startTrace(String name, String requestId, String traceparent) {
+		if (!enabled) {
+			return Span.NOOP;
+		}
+		String traceId = null;
+		String parentSpanId = null;
+		Boolean inboundSampled = null;
+		String[] parts = traceparent != null ? traceparent.split("-") : new String[0];
+		if (parts.length == 4 && TraceIds.isValid(parts[1], 32) && TraceIds.isValid(parts[2], 16)) {
+			traceId = parts[1];
+			parentSpanId = parts[2];
+			inboundSampled = parts[3].endsWith("1");
+		}
+		boolean sampled = trustInboundSampling && inboundSampled != null ? inboundSampled
+				: sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+		if (!sampled) {
+			return Span.NOOP;
+		}
+		if (traceId == null) {
+			traceId = TraceIds.isValid(requestId, 32) ? requestId : TraceIds.traceId();
+		}
+		Span root = new Span(traceId, parentSpanId, name, Span.Kind.SERVER, exporter);
+		root.setAttribute("request.id", requestId);
+		TraceContext.started(root);
+		return root;
+	}
+	
+	public void shutdown() {
+		exporter.shutdown();
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.iftm.client.tracing;
+
+import java.lang.reflect.Proxy;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ClassUtils;
+
+public class TracingMethodInterceptor implements MethodInterceptor {
+	
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		if (!TraceContext.current().isRecording()) {
+			return invocation.proceed();
+		}
+		Span span = TraceContext.startSpan(typeName(invocation.getThis()) + "." + invocation.getMethod().getName());
+		try {
+			return invocation.proceed();
+		}
+		catch (Throwable e) {
+			span.setError(e);
+			throw e;
+		}
+		finally {
+			span.end();
+		}
+	}
+	
+	private static String typeName(Object target) {
+		Class<?> type = ClassUtils.getUserClass(target);
+		if (Proxy.isProxyClass(type) && type.getInterfaces().length > 0) {
+			type = type.getInterfaces()[0];
+		}
+		return type.getSimpleName();
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.iftm.client.warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts which clients are successfully read by id and, on shutdown, writes
+ * the most read ones to a file so the next start can warm them up first. Once
+ * {@code maxTracked} ids are being counted, the colder half is evicted to make
+ * room, so ids that become hot later still get counted.
+ */
+@Component
+public class HotClientTracker {
+	
+	private static final Logger logger = LoggerFactory.getLogger(HotClientTracker.class);
+	
+	private final Map<Long, LongAdder> reads = new ConcurrentHashMap<>();
+	
+	@Value("${client.warmup.hot-ids-file:}")
+	private String file;
+	
+	@Value("${client.warmup.max-hot-ids:1000}")
+	private int maxHotIds;
+	
+	@Value("${client.warmup.max-tracked:10000}")
+	private int maxTracked;
+	
+	public void record(Long id) {
+		LongAdder counter = reads.get(id);
+		if (counter == null) {
+			if (reads.size() >= maxTracked) {
+				evictColdest();
+			}
+			counter = reads.computeIfAbsent(id, x -> new LongAdder());
+		}
+		counter.increment();
+	}
+	
+	private synchronized void evictColdest() {
+		if (reads.size() < maxTracked) {
+			return;
+		}
+		List<Map.Entry<Long, LongAdder>> entries = new ArrayList<>(reads.entrySet());
+		entries.sort(Comparator.comparingLong(x -> x.getValue().sum()));
+		for (Map.Entry<Long, LongAdder> entry : entries.subList(0, Math.max(entries.size() / 2, 1))) {
+			reads.remove(entry.getKey(), entry.getValue());
+		}
+	}
+	
+	public List<Long> hottest(int limit) {
+		return reads.entrySet().stream()
+				.sorted(Comparator.comparingLong((Map.Entry<Long, LongAdder> x) -> x.getValue().sum()).reversed())
+				.limit(limit).map(Map.Entry::getKey).collect(Collectors.toList());
+	}
+	
+	public List<Long> loadPrevious() {
+		List<Long> ids = new ArrayList<>();
+		if (file.isEmpty() || !Files.exists(Paths.get(file))) {
+			return ids;
+		}
+		try {
+			for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+				if (!line.trim().isEmpty() && ids.size() < maxHotIds) {
+					ids.add(Long.valueOf(line.trim()));
+				}
+			}
+		}
+		catch (IOException | NumberFormatException e) {
+			logger.warn("Ignoring unreadable hot client ids file {}", file, e);
+		}
+		return ids;
+	}
+	
+	@PreDestroy
+	public void save() {
+		if (file.isEmpty() || reads.isEmpty()) {
+			return;
+		}
+		Path path = Paths.get(file);
+		try {
+			if (path.getParent() != null) {
+				Files.createDirectories(path.getParent());
+			}
+			List<String> lines = hottest(maxHotIds).stream().map(String::valueOf).collect(Collectors.toList());
+			Files.write(path, lines, StandardCharsets.UTF_8);
+		}
+		catch (IOException e) {
+			logger.warn("Could not write hot client ids to {}", file, e);
+		}
+	}
+
+}
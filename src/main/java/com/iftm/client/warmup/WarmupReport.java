@@ -0,0 +1,33 @@
+package com.iftm.client.warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class WarmupReport {
+	
+	private volatile boolean complete;
+	private volatile long totalMillis;
+	private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+	
+	public boolean isComplete() {
+		return complete;
+	}
+	
+	public long getTotalMillis() {
+		return totalMillis;
+	}
+	
+	public synchronized Map<String, Long> getPhaseMillis() {
+		return new LinkedHashMap<>(phaseMillis);
+	}
+	
+	synchronized void phase(String name, long millis) {
+		phaseMillis.put(name, millis);
+	}
+	
+	void complete(long totalMillis) {
+		this.totalMillis = totalMillis;
+		this.complete = true;
+	}
+
+}
@@ -0,0 +1,168 @@
+package com.iftm.client.warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientField;
+import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.services.ClientService;
+import com.iftm.client.services.exceptions.ResourceNotFoundException;
+
+/**
+ * Warms the application up before it reports ready: Spring Boot only publishes
+ * readiness once every ApplicationRunner has returned. Compiles every
+ * ClientRepository query once, reads the hot clients of the previous run plus
+ * the configured ids, and repeats the common reads and their JSON
+ * serialization so they are JIT compiled before real traffic arrives. The
+ * reads go straight to ClientService, so they warm the database and the code
+ * paths but leave the ResponseCache empty; its entries are keyed by data
+ * version and are filled by the first real requests.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+	
+	private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+	private static final int BATCH_SIZE = 100;
+	
+	@Autowired
+	private ClientRepository repository;
+	
+	@Autowired
+	private ClientService service;
+	
+	@Autowired
+	private HotClientTracker hotClients;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Value("${client.warmup.enabled:true}")
+	private boolean enabled;
+	
+	@Value("${client.warmup.iterations:20}")
+	private int iterations;
+	
+	@Value("${client.warmup.hot-ids:}")
+	private List<Long> configuredIds;
+	
+	private final WarmupReport report = new WarmupReport();
+	
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!enabled) {
+			report.complete(0);
+			return;
+		}
+		long start = System.nanoTime();
+		Set<Long> ids = new LinkedHashSet<>(configuredIds);
+		ids.addAll(hotClients.loadPrevious());
+		List<Long> hotIds = new ArrayList<>(ids);
+		
+		phase("queries", this::prepareQueries);
+		phase("hotClients", () -> readHotClients(hotIds));
+		phase("reads", () -> repeatReads(hotIds, false));
+		phase("serialization", () -> repeatReads(hotIds, true));
+		
+		report.complete(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		logger.info("Warm-up finished in {} ms with {} hot clients: {}", report.getTotalMillis(), hotIds.size(),
+				report.getPhaseMillis());
+	}
+	
+	public WarmupReport getReport() {
+		return report;
+	}
+	
+	private void phase(String name, Runnable work) {
+		long start = System.nanoTime();
+		try {
+			work.run();
+		}
+		catch (RuntimeException e) {
+			logger.warn("Warm-up phase {} failed", name, e);
+		}
+		report.phase(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+	
+	private void prepareQueries() {
+		PageRequest one = PageRequest.of(0, 1, Direction.ASC, "name");
+		Instant epoch = Instant.EPOCH;
+		repository.findById(0L);
+		repository.findAllById(List.of(0L));
+		repository.findAll(one);
+		repository.findByIncome(Double.MAX_VALUE, one);
+		repository.findSliceByIncome(Double.MAX_VALUE, one);
+		repository.findSliceBy(one);
+		repository.findByNameContainingIgnoreCase("\u0000");
+		repository.findByBirthDate(epoch);
+		repository.findByBirthDateRange(epoch, epoch);
+		repository.findBatchAfter(Long.MAX_VALUE, PageRequest.of(0, 1));
+		repository.findBatchBetween(0L, 0L, PageRequest.of(0, 1));
+		repository.findIdBounds();
+		repository.findInactive(epoch, PageRequest.of(0, 1));
+		repository.findFieldsBy(EnumSet.allOf(ClientField.class), one);
+		repository.findFieldsByIncome(EnumSet.allOf(ClientField.class), Double.MAX_VALUE, one);
+		repository.findFieldsById(EnumSet.allOf(ClientField.class), 0L);
+	}
+	
+	private void readHotClients(List<Long> hotIds) {
+		for (int i = 0; i < hotIds.size(); i += BATCH_SIZE) {
+			service.findAllById(hotIds.subList(i, Math.min(i + BATCH_SIZE, hotIds.size())));
+		}
+	}
+	
+	private void repeatReads(List<Long> hotIds, boolean serialize) {
+		PageRequest firstPage = PageRequest.of(0, 12, Direction.ASC, "name");
+		for (int i = 0; i < iterations; i++) {
+			Object page = service.findAllPaged(firstPage);
+			Object slice = service.findAllSliced(firstPage);
+			Object byIncome = service.findByIncome(0.0, firstPage);
+			Object client = null;
+			if (!hotIds.isEmpty()) {
+				client = findById(hotIds.get(i % hotIds.size()));
+			}
+			if (serialize) {
+				write(page);
+				write(slice);
+				write(byIncome);
+				write(client);
+			}
+		}
+	}
+	
+	private ClientDTO findById(Long id) {
+		try {
+			return service.findById(id);
+		}
+		catch (ResourceNotFoundException e) {
+			return null;
+		}
+	}
+	
+	private void write(Object value) {
+		try {
+			objectMapper.writeValueAsBytes(value);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.iftm.client.tests.datasource;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.iftm.client.datasource.ReadWriteRoutingDataSource;
+import com.iftm.client.datasource.ReplicaMonitor;
+import com.iftm.client.datasource.RoutingContext;
+
+public class ReadWriteRoutingDataSourceTests {
+	
+	private DataSource primary;
+	private DataSource replica;
+	private ReplicaMonitor monitor;
+	private ReadWriteRoutingDataSource routing;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		primary = h2("routingPrimary");
+		replica = h2("routingReplica");
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		replicas.put("replica-0", replica);
+		monitor = new ReplicaMonitor(primary, replicas, 0L, 60000L);
+		Map<Object, Object> targets = new HashMap<>(replicas);
+		targets.put(ReadWriteRoutingDataSource.PRIMARY, primary);
+		routing = new ReadWriteRoutingDataSource(monitor);
+		routing.setTargetDataSources(targets);
+		routing.setDefaultTargetDataSource(primary);
+		routing.afterPropertiesSet();
+		execute(primary, "INSERT INTO tb_client_change (sequence) VALUES (1)");
+		execute(replica, "INSERT INTO tb_client_change (sequence) VALUES (1)");
+		monitor.check();
+	}
+	
+	@AfterEach
+	void tearDown() throws Exception {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		RoutingContext.clear();
+		monitor.shutdown();
+		execute(primary, "DROP ALL OBJECTS");
+		execute(replica, "DROP ALL OBJECTS");
+	}
+	
+	@Test
+	public void readOnlyTransactionShouldUseReplicaWhenReplicaIsInSync() throws Exception {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		
+		Assertions.assertEquals("ROUTINGREPLICA", catalog(routing));
+	}
+	
+	@Test
+	public void writeTransactionShouldUsePrimary() throws Exception {
+		Assertions.assertEquals("ROUTINGPRIMARY", catalog(routing));
+	}
+	
+	@Test
+	public void readOnlyTransactionShouldFallBackToPrimaryWhenReplicaLags() throws Exception {
+		execute(primary, "INSERT INTO tb_client_change (sequence) VALUES (2)");
+		monitor.check();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		
+		Assertions.assertEquals("ROUTINGPRIMARY", catalog(routing));
+		Assertions.assertEquals(1L, monitor.getLag().get("replica-0"));
+	}
+	
+	@Test
+	public void readOnlyTransactionShouldUsePrimaryWhenPrimaryIsForced() throws Exception {
+		RoutingContext.forcePrimary();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		
+		Assertions.assertEquals("ROUTINGPRIMARY", catalog(routing));
+	}
+	
+	@Test
+	public void onPrimaryShouldRouteReadOnlyTransactionToPrimaryOnlyWhileItRuns() throws Exception {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		
+		String inside = RoutingContext.onPrimary(() -> {
+			try {
+				return catalog(routing);
+			}
+			catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		
+		Assertions.assertEquals("ROUTINGPRIMARY", inside);
+		Assertions.assertFalse(RoutingContext.isPrimaryForced());
+		Assertions.assertEquals("ROUTINGREPLICA", catalog(routing));
+	}
+	
+	private static DataSource h2(String name) throws Exception {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+		execute(dataSource, "CREATE TABLE IF NOT EXISTS tb_client_change (sequence BIGINT PRIMARY KEY)");
+		return dataSource;
+	}
+	
+	private static void execute(DataSource dataSource, String sql) throws Exception {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+	
+	private static String catalog(DataSource dataSource) throws Exception {
+		try (Connection connection = dataSource.getConnection()) {
+			return connection.getCatalog();
+		}
+	}
+
+}
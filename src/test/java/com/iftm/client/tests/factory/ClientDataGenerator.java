@@ -0,0 +1,145 @@
+package com.iftm.client.tests.factory;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.iftm.client.entities.Client;
+
+/**
+ * Deterministic client generator. The client at a given index depends only on
+ * the seed and the index, so rows can be generated in any order or in parallel
+ * and still match a previous run.
+ */
+public class ClientDataGenerator {
+
+	private static final String[] FIRST_NAMES = {
+		"Ana", "Maria", "Francisca", "Antônia", "Adriana", "Juliana", "Márcia", "Fernanda", "Patrícia", "Aline",
+		"José", "João", "Antônio", "Francisco", "Carlos", "Paulo", "Pedro", "Lucas", "Luiz", "Marcos",
+		"Gabriel", "Rafael", "Daniel", "Marcelo", "Bruno", "Eduardo", "Felipe", "Raimundo", "Rodrigo", "Beatriz"
+	};
+
+	private static final String[] LAST_NAMES = {
+		"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+		"Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa",
+		"Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas"
+	};
+
+	private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+	private static final String INSERT = "INSERT INTO tb_client (name, cpf, income, birth_date, children, last_activity) "
+			+ "VALUES (?, ?, ?, ?, ?, ?)";
+
+	private final long seed;
+	private final Instant now;
+
+	public ClientDataGenerator(long seed) {
+		this(seed, Instant.parse("2021-01-01T00:00:00Z"));
+	}
+
+	public ClientDataGenerator(long seed, Instant now) {
+		this.seed = seed;
+		this.now = now;
+	}
+
+	public Client client(long index) {
+		SplittableRandom random = new SplittableRandom(seed + index * GAMMA);
+		return new Client(null, name(random), cpf(random), income(random), birthDate(random), children(random));
+	}
+
+	public void populate(JdbcTemplate jdbcTemplate, long count, int batchSize) {
+		for (long offset = 0; offset < count; offset += batchSize) {
+			long start = offset;
+			int size = (int) Math.min(batchSize, count - offset);
+			jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+
+				@Override
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					long index = start + i;
+					Client client = client(index);
+					ps.setString(1, client.getName());
+					ps.setString(2, client.getCpf());
+					ps.setDouble(3, client.getIncome());
+					ps.setTimestamp(4, Timestamp.from(client.getBirthDate()));
+					ps.setInt(5, client.getChildren());
+					ps.setTimestamp(6, Timestamp.from(lastActivity(index)));
+				}
+
+				@Override
+				public int getBatchSize() {
+					return size;
+				}
+			});
+		}
+	}
+
+	public Instant lastActivity(long index) {
+		SplittableRandom random = new SplittableRandom((seed + index * GAMMA) ^ GAMMA);
+		return now.minusSeconds(random.nextLong(Duration.ofDays(730).getSeconds()));
+	}
+
+	private String name(SplittableRandom random) {
+		String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+		if (random.nextInt(3) == 0) {
+			name += " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+		}
+		return name;
+	}
+
+	private static String cpf(SplittableRandom random) {
+		int[] digits = new int[11];
+		for (int i = 0; i < 9; i++) {
+			digits[i] = random.nextInt(10);
+		}
+		digits[9] = checkDigit(digits, 9);
+		digits[10] = checkDigit(digits, 10);
+		StringBuilder cpf = new StringBuilder(11);
+		for (int digit : digits) {
+			cpf.append(digit);
+		}
+		return cpf.toString();
+	}
+
+	public static int checkDigit(int[] digits, int length) {
+		int sum = 0;
+		for (int i = 0; i < length; i++) {
+			sum += digits[i] * (length + 1 - i);
+		}
+		int remainder = sum % 11;
+		return remainder < 2 ? 0 : 11 - remainder;
+	}
+
+	private static double income(SplittableRandom random) {
+		double income = Math.exp(Math.log(3000.0) + 0.8 * gaussian(random));
+		return Math.max(1100.0, Math.round(income / 100.0) * 100.0);
+	}
+
+	private Instant birthDate(SplittableRandom random) {
+		double age = Math.min(95.0, Math.max(0.0, 40.0 + 18.0 * gaussian(random)));
+		return now.minusSeconds((long) (age * 365.25 * 86400));
+	}
+
+	private static int children(SplittableRandom random) {
+		double limit = Math.exp(-1.4);
+		double product = random.nextDouble();
+		int children = 0;
+		while (product > limit) {
+			product *= random.nextDouble();
+			children++;
+		}
+		return children;
+	}
+
+	private static double gaussian(SplittableRandom random) {
+		double u = 1.0 - random.nextDouble();
+		double v = random.nextDouble();
+		return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * v);
+	}
+
+}
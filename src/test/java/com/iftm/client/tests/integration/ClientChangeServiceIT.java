@@ -0,0 +1,67 @@
+package com.iftm.client.tests.integration;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iftm.client.dto.ClientChangeDTO;
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.services.ClientChangeService;
+
+@SpringBootTest
+public class ClientChangeServiceIT {
+	
+	@Autowired
+	private ClientChangeService service;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@Test
+	public void appendShouldCommitChangesInSequenceOrder() throws Exception {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		List<ClientChangeDTO> before = service.findChanges(0L, Integer.MAX_VALUE);
+		long since = before.isEmpty() ? 0L : before.get(before.size() - 1).getSequence();
+		CountDownLatch appended = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		
+		CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+			service.append(ChangeType.DELETE, 1001L, null);
+			appended.countDown();
+			await(release);
+		}));
+		Assertions.assertTrue(appended.await(5, TimeUnit.SECONDS));
+		CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(
+				status -> service.append(ChangeType.DELETE, 1002L, null)));
+		
+		Thread.sleep(200);
+		Assertions.assertFalse(second.isDone());
+		Assertions.assertTrue(service.findChanges(since, 10).isEmpty());
+		release.countDown();
+		first.get(5, TimeUnit.SECONDS);
+		second.get(5, TimeUnit.SECONDS);
+		
+		List<Long> clientIds = service.findChanges(since, 10).stream().map(ClientChangeDTO::getClientId)
+				.collect(Collectors.toList());
+		Assertions.assertEquals(List.of(1001L, 1002L), clientIds);
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+}
@@ -0,0 +1,46 @@
+package com.iftm.client.tests.integration;
+
+import static com.iftm.client.tests.util.QueryCountAssertions.assertQueryCount;
+import static com.iftm.client.tests.util.QueryCountAssertions.queryCount;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.iftm.client.services.ClientService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ClientQueryCountIT {
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private ClientService service;
+	
+	@Test
+	public void findByIdShouldIssueSingleSelect() throws Exception {
+		mockMvc.perform(get("/clients/{id}", 1L))
+			.andExpect(status().isOk())
+			.andExpect(queryCount(1));
+	}
+	
+	@Test
+	public void findAllPagedShouldIssueSelectAndCount() throws Exception {
+		mockMvc.perform(get("/clients?page=0&linesPerPage=5&orderBy=income"))
+			.andExpect(status().isOk())
+			.andExpect(queryCount(2));
+	}
+	
+	@Test
+	public void findAllPagedShouldSkipCountOnPartialFirstPage() {
+		assertQueryCount(1, () -> service.findAllPaged(PageRequest.of(0, 50)));
+	}
+
+}
@@ -1,6 +1,8 @@
 package com.iftm.client.tests.integration;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,9 +11,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientField;
+import com.iftm.client.dto.ClientFieldsDTO;
 import com.iftm.client.services.ClientService;
 import com.iftm.client.services.exceptions.ResourceNotFoundException;
 import com.iftm.client.tests.factory.ClientFactory;
@@ -75,6 +80,17 @@ public class ClientServiceIT {
 		Assertions.assertEquals(countClientByIncome, result.getTotalElements());
 	}
 	
+	@Test
+	public void findByIncomeWithFieldsShouldReturnRequestedFieldsAndExactTotal() {
+		Set<ClientField> fields = EnumSet.of(ClientField.ID, ClientField.NAME);
+		
+		Page<ClientFieldsDTO> result = service.findByIncome(4000.0, PageRequest.of(0, 2, Direction.ASC, "name"), fields);
+		
+		Assertions.assertEquals(2, result.getNumberOfElements());
+		Assertions.assertEquals(countClientByIncome, result.getTotalElements());
+		Assertions.assertEquals(fields, result.getContent().get(0).getFields());
+	}
+	
 	@Test
 	public void findAllShouldReturnAllClients() {
 		
@@ -0,0 +1,101 @@
+package com.iftm.client.tests.integration;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.entities.IdempotencyRecord;
+import com.iftm.client.repositories.IdempotencyRecordRepository;
+import com.iftm.client.resources.idempotency.DatabaseIdempotencyStore;
+import com.iftm.client.resources.idempotency.StoredResponse;
+import com.iftm.client.tests.factory.ClientFactory;
+
+@SpringBootTest
+public class DatabaseIdempotencyStoreIT {
+	
+	@Autowired
+	private IdempotencyRecordRepository repository;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	private DatabaseIdempotencyStore store;
+	private String key;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		store = new DatabaseIdempotencyStore(repository, objectMapper, 60_000L, 30_000L);
+		key = "key:test|" + UUID.randomUUID();
+	}
+	
+	@Test
+	public void reserveShouldFailWhenKeyIsAlreadyReserved() {
+		Assertions.assertTrue(store.reserve(key));
+		Assertions.assertFalse(store.reserve(key));
+		Assertions.assertNull(store.get(key));
+	}
+	
+	@Test
+	public void releaseShouldAllowKeyToBeReservedAgain() {
+		store.reserve(key);
+		store.release(key);
+		
+		Assertions.assertTrue(store.reserve(key));
+	}
+	
+	@Test
+	public void reserveShouldTakeOverReservationWhoseLeaseExpired() {
+		store.reserve(key);
+		IdempotencyRecord record = repository.findById(key).get();
+		record.setReservedAt(Instant.now().minusSeconds(60));
+		repository.save(record);
+		
+		Assertions.assertTrue(store.reserve(key));
+		Assertions.assertFalse(store.reserve(key));
+	}
+	
+	@Test
+	public void reserveShouldNotTakeOverCompletedResponseWithinTtl() {
+		store.reserve(key);
+		store.put(key, new StoredResponse("a", 201, "/clients/7", ClientFactory.createClientDTO(7L)));
+		IdempotencyRecord record = repository.findById(key).get();
+		record.setReservedAt(Instant.now().minusSeconds(60));
+		repository.save(record);
+		
+		Assertions.assertFalse(store.reserve(key));
+		Assertions.assertNotNull(store.get(key));
+	}
+	
+	@Test
+	public void getShouldRejectUnknownBodyType() {
+		repository.save(new IdempotencyRecord(key, "{\"fingerprint\":\"a\",\"status\":200,"
+				+ "\"bodyType\":\"java.util.ArrayList\",\"body\":[]}", Instant.now()));
+		
+		Assertions.assertThrows(IllegalStateException.class, () -> store.get(key));
+	}
+	
+	@Test
+	public void getShouldReturnStoredResponseReadFromJson() {
+		ClientDTO body = ClientFactory.createClientDTO(7L);
+		store.reserve(key);
+		store.put(key, new StoredResponse("a", 201, "/clients/7", body));
+		
+		StoredResponse stored = store.get(key);
+		
+		Assertions.assertEquals("a", stored.getFingerprint());
+		Assertions.assertEquals(201, stored.getStatus());
+		Assertions.assertEquals("/clients/7", stored.getLocation());
+		Assertions.assertEquals(body.getId(), ((ClientDTO) stored.getBody()).getId());
+		Assertions.assertEquals(body.getName(), ((ClientDTO) stored.getBody()).getName());
+		Assertions.assertTrue(repository.findById(key).get().getResponse().startsWith("{"));
+		Assertions.assertFalse(store.reserve(key));
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.iftm.client.tests.journal;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.Client;
+import com.iftm.client.journal.JournalRecord;
+import com.iftm.client.journal.MappedClientJournal;
+import com.iftm.client.tests.factory.ClientFactory;
+
+public class MappedClientJournalTests {
+	
+	private static final int SEGMENT_SIZE = 1 << 18;
+	
+	@TempDir
+	Path directory;
+	
+	@Test
+	public void readShouldReturnAppendedRecordsWithSnapshotData() {
+		Client client = ClientFactory.createClient();
+		MappedClientJournal journal = open(true);
+		try {
+			long offset = journal.append(ChangeType.INSERT, client.getId(), client);
+			journal.append(ChangeType.DELETE, client.getId(), null);
+			
+			List<JournalRecord> records = journal.read(offset, 10);
+			
+			Assertions.assertEquals(2, records.size());
+			JournalRecord insert = records.get(0);
+			Assertions.assertEquals(ChangeType.INSERT, insert.getType());
+			Assertions.assertEquals(client.getId(), insert.getClientId());
+			Assertions.assertEquals(client.getName(), insert.getName());
+			Assertions.assertEquals(client.getCpf(), insert.getCpf());
+			Assertions.assertEquals(client.getIncome(), insert.getIncome());
+			Assertions.assertEquals(client.getBirthDate(), insert.getBirthDate());
+			Assertions.assertEquals(client.getChildren(), insert.getChildren());
+			Assertions.assertEquals(ChangeType.DELETE, records.get(1).getType());
+			Assertions.assertNull(records.get(1).getName());
+			Assertions.assertTrue(journal.getDurableOffset() >= records.get(1).getNextOffset());
+		} finally {
+			journal.close();
+		}
+	}
+	
+	@Test
+	public void appendShouldRotateSegmentsAndReaderShouldTailAcrossThem() throws Exception {
+		Client client = ClientFactory.createClient();
+		int total = 20000;
+		MappedClientJournal journal = open(false);
+		try {
+			for (int i = 0; i < total; i++) {
+				journal.append(ChangeType.UPDATE, (long) i, client);
+			}
+			
+			List<JournalRecord> all = readAll(journal);
+			
+			Assertions.assertEquals(total, all.size());
+			Assertions.assertEquals(total - 1, all.get(total - 1).getClientId());
+			try (Stream<Path> files = Files.list(directory)) {
+				Assertions.assertTrue(files.count() > 1);
+			}
+		} finally {
+			journal.close();
+		}
+	}
+	
+	@Test
+	public void reopenShouldContinueAfterLastRecord() {
+		MappedClientJournal journal = open(false);
+		journal.append(ChangeType.INSERT, 1L, null);
+		journal.close();
+		
+		MappedClientJournal reopened = open(false);
+		try {
+			reopened.append(ChangeType.INSERT, 2L, null);
+			
+			List<JournalRecord> all = readAll(reopened);
+			
+			Assertions.assertEquals(2, all.size());
+			Assertions.assertEquals(2L, all.get(1).getClientId());
+		} finally {
+			reopened.close();
+		}
+	}
+	
+	@Test
+	public void closeShouldLeaveDurableOffsetAtWrittenOffsetWhileFlusherRuns() {
+		Client client = ClientFactory.createClient();
+		for (int round = 0; round < 20; round++) {
+			MappedClientJournal journal = open(false);
+			for (int i = 0; i < 500; i++) {
+				journal.append(ChangeType.UPDATE, (long) i, client);
+			}
+			journal.close();
+			
+			Assertions.assertEquals(journal.getWrittenOffset(), journal.getDurableOffset());
+		}
+	}
+	
+	@Test
+	public void validateShouldRejectValuesTooLongForARecord() {
+		Client client = ClientFactory.createClient();
+		client.setName("x".repeat(Short.MAX_VALUE + 1));
+		MappedClientJournal journal = open(false);
+		try {
+			Assertions.assertThrows(IllegalArgumentException.class, () -> journal.validate(client));
+			Assertions.assertDoesNotThrow(() -> journal.validate(ClientFactory.createClient()));
+		} finally {
+			journal.close();
+		}
+	}
+	
+	private MappedClientJournal open(boolean sync) {
+		try {
+			return new MappedClientJournal(directory, SEGMENT_SIZE, 1, sync);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static List<JournalRecord> readAll(MappedClientJournal journal) {
+		List<JournalRecord> all = new ArrayList<>();
+		long offset = 0;
+		List<JournalRecord> batch;
+		while (!(batch = journal.read(offset, 1000)).isEmpty()) {
+			all.addAll(batch);
+			offset = batch.get(batch.size() - 1).getNextOffset();
+		}
+		return all;
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.iftm.client.tests.load;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.entities.Client;
+import com.iftm.client.tests.factory.ClientDataGenerator;
+
+public class ClientDataGeneratorTests {
+
+	@Test
+	public void clientShouldBeDeterministicForSeedAndIndex() {
+		Client first = new ClientDataGenerator(42L).client(1234L);
+		Client second = new ClientDataGenerator(42L).client(1234L);
+
+		Assertions.assertEquals(first.getName(), second.getName());
+		Assertions.assertEquals(first.getCpf(), second.getCpf());
+		Assertions.assertEquals(first.getIncome(), second.getIncome());
+		Assertions.assertEquals(first.getBirthDate(), second.getBirthDate());
+		Assertions.assertEquals(first.getChildren(), second.getChildren());
+	}
+
+	@Test
+	public void clientShouldHaveValidCpf() {
+		ClientDataGenerator generator = new ClientDataGenerator(7L);
+		for (long i = 0; i < 1000; i++) {
+			String cpf = generator.client(i).getCpf();
+			int[] digits = cpf.chars().map(c -> c - '0').toArray();
+
+			Assertions.assertEquals(11, digits.length);
+			Assertions.assertEquals(ClientDataGenerator.checkDigit(digits, 9), digits[9]);
+			Assertions.assertEquals(ClientDataGenerator.checkDigit(digits, 10), digits[10]);
+		}
+	}
+
+}
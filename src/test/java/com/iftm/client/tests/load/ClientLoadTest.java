@@ -0,0 +1,208 @@
+package com.iftm.client.tests.load;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.entities.Client;
+import com.iftm.client.services.ClientSearchService;
+import com.iftm.client.tests.factory.ClientDataGenerator;
+
+/**
+ * Drives the real /clients endpoints over HTTP against a generated data set.
+ * Disabled unless run with -Dload.test=true, e.g.
+ * {@code mvn test -Dtest=ClientLoadTest -Dload.test=true -Dload.rows=1000000 -Dload.threads=16}.
+ * Compare the search index with the LIKE query through
+ * {@code -Dload.mix=findByName:50,search:50}.
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "load.test", matches = "true")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = { "client.rate-limit.enabled=false",
+		"client.concurrency-limit.enabled=false" })
+public class ClientLoadTest {
+
+	private static final long EXISTING_ROWS = 12;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ClientSearchService searchService;
+
+	private long seed;
+	private long rows;
+	private ClientDataGenerator generator;
+
+	@Test
+	public void runLoad() throws Exception {
+		seed = Long.getLong("load.seed", 42L);
+		rows = Long.getLong("load.rows", 100_000L);
+		int threads = Integer.getInteger("load.threads", 8);
+		long warmupSeconds = Long.getLong("load.warmup-seconds", 5L);
+		long durationSeconds = Long.getLong("load.duration-seconds", 30L);
+		Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix",
+				"findById:60,findAllPaged:15,findByIncome:10,findByName:10,insert:5"));
+
+		generator = new ClientDataGenerator(seed);
+		long start = System.nanoTime();
+		generator.populate(jdbcTemplate, rows, 1000);
+		System.out.printf("Generated %d clients in %d ms%n", rows,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		start = System.nanoTime();
+		searchService.reindex();
+		System.out.printf("Rebuilt search index in %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+		run(mix, threads, TimeUnit.SECONDS.toNanos(warmupSeconds), seed);
+		Map<Operation, Result> results = run(mix, threads, TimeUnit.SECONDS.toNanos(durationSeconds), seed + 1);
+
+		long total = 0;
+		long errors = 0;
+		LatencyHistogram overall = new LatencyHistogram();
+		for (Map.Entry<Operation, Result> entry : results.entrySet()) {
+			Result result = entry.getValue();
+			System.out.printf("%-14s %s errors=%d%n", entry.getKey(), result.histogram.summary(TimeUnit.MILLISECONDS),
+					result.errors);
+			overall.add(result.histogram);
+			total += result.histogram.getTotalCount();
+			errors += result.errors;
+		}
+		System.out.printf("%-14s %s errors=%d%n", "ALL", overall.summary(TimeUnit.MILLISECONDS), errors);
+		System.out.printf("Throughput: %.1f req/s with %d threads%n", (double) total / durationSeconds, threads);
+
+		Assertions.assertTrue(total > 0);
+	}
+
+	private Map<Operation, Result> run(Map<Operation, Integer> mix, int threads, long durationNanos, long runSeed)
+			throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		long deadline = System.nanoTime() + durationNanos;
+		List<Future<Map<Operation, Result>>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			SplittableRandom random = new SplittableRandom(runSeed * 31 + t);
+			futures.add(executor.submit(() -> worker(mix, random, deadline)));
+		}
+		Map<Operation, Result> merged = new LinkedHashMap<>();
+		for (Future<Map<Operation, Result>> future : futures) {
+			for (Map.Entry<Operation, Result> entry : future.get().entrySet()) {
+				merged.computeIfAbsent(entry.getKey(), x -> new Result()).add(entry.getValue());
+			}
+		}
+		executor.shutdown();
+		return merged;
+	}
+
+	private Map<Operation, Result> worker(Map<Operation, Integer> mix, SplittableRandom random, long deadline) {
+		int weights = mix.values().stream().mapToInt(Integer::intValue).sum();
+		Map<Operation, Result> results = new LinkedHashMap<>();
+		while (System.nanoTime() < deadline) {
+			Operation operation = pick(mix, random.nextInt(weights));
+			long start = System.nanoTime();
+			boolean ok = execute(operation, random);
+			long elapsed = System.nanoTime() - start;
+			Result result = results.computeIfAbsent(operation, x -> new Result());
+			result.histogram.record(elapsed);
+			if (!ok) {
+				result.errors++;
+			}
+		}
+		return results;
+	}
+
+	private boolean execute(Operation operation, SplittableRandom random) {
+		ResponseEntity<String> response;
+		switch (operation) {
+		case findById:
+			response = restTemplate.getForEntity("/clients/{id}", String.class, randomId(random));
+			break;
+		case findAllPaged:
+			response = restTemplate.getForEntity("/clients?page={page}&linesPerPage=12", String.class,
+					random.nextInt(100));
+			break;
+		case findByIncome:
+			response = restTemplate.getForEntity("/clients/find-by-income?income={income}", String.class,
+					sample(random).getIncome());
+			break;
+		case findByName:
+			response = restTemplate.getForEntity("/clients/n={name}", String.class,
+					sample(random).getName().split(" ")[1]);
+			break;
+		case search:
+			response = restTemplate.getForEntity("/clients/search?q={q}", String.class,
+					sample(random).getName().split(" ")[1]);
+			break;
+		case insert:
+			Client client = generator.client(rows + random.nextLong(Long.MAX_VALUE / 2));
+			response = restTemplate.postForEntity("/clients", new ClientDTO(client), String.class);
+			break;
+		default:
+			throw new IllegalArgumentException(operation.toString());
+		}
+		return response.getStatusCode().is2xxSuccessful();
+	}
+
+	private long randomId(SplittableRandom random) {
+		return 1 + random.nextLong(rows + EXISTING_ROWS);
+	}
+
+	private Client sample(SplittableRandom random) {
+		return generator.client(random.nextLong(rows));
+	}
+
+	private static Operation pick(Map<Operation, Integer> mix, int roll) {
+		for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+			roll -= entry.getValue();
+			if (roll < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private static Map<Operation, Integer> parseMix(String mix) {
+		Map<Operation, Integer> weights = new LinkedHashMap<>();
+		for (String part : mix.split(",")) {
+			String[] entry = part.trim().split(":");
+			int weight = Integer.parseInt(entry[1].trim());
+			if (weight > 0) {
+				weights.put(Operation.valueOf(entry[0].trim()), weight);
+			}
+		}
+		return weights;
+	}
+
+	private enum Operation {
+		findById, findAllPaged, findByIncome, findByName, search, insert
+	}
+
+	private static class Result {
+		private final LatencyHistogram histogram = new LatencyHistogram();
+		private long errors;
+
+		private void add(Result other) {
+			histogram.add(other.histogram);
+			errors += other.errors;
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.iftm.client.tests.load;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log-linear histogram in the style of HdrHistogram: 64 linear sub-buckets per
+ * power of two, so recorded values keep about two significant digits. Not
+ * thread-safe; record per worker and {@link #add} the results.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private final long[] counts = new long[(64 - SUB_BUCKET_BITS) * SUB_BUCKETS + SUB_BUCKETS];
+	private long totalCount;
+	private long max;
+
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts[indexOf(value)]++;
+		totalCount++;
+		max = Math.max(max, value);
+	}
+
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		totalCount += other.totalCount;
+		max = Math.max(max, other.max);
+	}
+
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public long percentile(double percentile) {
+		if (totalCount == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= target) {
+				return Math.min(max, highestEquivalentValue(i));
+			}
+		}
+		return max;
+	}
+
+	public String summary(TimeUnit unit) {
+		return String.format("count=%d p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f (%s)", totalCount,
+				convert(percentile(50.0), unit), convert(percentile(90.0), unit), convert(percentile(99.0), unit),
+				convert(percentile(99.9), unit), convert(max, unit), unit.toString().toLowerCase());
+	}
+
+	static int indexOf(long value) {
+		int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS + 1));
+		return shift * SUB_BUCKETS + (int) (value >>> shift);
+	}
+
+	static long highestEquivalentValue(int index) {
+		int shift = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+		long lowest = (long) (index - shift * SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	private static double convert(long nanos, TimeUnit unit) {
+		return (double) nanos / unit.toNanos(1);
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.iftm.client.tests.load;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTests {
+
+	@Test
+	public void percentileShouldStayWithinTwoPercentOfRecordedValue() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long i = 1; i <= 100_000; i++) {
+			histogram.record(i * 1_000);
+		}
+
+		Assertions.assertEquals(100_000, histogram.getTotalCount());
+		Assertions.assertEquals(50_000_000, histogram.percentile(50.0), 50_000_000 * 0.02);
+		Assertions.assertEquals(99_000_000, histogram.percentile(99.0), 99_000_000 * 0.02);
+		Assertions.assertEquals(100_000_000, histogram.percentile(100.0));
+	}
+
+	@Test
+	public void addShouldMergeCounts() {
+		LatencyHistogram first = new LatencyHistogram();
+		LatencyHistogram second = new LatencyHistogram();
+		first.record(10);
+		second.record(20);
+		second.record(Long.MAX_VALUE);
+
+		first.add(second);
+
+		Assertions.assertEquals(3, first.getTotalCount());
+		Assertions.assertEquals(Long.MAX_VALUE, first.getMax());
+		Assertions.assertEquals(10, first.percentile(10.0));
+	}
+
+}
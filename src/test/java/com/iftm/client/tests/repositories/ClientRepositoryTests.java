@@ -1,5 +1,6 @@
 package com.iftm.client.tests.repositories;
 
+import java.time.Instant;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -138,4 +139,18 @@ public class ClientRepositoryTests {
 			repository.save(client);
 		}); 
 	}
+	
+	@Test
+	public void deleteInactiveShouldDeleteClientWithoutRecordedActivity() {
+		Instant cutoff = Instant.now();
+		Client client = repository.findById(existingId).get();
+		Assertions.assertNull(client.getLastActivity());
+		
+		List<Client> inactive = repository.findInactiveForUpdate(cutoff, PageRequest.of(0, 100));
+		int deleted = repository.deleteInactive(List.of(existingId), cutoff);
+		
+		Assertions.assertTrue(inactive.stream().anyMatch(x -> x.getId().equals(existingId)));
+		Assertions.assertEquals(1, deleted);
+		Assertions.assertFalse(repository.existsById(existingId));
+	}
 }
@@ -0,0 +1,144 @@
+package com.iftm.client.tests.repositories;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityNotFoundException;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.sharding.CpfHashShardResolver;
+import com.iftm.client.repositories.sharding.PendingChange;
+import com.iftm.client.repositories.sharding.ShardedClientRepository;
+
+public class ShardedClientRepositoryTests {
+	
+	private static final int SHARDS = 3;
+	
+	private List<DataSource> dataSources;
+	private ShardedClientRepository repository;
+	private List<Client> inserted;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		dataSources = new ArrayList<>();
+		for (int i = 0; i < SHARDS; i++) {
+			dataSources.add(new DriverManagerDataSource("jdbc:h2:mem:shardTest" + i + ";DB_CLOSE_DELAY=-1", "sa", ""));
+		}
+		repository = new ShardedClientRepository(dataSources, new CpfHashShardResolver(SHARDS), 10, 2, 10);
+		inserted = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			Client client = new Client(null, "Client " + (char) ('A' + (i * 7) % 26) + i, "1061924" + (1000 + i),
+					1000.0 + (i % 10) * 500, Instant.parse("1980-01-01T00:00:00Z").plusSeconds(i * 86400L), i % 4);
+			inserted.add(repository.insert(repository.assignId(client), i + 1));
+		}
+	}
+	
+	@AfterEach
+	void tearDown() {
+		repository.shutdown();
+		for (DataSource dataSource : dataSources) {
+			new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS");
+		}
+	}
+	
+	@Test
+	public void insertShouldAllocateUniqueIdsAndSpreadClientsAcrossShards() {
+		long distinctIds = inserted.stream().map(Client::getId).distinct().count();
+		
+		Assertions.assertEquals(inserted.size(), distinctIds);
+		Assertions.assertTrue(repository.countByShard().values().stream().filter(count -> count > 0).count() > 1);
+	}
+	
+	@Test
+	public void findByIdShouldReturnClientFromItsShard() {
+		Client expected = inserted.get(17);
+		
+		Optional<Client> result = repository.findById(expected.getId());
+		
+		Assertions.assertTrue(result.isPresent());
+		Assertions.assertEquals(expected.getName(), result.get().getName());
+		Assertions.assertEquals(expected.getBirthDate(), result.get().getBirthDate());
+	}
+	
+	@Test
+	public void findAllPagedShouldMergeShardsInSortOrder() {
+		PageRequest pageRequest = PageRequest.of(2, 7, Direction.DESC, "income");
+		List<Long> expected = inserted.stream()
+				.sorted(Comparator.comparing(Client::getIncome).reversed().thenComparing(Client::getId))
+				.skip(14).limit(7).map(Client::getId).collect(Collectors.toList());
+		
+		Page<Client> page = repository.findAll(pageRequest);
+		
+		Assertions.assertEquals(30L, page.getTotalElements());
+		Assertions.assertEquals(expected, page.getContent().stream().map(Client::getId).collect(Collectors.toList()));
+	}
+	
+	@Test
+	public void findByIncomeShouldCountMatchesOnAllShards() {
+		long expected = inserted.stream().filter(c -> c.getIncome() >= 4000.0).count();
+		
+		Page<Client> page = repository.findByIncome(4000.0, PageRequest.of(0, 5, Direction.ASC, "name"));
+		
+		Assertions.assertEquals(expected, page.getTotalElements());
+		Assertions.assertEquals(5, page.getNumberOfElements());
+	}
+	
+	@Test
+	public void findByNameContainingIgnoreCaseShouldSearchAllShards() {
+		List<Client> result = repository.findByNameContainingIgnoreCase("client");
+		
+		Assertions.assertEquals(inserted.size(), result.size());
+	}
+	
+	@Test
+	public void deleteByIdShouldThrowWhenIdDoesNotExist() {
+		Long id = inserted.get(0).getId();
+		repository.deleteById(id, 100L);
+		
+		Assertions.assertFalse(repository.findById(id).isPresent());
+		Assertions.assertThrows(EmptyResultDataAccessException.class, () -> repository.deleteById(id, 101L));
+	}
+	
+	@Test
+	public void writeShouldRecordPendingChangeUntilAcknowledged() {
+		Instant later = Instant.now().plusSeconds(60);
+		Client client = inserted.get(5);
+		
+		Assertions.assertEquals(inserted.size(), repository.findPendingChanges(later).size());
+		
+		repository.acknowledge(client.getId(), 6L);
+		List<PendingChange> pending = repository.findPendingChanges(later);
+		
+		Assertions.assertEquals(inserted.size() - 1, pending.size());
+		Assertions.assertTrue(pending.stream().noneMatch(x -> x.getClientId().equals(client.getId())));
+		Assertions.assertTrue(pending.stream().allMatch(x -> x.getType() == ChangeType.INSERT));
+	}
+	
+	@Test
+	public void failedWriteShouldNotRecordPendingChange() {
+		Instant later = Instant.now().plusSeconds(60);
+		Client missing = repository.assignId(new Client(null, "Missing", "10619249999", 1000.0, null, 0));
+		
+		Assertions.assertThrows(EntityNotFoundException.class, () -> repository.update(missing, 200L));
+		
+		Assertions.assertTrue(repository.findPendingChanges(later).stream().noneMatch(x -> x.getSequence() == 200L));
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.iftm.client.tests.search;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.search.ClientIndexUpdater;
+import com.iftm.client.search.ClientSearchIndex;
+import com.iftm.client.services.events.ClientCreatedEvent;
+import com.iftm.client.services.events.ClientDeletedEvent;
+import com.iftm.client.services.events.ClientEvent;
+
+public class ClientIndexUpdaterTests {
+	
+	private ClientIndexUpdater updater;
+	private ClientSearchIndex index;
+	private ClientRepository repository;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		index = new ClientSearchIndex();
+		repository = Mockito.mock(ClientRepository.class);
+		updater = new ClientIndexUpdater();
+		ReflectionTestUtils.setField(updater, "indexes", List.of(index));
+		ReflectionTestUtils.setField(updater, "repository", repository);
+	}
+	
+	@Test
+	public void rebuildShouldReplayEventsCommittedWhileLoading() {
+		index.put(client(9L));
+		Mockito.when(repository.findBatchAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any(Pageable.class)))
+				.thenAnswer(invocation -> {
+					List<ClientEvent> events = List.of(new ClientCreatedEvent(client(3L), 1L), new ClientDeletedEvent(1L, 2L));
+					updater.handle(events);
+					return List.of(client(1L), client(2L));
+				});
+		Mockito.when(repository.findBatchAfter(ArgumentMatchers.eq(2L), ArgumentMatchers.any(Pageable.class)))
+				.thenReturn(List.of());
+		
+		long size = updater.rebuild(index, 10);
+		
+		Assertions.assertEquals(2, size);
+		Assertions.assertEquals(List.of(2L, 3L), indexedIds());
+	}
+	
+	@Test
+	public void rebuildShouldKeepServingOldIndexUntilSwap() {
+		index.put(client(9L));
+		Mockito.when(repository.findBatchAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any(Pageable.class)))
+				.thenAnswer(invocation -> {
+					Assertions.assertEquals(1, index.size());
+					return List.of(client(1L));
+				});
+		Mockito.when(repository.findBatchAfter(ArgumentMatchers.eq(1L), ArgumentMatchers.any(Pageable.class)))
+				.thenReturn(List.of());
+		
+		updater.rebuild(index, 10);
+		
+		Assertions.assertEquals(List.of(1L), indexedIds());
+	}
+	
+	private List<Long> indexedIds() {
+		return index.search("client", PageRequest.of(0, 10)).getContent().stream().map(Client::getId).sorted()
+				.collect(Collectors.toList());
+	}
+	
+	private static Client client(Long id) {
+		return new Client(id, "Client " + id, "10619244881", 1500.0, Instant.parse("1970-04-13T07:50:00Z"), 1);
+	}
+	
+}
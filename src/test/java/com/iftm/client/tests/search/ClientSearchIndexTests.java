@@ -0,0 +1,60 @@
+package com.iftm.client.tests.search;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.iftm.client.entities.Client;
+import com.iftm.client.search.ClientSearchIndex;
+
+public class ClientSearchIndexTests {
+	
+	private ClientSearchIndex index;
+	private PageRequest pageRequest;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		index = new ClientSearchIndex();
+		pageRequest = PageRequest.of(0, 10);
+		index.put(new Client(1L, "Conceição Evaristo", "10619244881", 1500.0, Instant.parse("2020-07-13T20:50:00Z"), 2));
+		index.put(new Client(2L, "Lázaro Ramos", "10619244881", 2500.0, Instant.parse("1996-12-23T07:00:00Z"), 2));
+		index.put(new Client(3L, "Clarice Lispector", "10919444522", 3800.0, Instant.parse("1960-04-13T07:50:00Z"), 2));
+	}
+	
+	@Test
+	public void searchShouldMatchMisspelledNameIgnoringAccents() {
+		Assertions.assertEquals(List.of(1L), ids(index.search("conceicao evaristu", pageRequest)));
+	}
+	
+	@Test
+	public void searchShouldCombineCpfFragmentAndIncomeBand() {
+		Assertions.assertEquals(List.of(2L), ids(index.search("106.192 income:2000-3000", pageRequest)));
+	}
+	
+	@Test
+	public void searchShouldRankBetterMatchesFirst() {
+		index.put(new Client(4L, "Clara Lispector", "12345678900", 1000.0, Instant.parse("1990-01-01T00:00:00Z"), 0));
+		
+		Page<Client> result = index.search("clarice", pageRequest);
+		
+		Assertions.assertEquals(3L, result.getContent().get(0).getId());
+	}
+	
+	@Test
+	public void searchShouldNotReturnRemovedClients() {
+		index.remove(3L);
+		
+		Assertions.assertTrue(index.search("lispector", pageRequest).isEmpty());
+	}
+	
+	private static List<Long> ids(Page<Client> page) {
+		return page.getContent().stream().map(Client::getId).collect(Collectors.toList());
+	}
+	
+}
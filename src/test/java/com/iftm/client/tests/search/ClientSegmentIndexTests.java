@@ -0,0 +1,69 @@
+package com.iftm.client.tests.search;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.entities.Client;
+import com.iftm.client.search.ClientSegmentIndex;
+import com.iftm.client.search.SegmentQuery;
+import com.iftm.client.services.exceptions.InvalidQueryException;
+
+public class ClientSegmentIndexTests {
+	
+	private ClientSegmentIndex index;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		index = new ClientSegmentIndex();
+		index.put(new Client(1L, "Conceição Evaristo", "10619244881", 1500.0, Instant.parse("1946-11-29T20:50:00Z"), 2));
+		index.put(new Client(2L, "Lázaro Ramos", "10619244881", 2500.0, Instant.parse("1978-11-01T07:00:00Z"), 0));
+		index.put(new Client(3L, "Clarice Lispector", "10919444522", 3800.0, Instant.parse("1970-04-13T07:50:00Z"), 0));
+		index.put(new Client(4L, "Carolina Maria de Jesus", "10419244771", 7500.0, Instant.parse("1975-02-10T07:00:00Z"), 3));
+	}
+	
+	@Test
+	public void selectShouldIntersectDecadeIncomeAndChildren() {
+		SegmentQuery query = SegmentQuery.parse("1970s", 2500.0, null, "0");
+		
+		Assertions.assertArrayEquals(new long[] { 2, 3 }, index.select(query).toArray());
+	}
+	
+	@Test
+	public void selectShouldFilterExactIncomeInsideBoundaryBands() {
+		SegmentQuery query = SegmentQuery.parse(null, 2600.0, 7500.0, null);
+		
+		Assertions.assertArrayEquals(new long[] { 3, 4 }, index.select(query).toArray());
+	}
+	
+	@Test
+	public void selectShouldUnionRangesWithinCriterion() {
+		SegmentQuery query = SegmentQuery.parse("1946,1975-1976", null, null, "2,3+");
+		
+		Assertions.assertArrayEquals(new long[] { 1, 4 }, index.select(query).toArray());
+	}
+	
+	@Test
+	public void putShouldMoveClientWhenAttributesChange() {
+		index.put(new Client(3L, "Clarice Lispector", "10919444522", 3800.0, Instant.parse("1970-04-13T07:50:00Z"), 1));
+		
+		Assertions.assertArrayEquals(new long[] { 2 }, index.select(SegmentQuery.parse(null, null, null, "0")).toArray());
+	}
+	
+	@Test
+	public void putShouldSkipIdsOutsideBitmapRange() {
+		index.put(new Client(1L << 32, "Fora do Alcance", "10919444522", 3800.0, Instant.parse("1970-04-13T07:50:00Z"), 0));
+		
+		Assertions.assertEquals(4, index.size());
+	}
+	
+	@Test
+	public void parseShouldThrowInvalidQueryExceptionWhenYearIsMalformed() {
+		Assertions.assertThrows(InvalidQueryException.class, () -> {
+			SegmentQuery.parse("seventies", null, null, null);
+		});
+	}
+	
+}
@@ -0,0 +1,67 @@
+package com.iftm.client.tests.search;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.search.RoaringBitmap;
+
+public class RoaringBitmapTests {
+	
+	@Test
+	public void operationsShouldMatchSetSemanticsForSparseAndDenseChunks() {
+		Random random = new Random(42);
+		TreeSet<Long> left = new TreeSet<>();
+		TreeSet<Long> right = new TreeSet<>();
+		RoaringBitmap a = new RoaringBitmap();
+		RoaringBitmap b = new RoaringBitmap();
+		for (int i = 0; i < 20000; i++) {
+			long x = random.nextInt(i % 2 == 0 ? 10000 : 300000);
+			long y = random.nextInt(200000);
+			left.add(x);
+			a.add(x);
+			right.add(y);
+			b.add(y);
+		}
+		
+		TreeSet<Long> and = new TreeSet<>(left);
+		and.retainAll(right);
+		TreeSet<Long> or = new TreeSet<>(left);
+		or.addAll(right);
+		TreeSet<Long> andNot = new TreeSet<>(left);
+		andNot.removeAll(right);
+		
+		assertSameValues(and, a.and(b));
+		assertSameValues(or, a.or(b));
+		assertSameValues(andNot, a.andNot(b));
+		assertSameValues(left, a);
+	}
+	
+	@Test
+	public void removeShouldDropValueAndEmptyChunk() {
+		RoaringBitmap bitmap = RoaringBitmap.of(1, 70000, 4294967295L);
+		
+		bitmap.remove(70000);
+		
+		Assertions.assertFalse(bitmap.contains(70000));
+		Assertions.assertArrayEquals(new long[] { 1, 4294967295L }, bitmap.toArray());
+	}
+	
+	@Test
+	public void toArrayShouldSkipOffsetAcrossChunks() {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		for (long i = 0; i < 200000; i += 2) {
+			bitmap.add(i);
+		}
+		
+		Assertions.assertArrayEquals(new long[] { 140000, 140002, 140004 }, bitmap.toArray(70000, 3));
+	}
+	
+	private static void assertSameValues(TreeSet<Long> expected, RoaringBitmap actual) {
+		Assertions.assertEquals(expected.size(), actual.cardinality());
+		Assertions.assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), actual.toArray());
+	}
+	
+}
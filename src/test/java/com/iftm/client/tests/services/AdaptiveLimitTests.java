@@ -0,0 +1,69 @@
+package com.iftm.client.tests.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.services.util.AdaptiveLimit;
+
+public class AdaptiveLimitTests {
+	
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+	
+	@Test
+	public void tryAcquireShouldLeaveRemainingShareToPriorityRequests() {
+		AdaptiveLimit limit = new AdaptiveLimit(4, 1, 10, 0.5, 2.0, 0.9);
+		
+		Assertions.assertTrue(limit.tryAcquire(false));
+		Assertions.assertTrue(limit.tryAcquire(false));
+		Assertions.assertFalse(limit.tryAcquire(false));
+		Assertions.assertTrue(limit.tryAcquire(true));
+		Assertions.assertTrue(limit.tryAcquire(true));
+		Assertions.assertFalse(limit.tryAcquire(true));
+		Assertions.assertEquals(4, limit.getInFlight());
+	}
+	
+	@Test
+	public void releaseShouldDecreaseLimitWhenLatencyExceedsBaseline() {
+		AdaptiveLimit limit = new AdaptiveLimit(10, 2, 100, 1.0, 2.0, 0.5);
+		
+		limit.tryAcquire(false);
+		limit.release(FAST, false);
+		limit.tryAcquire(false);
+		limit.release(SLOW, false);
+		
+		Assertions.assertEquals(5, limit.getLimit());
+		Assertions.assertEquals(0, limit.getInFlight());
+	}
+	
+	@Test
+	public void releaseShouldIncreaseLimitWhenFastAndSaturated() {
+		AdaptiveLimit limit = new AdaptiveLimit(4, 2, 100, 1.0, 2.0, 0.5);
+		
+		for (int round = 0; round < 20; round++) {
+			int permits = 0;
+			while (limit.tryAcquire(true)) {
+				permits++;
+			}
+			for (int i = 0; i < permits; i++) {
+				limit.release(FAST, false);
+			}
+		}
+		
+		Assertions.assertTrue(limit.getLimit() > 4);
+	}
+	
+	@Test
+	public void releaseWithoutLatencyShouldNotChangeLimit() {
+		AdaptiveLimit limit = new AdaptiveLimit(4, 2, 100, 1.0, 2.0, 0.5);
+		
+		limit.tryAcquire(true);
+		limit.release(-1, true);
+		
+		Assertions.assertEquals(4, limit.getLimit());
+		Assertions.assertEquals(0, limit.getInFlight());
+	}
+	
+}
@@ -0,0 +1,122 @@
+package com.iftm.client.tests.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.services.util.BatchLoader;
+
+public class BatchLoaderTests {
+	
+	private final ExecutorService callers = Executors.newFixedThreadPool(4);
+	private final ExecutorService pool = Executors.newFixedThreadPool(2);
+	private final List<Collection<Long>> calls = new ArrayList<>();
+	private final List<String> threads = new ArrayList<>();
+	
+	@AfterEach
+	void tearDown() {
+		callers.shutdownNow();
+		pool.shutdownNow();
+	}
+	
+	@Test
+	public void loadShouldCoalesceConcurrentKeysIntoOneBulkCall() throws Exception {
+		BatchLoader<Long, String> loader = new BatchLoader<>(this::names, 200_000L, 64, pool);
+		try {
+			CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> loader.load(1L), callers);
+			CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> loader.load(2L), callers);
+			
+			Assertions.assertEquals("client-1", first.get(5, TimeUnit.SECONDS));
+			Assertions.assertEquals("client-2", second.get(5, TimeUnit.SECONDS));
+			Assertions.assertEquals(1, calls.size());
+			Assertions.assertEquals(List.of(1L, 2L), sorted(calls.get(0)));
+		} finally {
+			loader.shutdown();
+		}
+	}
+	
+	@Test
+	public void loadShouldFlushOnPoolThreadWhenBatchIsFull() throws Exception {
+		BatchLoader<Long, String> loader = new BatchLoader<>(this::names, TimeUnit.SECONDS.toMicros(60), 2, pool);
+		try {
+			CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> loader.load(1L), callers);
+			CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> loader.load(2L), callers);
+			
+			Assertions.assertEquals("client-1", first.get(5, TimeUnit.SECONDS));
+			Assertions.assertEquals("client-2", second.get(5, TimeUnit.SECONDS));
+			Assertions.assertEquals(1, calls.size());
+			Assertions.assertTrue(threads.get(0).startsWith("pool-"));
+		} finally {
+			loader.shutdown();
+		}
+	}
+	
+	@Test
+	public void loadShouldReturnNullWhenKeyIsMissing() {
+		BatchLoader<Long, String> loader = new BatchLoader<>(this::names, 1000L, 64, pool);
+		try {
+			Assertions.assertNull(loader.load(-1L));
+		} finally {
+			loader.shutdown();
+		}
+	}
+	
+	@Test
+	public void loadShouldFailEveryWaiterWhenBulkCallFails() throws Exception {
+		BatchLoader<Long, String> loader = new BatchLoader<>(keys -> {
+			throw new IllegalStateException("down");
+		}, 1000L, 2, pool);
+		try {
+			CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> loader.load(1L), callers);
+			CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> loader.load(2L), callers);
+			
+			for (CompletableFuture<String> future : List.of(first, second)) {
+				Exception e = Assertions.assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+				Assertions.assertTrue(e.getCause() instanceof IllegalStateException);
+			}
+		} finally {
+			loader.shutdown();
+		}
+	}
+	
+	@Test
+	public void loadShouldThrowRejectedExecutionExceptionWhenPoolRejectsBatch() {
+		pool.shutdown();
+		BatchLoader<Long, String> loader = new BatchLoader<>(this::names, 1000L, 1, pool);
+		try {
+			Assertions.assertThrows(RejectedExecutionException.class, () -> loader.load(1L));
+		} finally {
+			loader.shutdown();
+		}
+	}
+	
+	private synchronized Map<Long, String> names(Collection<Long> keys) {
+		calls.add(new ArrayList<>(keys));
+		threads.add(Thread.currentThread().getName());
+		Map<Long, String> result = new HashMap<>();
+		for (Long key : keys) {
+			if (key > 0) {
+				result.put(key, "client-" + key);
+			}
+		}
+		return result;
+	}
+	
+	private static List<Long> sorted(Collection<Long> keys) {
+		List<Long> list = new ArrayList<>(keys);
+		list.sort(null);
+		return list;
+	}
+	
+}
@@ -0,0 +1,137 @@
+package com.iftm.client.tests.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.iftm.client.entities.ArchivedClient;
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.ArchivedClientRepository;
+import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.services.ClientActivityTracker;
+import com.iftm.client.services.ClientArchivalService;
+import com.iftm.client.services.ClientChangeService;
+import com.iftm.client.services.ClientService;
+import com.iftm.client.services.events.ClientArchivedEvent;
+
+@ExtendWith(SpringExtension.class)
+public class ClientArchivalServiceTests {
+	
+	@InjectMocks
+	private ClientArchivalService service;
+	
+	@Mock
+	private ClientRepository repository;
+	
+	@Mock
+	private ArchivedClientRepository archiveRepository;
+	
+	@Mock
+	private ClientService clientService;
+	
+	@Mock
+	private ClientChangeService changeService;
+	
+	@Mock
+	private ClientActivityTracker activity;
+	
+	@Mock
+	private ApplicationEventPublisher publisher;
+	
+	@Mock
+	private PlatformTransactionManager transactionManager;
+	
+	private Instant cutoff;
+	private Client first;
+	private Client second;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(service, "batchSize", 10);
+		cutoff = Instant.parse("2020-01-01T00:00:00Z");
+		first = client(1L, cutoff.minus(Duration.ofDays(30)));
+		second = client(2L, cutoff.minus(Duration.ofDays(10)));
+		Mockito.when(repository.findInactiveForUpdate(ArgumentMatchers.eq(cutoff), ArgumentMatchers.any(Pageable.class)))
+				.thenReturn(List.of(first, second));
+	}
+	
+	@Test
+	public void archiveInactiveShouldDeleteOnlyRowsStillOlderThanCutoff() {
+		Mockito.when(repository.findExistingIds(ArgumentMatchers.anyCollection())).thenReturn(List.of());
+		
+		service.archiveInactive(cutoff);
+		
+		Mockito.verify(repository).findInactiveForUpdate(ArgumentMatchers.eq(cutoff), ArgumentMatchers.any(Pageable.class));
+		Mockito.verify(repository).deleteInactive(ArgumentMatchers.anyCollection(), ArgumentMatchers.eq(cutoff));
+		Mockito.verify(repository, Mockito.never()).deleteInBatch(ArgumentMatchers.any());
+	}
+	
+	@Test
+	public void archiveInactiveShouldArchiveOnlyRowsActuallyDeleted() {
+		Mockito.when(repository.findExistingIds(ArgumentMatchers.anyCollection())).thenReturn(List.of(second.getId()));
+		
+		long archived = service.archiveInactive(cutoff);
+		
+		Assertions.assertEquals(1, archived);
+		Assertions.assertEquals(List.of(first.getId()), archivedIds());
+		Mockito.verify(changeService).append(ChangeType.ARCHIVE, first.getId(), null);
+		Mockito.verify(changeService, Mockito.never()).append(ChangeType.ARCHIVE, second.getId(), null);
+		Mockito.verify(publisher, Mockito.times(1)).publishEvent(ArgumentMatchers.any(ClientArchivedEvent.class));
+	}
+	
+	@Test
+	public void archiveInactiveShouldFlushReadActivityBeforeLookingForInactiveClients() {
+		Mockito.when(repository.findExistingIds(ArgumentMatchers.anyCollection())).thenReturn(List.of());
+		
+		service.archiveInactive(cutoff);
+		
+		InOrder order = Mockito.inOrder(activity, repository);
+		order.verify(activity).flush();
+		order.verify(repository).findInactiveForUpdate(ArgumentMatchers.eq(cutoff), ArgumentMatchers.any(Pageable.class));
+	}
+	
+	@Test
+	public void archiveInactiveShouldArchiveClientWithoutRecordedActivity() {
+		Client neverActive = client(3L, null);
+		Mockito.when(repository.findInactiveForUpdate(ArgumentMatchers.eq(cutoff), ArgumentMatchers.any(Pageable.class)))
+				.thenReturn(List.of(neverActive));
+		Mockito.when(repository.findExistingIds(ArgumentMatchers.anyCollection())).thenReturn(List.of());
+		
+		long archived = service.archiveInactive(cutoff);
+		
+		Assertions.assertEquals(1, archived);
+		Assertions.assertEquals(List.of(neverActive.getId()), archivedIds());
+	}
+	
+	@SuppressWarnings("unchecked")
+	private List<Long> archivedIds() {
+		ArgumentCaptor<List<ArchivedClient>> captor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(archiveRepository).saveAll(captor.capture());
+		return captor.getValue().stream().map(ArchivedClient::getId).collect(Collectors.toList());
+	}
+	
+	private static Client client(Long id, Instant lastActivity) {
+		Client client = new Client(id, "Client " + id, "1235489461", 2000.0, Instant.parse("1958-09-20T08:00:00Z"), 1);
+		client.setLastActivity(lastActivity);
+		return client;
+	}
+
+}
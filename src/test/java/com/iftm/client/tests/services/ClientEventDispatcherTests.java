@@ -0,0 +1,86 @@
+package com.iftm.client.tests.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.iftm.client.services.events.ClientDeletedEvent;
+import com.iftm.client.services.events.ClientEvent;
+import com.iftm.client.services.events.ClientEventDispatcher;
+import com.iftm.client.services.events.ClientEventHandler;
+
+public class ClientEventDispatcherTests {
+	
+	private ClientEventDispatcher dispatcher;
+	private List<Long> handled;
+	private AtomicInteger failuresLeft;
+	private CountDownLatch done;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		handled = Collections.synchronizedList(new ArrayList<>());
+		failuresLeft = new AtomicInteger();
+		done = new CountDownLatch(10);
+		ClientEventHandler handler = events -> {
+			if (failuresLeft.getAndDecrement() > 0) {
+				throw new IllegalStateException("handler failure");
+			}
+			for (ClientEvent event : events) {
+				handled.add(event.getClientId());
+				done.countDown();
+			}
+		};
+		dispatcher = new ClientEventDispatcher();
+		ReflectionTestUtils.setField(dispatcher, "handlers", List.of(handler));
+		ReflectionTestUtils.setField(dispatcher, "workers", 1);
+		ReflectionTestUtils.setField(dispatcher, "queueCapacity", 4);
+		ReflectionTestUtils.setField(dispatcher, "batchSize", 3);
+		ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+		ReflectionTestUtils.setField(dispatcher, "retryBackoffMillis", 1L);
+		ReflectionTestUtils.setField(dispatcher, "maxTrackedClients", 100);
+		dispatcher.start();
+	}
+	
+	@AfterEach
+	void tearDown() throws Exception {
+		dispatcher.stop();
+	}
+	
+	@Test
+	public void eventsShouldBeDeliveredInOrderDespiteFullQueueAndRetries() throws Exception {
+		failuresLeft.set(2);
+		
+		for (long id = 1; id <= 10; id++) {
+			dispatcher.onEvent(new ClientDeletedEvent(id, id));
+		}
+		
+		Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), handled);
+		Assertions.assertEquals(0, dispatcher.getFailed());
+	}
+	
+	
+	@Test
+	public void eventsShouldBeDroppedWhenOlderThanOneAlreadyHandledForSameClient() throws Exception {
+		done = new CountDownLatch(3);
+		
+		dispatcher.onEvent(new ClientDeletedEvent(1L, 5L));
+		dispatcher.onEvent(new ClientDeletedEvent(1L, 4L));
+		dispatcher.onEvent(new ClientDeletedEvent(2L, 3L));
+		dispatcher.onEvent(new ClientDeletedEvent(1L, 6L));
+		
+		Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(List.of(1L, 2L, 1L), handled);
+		Assertions.assertEquals(1, dispatcher.getStale());
+	}
+	
+}
@@ -1,29 +1,47 @@
 package com.iftm.client.tests.services;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.entities.ArchivedClient;
+import com.iftm.client.entities.ChangeType;
 import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.ArchivedClientRepository;
 import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.services.ClientActivityTracker;
+import com.iftm.client.services.ClientChangeService;
 import com.iftm.client.services.ClientService;
+import com.iftm.client.services.events.ClientDeletedEvent;
 import com.iftm.client.services.exceptions.DatabaseException;
+import com.iftm.client.services.exceptions.InvalidQueryException;
 import com.iftm.client.services.exceptions.ResourceNotFoundException;
 import com.iftm.client.tests.factory.ClientFactory;
 
@@ -36,6 +54,21 @@ public class ClientServiceTests {
 	@Mock
 	private ClientRepository repository;
 	
+	@Mock
+	private ArchivedClientRepository archiveRepository;
+	
+	@Mock
+	private ClientChangeService changeService;
+	
+	@Mock
+	private ClientActivityTracker activity;
+	
+	@Mock
+	private ApplicationEventPublisher publisher;
+	
+	@Mock
+	private PlatformTransactionManager transactionManager;
+	
 	private long existingId;
 	private long existentId;
 	private long nonExistingId;
@@ -93,6 +126,13 @@ public class ClientServiceTests {
 		Mockito.verify(repository, Mockito.times(1)).deleteById(existingId);
 	}
 	
+	@Test
+	public void deleteShouldPublishClientDeletedEventWhenIdExists() {
+		service.delete(existingId);
+		
+		Mockito.verify(publisher, Mockito.times(1)).publishEvent(Mockito.any(ClientDeletedEvent.class));
+	}
+	
 	@Test
 	public void deleteShouldThrowResourceNotFoundExceptionWhenIdDoesNotExists() {
 		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
@@ -203,4 +243,108 @@ public class ClientServiceTests {
 		
 		Mockito.verify(repository, Mockito.times(1)).save(clientDTO.toEntity());
 	}
+	
+	@Test
+	public void findAllByIdShouldThrowInvalidQueryExceptionWhenTooManyIdsRequested() {
+		ReflectionTestUtils.setField(service, "maxIds", 2);
+		
+		Assertions.assertThrows(InvalidQueryException.class, () -> {
+			service.findAllById(List.of(1L, 2L, 3L));
+		});
+		Mockito.verify(repository, Mockito.never()).findAllById(ArgumentMatchers.any());
+	}
+	
+	@Test
+	public void parallelScanShouldVisitEveryClientOnceAcrossRanges() {
+		ReflectionTestUtils.setField(service, "maxScanSegments", 64);
+		ReflectionTestUtils.setField(service, "scanBatchSize", 2);
+		List<Object[]> bounds = new ArrayList<>();
+		bounds.add(new Object[] { 1L, 7L });
+		Mockito.when(repository.findIdBounds()).thenReturn(bounds);
+		Mockito.when(repository.findBatchBetween(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(),
+				ArgumentMatchers.any())).thenAnswer(invocation -> {
+			long after = invocation.getArgument(0);
+			long last = invocation.getArgument(1);
+			Pageable pageable = invocation.getArgument(2);
+			return LongStream.rangeClosed(1, 7).filter(x -> x > after && x <= last).limit(pageable.getPageSize())
+					.mapToObj(x -> new Client(x, "Client " + x, null, null, null, null)).collect(Collectors.toList());
+		});
+		Set<Long> visited = ConcurrentHashMap.newKeySet();
+		
+		service.init();
+		long total;
+		try {
+			total = service.parallelScan(3, batch -> batch.forEach(x -> Assertions.assertTrue(visited.add(x.getId()))));
+		} finally {
+			service.destroy();
+		}
+		
+		Assertions.assertEquals(7, total);
+		Assertions.assertEquals(Set.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), visited);
+		Mockito.verify(transactionManager, Mockito.atLeast(3)).getTransaction(
+				ArgumentMatchers.argThat(TransactionDefinition::isReadOnly));
+		Mockito.verify(transactionManager, Mockito.never()).getTransaction(
+				ArgumentMatchers.argThat(x -> !x.isReadOnly()));
+	}
+	
+	@Test
+	public void findAllPagedShouldMergeArchivedClientsWhenIncludeArchived() {
+		Client archived = new Client(14L, "Arquivado", "1235489461", 2000.0, null, 0);
+		Mockito.when(repository.findAll(ArgumentMatchers.any(Pageable.class))).thenReturn(pageMock);
+		Mockito.when(archiveRepository.findAll(ArgumentMatchers.any(Pageable.class)))
+				.thenReturn(new PageImpl<>(List.of(new ArchivedClient(archived, Instant.now()))));
+		
+		Page<ClientDTO> hot = service.findAllPaged(validPageRequest, false);
+		Page<ClientDTO> all = service.findAllPaged(validPageRequest, true);
+		
+		Assertions.assertEquals(1, hot.getTotalElements());
+		Assertions.assertEquals(2, all.getTotalElements());
+		Assertions.assertTrue(all.getContent().stream().anyMatch(x -> x.getId().equals(archived.getId())));
+	}
+	
+	@Test
+	public void findByIdShouldReturnArchivedClientAndRecordActivityOnlyOnSuccess() {
+		Mockito.when(repository.findById(inexistentId)).thenReturn(Optional.empty());
+		Mockito.when(archiveRepository.findById(inexistentId))
+				.thenReturn(Optional.of(new ArchivedClient(new Client(inexistentId, "Arquivado", null, null, null, null), Instant.now())));
+		
+		ClientDTO dto = service.findById(inexistentId);
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> service.findById(nonExistingId));
+		
+		Assertions.assertEquals(inexistentId, dto.getId());
+		Mockito.verify(activity).record(inexistentId);
+		Mockito.verify(activity, Mockito.never()).record(nonExistingId);
+	}
+	
+	@Test
+	public void deleteShouldRemoveArchivedClientWhenIdIsArchived() {
+		Mockito.when(archiveRepository.existsById(inexistentId)).thenReturn(true);
+		
+		service.delete(inexistentId);
+		
+		Mockito.verify(archiveRepository).deleteById(inexistentId);
+		Mockito.verify(repository, Mockito.never()).deleteById(inexistentId);
+		Mockito.verify(changeService).append(ChangeType.DELETE, inexistentId, null);
+	}
+	
+	@Test
+	public void restoreShouldMoveArchivedClientBackUnderItsId() {
+		ArchivedClient archived = new ArchivedClient(client, Instant.now());
+		Mockito.when(archiveRepository.findById(client.getId())).thenReturn(Optional.of(archived));
+		Mockito.when(repository.findById(client.getId())).thenReturn(Optional.of(client));
+		
+		ClientDTO dto = service.restore(client.getId());
+		
+		Assertions.assertEquals(client.getId(), dto.getId());
+		Mockito.verify(archiveRepository).delete(archived);
+		Mockito.verify(repository).insertWithId(ArgumentMatchers.eq(client.getId()), ArgumentMatchers.eq(client.getName()),
+				ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+				ArgumentMatchers.any());
+		Mockito.verify(changeService).append(ChangeType.RESTORE, client.getId(), client);
+	}
+	
+	@Test
+	public void restoreShouldThrowResourceNotFoundExceptionWhenIdIsNotArchived() {
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> service.restore(nonExistingId));
+	}
 }
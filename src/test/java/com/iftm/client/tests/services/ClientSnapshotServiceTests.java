@@ -0,0 +1,94 @@
+package com.iftm.client.tests.services;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.services.ClientService;
+import com.iftm.client.services.ClientSnapshotService;
+import com.iftm.client.snapshot.ColumnarClientReader;
+
+@ExtendWith(SpringExtension.class)
+public class ClientSnapshotServiceTests {
+	
+	@TempDir
+	Path directory;
+	
+	@InjectMocks
+	private ClientSnapshotService service;
+	
+	@Mock
+	private ClientService clientService;
+	
+	@Mock
+	private PlatformTransactionManager transactionManager;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(service, "enabled", true);
+		ReflectionTestUtils.setField(service, "directory", directory.toString());
+		ReflectionTestUtils.setField(service, "rowGroupSize", 100);
+		ReflectionTestUtils.setField(service, "batchSize", 2);
+		ReflectionTestUtils.setField(service, "retention", 7);
+		ReflectionTestUtils.setField(service, "retryAfterSeconds", 60L);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		service.destroy();
+	}
+	
+	@Test
+	public void requestSnapshotShouldWriteHotAndArchivedClientsInIdOrder() throws Exception {
+		Mockito.when(clientService.scan(ArgumentMatchers.any(), ArgumentMatchers.isNull(), ArgumentMatchers.eq(2)))
+				.thenReturn(List.of(client(1L), client(2L)));
+		Mockito.when(clientService.scan(ArgumentMatchers.any(), ArgumentMatchers.eq(2L), ArgumentMatchers.eq(2)))
+				.thenReturn(List.of(client(5L)));
+		Mockito.when(clientService.scanArchived(null, 2)).thenReturn(List.of(client(3L), client(4L)));
+		Mockito.when(clientService.scanArchived(4L, 2)).thenReturn(List.of(client(6L)));
+		
+		String name = service.requestSnapshot();
+		Path file = directory.resolve(name);
+		for (int i = 0; i < 500 && !Files.exists(file); i++) {
+			Thread.sleep(10);
+		}
+		
+		try (ColumnarClientReader reader = new ColumnarClientReader(file)) {
+			List<Long> ids = reader.readAll().stream().map(ClientDTO::getId).collect(Collectors.toList());
+			Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), ids);
+		}
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void scheduledSnapshotShouldBeSkippedWhileAnotherSnapshotIsRunning() {
+		((AtomicReference<String>) ReflectionTestUtils.getField(service, "running")).set("clients-running.ccol");
+		
+		service.scheduledSnapshot();
+		
+		Mockito.verifyNoInteractions(clientService);
+		Assertions.assertTrue(service.list().isEmpty());
+	}
+	
+	private static ClientDTO client(Long id) {
+		return new ClientDTO(id, "Client " + id, null, 1500.0, null, 1);
+	}
+
+}
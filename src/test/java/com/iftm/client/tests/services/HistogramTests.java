@@ -0,0 +1,41 @@
+package com.iftm.client.tests.services;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.services.util.Histogram;
+
+public class HistogramTests {
+	
+	@Test
+	public void estimateAtLeastShouldBeExactOnBucketBoundaries() {
+		SortedMap<Double, Long> counts = new TreeMap<>();
+		for (int i = 1; i <= 100; i++) {
+			counts.put(i * 100.0, 10L);
+		}
+		
+		Histogram histogram = Histogram.of(counts, 10);
+		
+		Assertions.assertEquals(1000, histogram.getTotal());
+		Assertions.assertEquals(1000, histogram.estimateAtLeast(0.0));
+		Assertions.assertEquals(500, histogram.estimateAtLeast(5100.0));
+		Assertions.assertEquals(0, histogram.estimateAtLeast(20000.0));
+	}
+	
+	@Test
+	public void estimateAtLeastShouldKeepFrequentValuesInTheirOwnBucket() {
+		SortedMap<Double, Long> counts = new TreeMap<>();
+		counts.put(1000.0, 900L);
+		counts.put(2000.0, 50L);
+		counts.put(3000.0, 50L);
+		
+		Histogram histogram = Histogram.of(counts, 3);
+		
+		Assertions.assertEquals(100, histogram.estimateAtLeast(1500.0));
+		Assertions.assertEquals(1000, histogram.estimateAtLeast(1000.0));
+	}
+	
+}
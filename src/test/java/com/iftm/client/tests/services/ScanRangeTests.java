@@ -0,0 +1,33 @@
+package com.iftm.client.tests.services;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.services.exceptions.InvalidQueryException;
+import com.iftm.client.services.util.ScanRange;
+
+public class ScanRangeTests {
+	
+	@Test
+	public void splitShouldCoverIdSpaceWithDisjointRangesAndOpenLastRange() {
+		List<ScanRange> ranges = ScanRange.split(1, 10, 4);
+		
+		Assertions.assertEquals(List.of("1-3", "4-6", "7-9", "10-" + Long.MAX_VALUE),
+				List.of(ranges.get(0).getToken(), ranges.get(1).getToken(), ranges.get(2).getToken(),
+						ranges.get(3).getToken()));
+	}
+	
+	@Test
+	public void splitShouldReturnFewerRangesWhenIdSpaceIsSmall() {
+		Assertions.assertEquals(2, ScanRange.split(5, 6, 8).size());
+	}
+	
+	@Test
+	public void parseShouldThrowInvalidQueryExceptionWhenTokenIsMalformed() {
+		Assertions.assertThrows(InvalidQueryException.class, () -> ScanRange.parse("9-1"));
+		Assertions.assertThrows(InvalidQueryException.class, () -> ScanRange.parse("abc"));
+	}
+	
+}
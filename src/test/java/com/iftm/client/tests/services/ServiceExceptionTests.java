@@ -0,0 +1,46 @@
+package com.iftm.client.tests.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.services.exceptions.ResourceNotFoundException;
+import com.iftm.client.services.exceptions.ServiceException;
+
+public class ServiceExceptionTests {
+	
+	private final boolean previous = ServiceException.isStackTraces();
+	
+	@AfterEach
+	void tearDown() {
+		ServiceException.setStackTraces(previous);
+	}
+	
+	@Test
+	public void exceptionShouldHaveNoStackTraceWhenStackTracesAreDisabled() {
+		ServiceException.setStackTraces(false);
+		
+		ResourceNotFoundException e = new ResourceNotFoundException("Id not found 1");
+		
+		Assertions.assertEquals(0, e.getStackTrace().length);
+		Assertions.assertEquals("Id not found 1", e.getMessage());
+	}
+	
+	@Test
+	public void entityNotFoundShouldReuseSharedInstanceWhenStackTracesAreDisabled() {
+		ServiceException.setStackTraces(false);
+		
+		Assertions.assertSame(ResourceNotFoundException.entityNotFound(), ResourceNotFoundException.entityNotFound());
+	}
+	
+	@Test
+	public void entityNotFoundShouldCreateNewInstanceWithStackTraceWhenEnabled() {
+		ServiceException.setStackTraces(true);
+		
+		ResourceNotFoundException e = ResourceNotFoundException.entityNotFound();
+		
+		Assertions.assertNotSame(e, ResourceNotFoundException.entityNotFound());
+		Assertions.assertTrue(e.getStackTrace().length > 0);
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.iftm.client.tests.services;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.iftm.client.entities.ChangeType;
+import com.iftm.client.entities.Client;
+import com.iftm.client.entities.ClientChange;
+import com.iftm.client.repositories.ClientChangeRepository;
+import com.iftm.client.repositories.sharding.PendingChange;
+import com.iftm.client.repositories.sharding.ShardedClientRepository;
+import com.iftm.client.services.ClientChangeService;
+import com.iftm.client.services.ClientService;
+import com.iftm.client.services.ShardChangeRelay;
+import com.iftm.client.services.events.ClientDeletedEvent;
+import com.iftm.client.services.events.ClientUpdatedEvent;
+
+@ExtendWith(SpringExtension.class)
+public class ShardChangeRelayTests {
+	
+	@InjectMocks
+	private ShardChangeRelay relay;
+	
+	@Mock
+	private ShardedClientRepository sharded;
+	
+	@Mock
+	private ClientChangeRepository changeRepository;
+	
+	@Mock
+	private ClientChangeService changeService;
+	
+	@Mock
+	private ClientService clientService;
+	
+	@Mock
+	private ApplicationEventPublisher publisher;
+	
+	@Mock
+	private PlatformTransactionManager transactionManager;
+	
+	private Instant before;
+	private Client client;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		before = Instant.parse("2020-01-01T00:00:00Z");
+		client = new Client(7L, "Client 7", "1235489461", 2000.0, Instant.parse("1958-09-20T08:00:00Z"), 1);
+	}
+	
+	@Test
+	public void relayShouldOnlyAcknowledgeChangeWhoseOutboxRowCommitted() {
+		pending(new PendingChange(0, 5L, ChangeType.UPDATE, 7L, before.minusSeconds(1)));
+		Mockito.when(changeRepository.findById(5L))
+				.thenReturn(Optional.of(new ClientChange(5L, ChangeType.UPDATE, 7L, before, client)));
+		
+		int published = relay.relay(before);
+		
+		Assertions.assertEquals(0, published);
+		Mockito.verify(sharded).acknowledge(7L, 5L);
+		Mockito.verify(changeService, Mockito.never()).append(ArgumentMatchers.any(), ArgumentMatchers.any(),
+				ArgumentMatchers.any());
+	}
+	
+	@Test
+	public void relayShouldPublishCurrentStateWhenOutboxRowIsMissing() {
+		pending(new PendingChange(0, 5L, ChangeType.UPDATE, 7L, before.minusSeconds(1)));
+		Mockito.when(changeRepository.findById(5L)).thenReturn(Optional.empty());
+		Mockito.when(sharded.findById(7L)).thenReturn(Optional.of(client));
+		Mockito.when(changeService.append(ChangeType.UPDATE, 7L, client)).thenReturn(9L);
+		
+		int published = relay.relay(before);
+		
+		Assertions.assertEquals(1, published);
+		Mockito.verify(changeService).append(ChangeType.UPDATE, 7L, client);
+		Mockito.verify(publisher).publishEvent(ArgumentMatchers.any(ClientUpdatedEvent.class));
+		Mockito.verify(sharded).acknowledge(7L, 5L);
+	}
+	
+	@Test
+	public void relayShouldPublishDeleteWhenOutboxRowBelongsToAnotherClientAndRowIsGone() {
+		pending(new PendingChange(0, 5L, ChangeType.UPDATE, 7L, before.minusSeconds(1)));
+		Mockito.when(changeRepository.findById(5L))
+				.thenReturn(Optional.of(new ClientChange(5L, ChangeType.INSERT, 8L, before, null)));
+		Mockito.when(sharded.findById(7L)).thenReturn(Optional.empty());
+		
+		int published = relay.relay(before);
+		
+		Assertions.assertEquals(1, published);
+		Mockito.verify(changeService).append(ChangeType.DELETE, 7L, null);
+		Mockito.verify(publisher).publishEvent(ArgumentMatchers.any(ClientDeletedEvent.class));
+		Mockito.verify(sharded).acknowledge(7L, 5L);
+	}
+	
+	private void pending(PendingChange change) {
+		Mockito.when(sharded.findPendingChanges(before)).thenReturn(List.of(change));
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.iftm.client.tests.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.services.exceptions.ResourceNotFoundException;
+import com.iftm.client.services.util.SingleFlight;
+
+public class SingleFlightTests {
+	
+	@Test
+	public void executeShouldShareOneCallBetweenConcurrentCallersWithSameKey() throws Exception {
+		SingleFlight flights = new SingleFlight();
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int callers = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				results.add(executor.submit(() -> flights.execute("key", () -> {
+					executions.incrementAndGet();
+					await(release);
+					return "value";
+				})));
+			}
+			while (flights.getCoalesced() < callers - 1) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+			for (Future<String> result : results) {
+				Assertions.assertEquals("value", result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		Assertions.assertEquals(1, executions.get());
+		Assertions.assertEquals(callers - 1, flights.getCoalesced());
+		Assertions.assertEquals(0, flights.getInFlight());
+	}
+	
+	@Test
+	public void executeShouldRunAgainAfterPreviousFlightFinished() {
+		SingleFlight flights = new SingleFlight();
+		AtomicInteger executions = new AtomicInteger();
+		
+		flights.execute("key", executions::incrementAndGet);
+		flights.execute("key", executions::incrementAndGet);
+		
+		Assertions.assertEquals(2, executions.get());
+		Assertions.assertEquals(0, flights.getCoalesced());
+	}
+	
+	@Test
+	public void executeShouldPropagateExceptionToCaller() {
+		SingleFlight flights = new SingleFlight();
+		
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			flights.execute("key", () -> {
+				throw new ResourceNotFoundException("Entity not found");
+			});
+		});
+		Assertions.assertEquals(0, flights.getInFlight());
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
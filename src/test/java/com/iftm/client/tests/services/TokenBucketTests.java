@@ -0,0 +1,43 @@
+package com.iftm.client.tests.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.services.util.TokenBucket;
+
+public class TokenBucketTests {
+	
+	@Test
+	public void tryAcquireShouldAllowBurstAndThenThrottle() {
+		TokenBucket bucket = new TokenBucket(1.0, 3);
+		
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertEquals(0L, bucket.tryAcquire());
+		}
+		
+		Assertions.assertTrue(bucket.tryAcquire() > 0L);
+	}
+	
+	@Test
+	public void tryAcquireShouldReturnWaitTimeBoundedByRefillInterval() {
+		TokenBucket bucket = new TokenBucket(10.0, 1);
+		bucket.tryAcquire();
+		
+		long waitNanos = bucket.tryAcquire();
+		
+		Assertions.assertTrue(waitNanos > 0L && waitNanos <= 100_000_000L);
+	}
+	
+	@Test
+	public void refundShouldReturnTokenTakenByTryAcquire() {
+		TokenBucket bucket = new TokenBucket(1.0, 1);
+		Assertions.assertEquals(0L, bucket.tryAcquire());
+		Assertions.assertFalse(bucket.isFull());
+		
+		bucket.refund();
+		
+		Assertions.assertTrue(bucket.isFull());
+		Assertions.assertEquals(0L, bucket.tryAcquire());
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.iftm.client.tests.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientField;
+import com.iftm.client.snapshot.ColumnarClientReader;
+import com.iftm.client.snapshot.ColumnarClientWriter;
+
+public class ColumnarClientSnapshotTests {
+	
+	@TempDir
+	Path directory;
+	
+	@Test
+	public void readAllShouldReturnWrittenClientsAcrossRowGroups() throws IOException {
+		List<ClientDTO> clients = new ArrayList<>();
+		for (long id = 1; id <= 250; id++) {
+			clients.add(new ClientDTO(id, "Client " + id, String.format("%011d", id * 7919), 1000.0 * (id % 5),
+					Instant.parse("1990-01-01T00:00:00Z").plusSeconds(86400 * id), (int) (id % 4)));
+		}
+		clients.add(new ClientDTO(1000L, null, null, null, null, null));
+		Path file = write(clients, 100);
+		
+		try (ColumnarClientReader reader = new ColumnarClientReader(file)) {
+			Assertions.assertEquals(3, reader.getGroupCount());
+			Assertions.assertEquals(clients.size(), reader.getRowCount());
+			List<ClientDTO> read = reader.readAll();
+			Assertions.assertEquals(clients.size(), read.size());
+			for (int i = 0; i < clients.size(); i++) {
+				for (ClientField field : ClientField.values()) {
+					Assertions.assertEquals(clients.get(i).get(field), read.get(i).get(field), field + " of row " + i);
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void readGroupShouldReturnOnlyThatGroup() throws IOException {
+		List<ClientDTO> clients = new ArrayList<>();
+		for (long id = 1; id <= 10; id++) {
+			clients.add(new ClientDTO(id, "Client " + id, null, 1500.0, null, 1));
+		}
+		Path file = write(clients, 4);
+		
+		try (ColumnarClientReader reader = new ColumnarClientReader(file)) {
+			List<ClientDTO> group = reader.readGroup(2);
+			Assertions.assertEquals(2, group.size());
+			Assertions.assertEquals(9L, group.get(0).getId());
+			Assertions.assertEquals(10L, group.get(1).getId());
+		}
+	}
+	
+	@Test
+	public void readerShouldRejectFileWithoutSnapshotMagic() throws IOException {
+		Path file = directory.resolve("clients.json");
+		Files.write(file, "[{\"id\":1},{\"id\":2},{\"id\":3}]".getBytes());
+		
+		Assertions.assertThrows(IOException.class, () -> new ColumnarClientReader(file));
+	}
+	
+	private Path write(List<ClientDTO> clients, int rowGroupSize) throws IOException {
+		Path file = directory.resolve("clients.ccol");
+		try (ColumnarClientWriter writer = new ColumnarClientWriter(Files.newOutputStream(file), rowGroupSize)) {
+			for (ClientDTO client : clients) {
+				writer.write(client);
+			}
+		}
+		return file;
+	}
+	
+}
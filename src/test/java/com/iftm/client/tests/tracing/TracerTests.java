@@ -0,0 +1,83 @@
+package com.iftm.client.tests.tracing;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.tracing.InMemorySpanExporter;
+import com.iftm.client.tracing.Span;
+import com.iftm.client.tracing.TraceContext;
+import com.iftm.client.tracing.Tracer;
+
+public class TracerTests {
+	
+	private InMemorySpanExporter exporter;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		exporter = new InMemorySpanExporter(100);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		TraceContext.clear();
+	}
+	
+	@Test
+	public void childSpansShouldBeExportedWithRootWhenRootEnds() {
+		Tracer tracer = new Tracer(true, 1.0, false, exporter);
+		
+		Span root = tracer.startTrace("GET /clients/{id}", "request-1", null);
+		Span child = TraceContext.startSpan("ClientService.findById");
+		child.end();
+		
+		Assertions.assertTrue(exporter.getFinishedSpans().isEmpty());
+		root.end();
+		
+		List<Span> spans = exporter.getFinishedSpans();
+		Assertions.assertEquals(2, spans.size());
+		Assertions.assertEquals(root.getSpanId(), spans.get(0).getParentSpanId());
+		Assertions.assertEquals(root.getTraceId(), spans.get(0).getTraceId());
+		Assertions.assertFalse(TraceContext.current().isRecording());
+	}
+	
+	@Test
+	public void startTraceShouldContinueSampledTraceparentWhenInboundSamplingIsTrusted() {
+		Tracer tracer = new Tracer(true, 0.0, true, exporter);
+		String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+		
+		Span root = tracer.startTrace("GET /clients", "request-2", "00-" + traceId + "-00f067aa0ba902b7-01");
+		
+		Assertions.assertTrue(root.isRecording());
+		Assertions.assertEquals(traceId, root.getTraceId());
+		Assertions.assertEquals("00f067aa0ba902b7", root.getParentSpanId());
+	}
+	
+	@Test
+	public void startTraceShouldIgnoreInboundSampledFlagByDefault() {
+		Tracer tracer = new Tracer(true, 0.0, false, exporter);
+		String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+		
+		Span root = tracer.startTrace("GET /clients", "request-4", "00-" + traceId + "-00f067aa0ba902b7-01");
+		
+		Assertions.assertFalse(root.isRecording());
+	}
+	
+	@Test
+	public void spansShouldBeNoOpWhenNotSampled() {
+		Tracer tracer = new Tracer(true, 0.0, false, exporter);
+		
+		Span root = tracer.startTrace("GET /clients", "request-3", null);
+		Span child = TraceContext.startSpan("ClientService.findAllPaged");
+		child.end();
+		root.end();
+		
+		Assertions.assertFalse(root.isRecording());
+		Assertions.assertFalse(child.isRecording());
+		Assertions.assertTrue(exporter.getFinishedSpans().isEmpty());
+	}
+	
+}
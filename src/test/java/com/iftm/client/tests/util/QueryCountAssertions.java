@@ -0,0 +1,36 @@
+package com.iftm.client.tests.util;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.iftm.client.datasource.QueryStatistics;
+import com.iftm.client.resources.interceptors.QueryCountHeaderAdvice;
+
+public final class QueryCountAssertions {
+	
+	private QueryCountAssertions() {
+	}
+	
+	public static <T> T assertQueryCount(long expected, Supplier<T> action) {
+		QueryStatistics.reset();
+		T result = action.get();
+		Assertions.assertEquals(expected, QueryStatistics.getCount(), "SQL statements executed");
+		return result;
+	}
+	
+	public static void assertQueryCount(long expected, Runnable action) {
+		assertQueryCount(expected, () -> {
+			action.run();
+			return null;
+		});
+	}
+	
+	public static ResultMatcher queryCount(long expected) {
+		return header().string(QueryCountHeaderAdvice.HEADER, String.valueOf(expected));
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.iftm.client.tests.warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.iftm.client.warmup.HotClientTracker;
+
+public class HotClientTrackerTests {
+	
+	@TempDir
+	Path directory;
+	
+	private HotClientTracker tracker;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		tracker = newTracker(3);
+	}
+	
+	@Test
+	public void hottestShouldOrderIdsByReadCount() {
+		tracker.record(1L);
+		tracker.record(2L);
+		tracker.record(2L);
+		tracker.record(3L);
+		tracker.record(3L);
+		tracker.record(3L);
+		
+		Assertions.assertEquals(List.of(3L, 2L), tracker.hottest(2));
+	}
+	
+	@Test
+	public void recordShouldEvictColdestIdsWhenTrackingLimitReached() {
+		tracker = newTracker(4);
+		for (long id = 1; id <= 4; id++) {
+			for (long i = 0; i < id; i++) {
+				tracker.record(id);
+			}
+		}
+		tracker.record(5L);
+		tracker.record(5L);
+		
+		Assertions.assertEquals(List.of(4L, 3L, 5L), tracker.hottest(10));
+	}
+	
+	@Test
+	public void loadPreviousShouldReturnIdsSavedByLastRun() {
+		tracker.record(7L);
+		tracker.record(7L);
+		tracker.record(5L);
+		tracker.save();
+		
+		Assertions.assertEquals(List.of(7L, 5L), newTracker(3).loadPrevious());
+	}
+	
+	private HotClientTracker newTracker(int maxTracked) {
+		HotClientTracker tracker = new HotClientTracker();
+		ReflectionTestUtils.setField(tracker, "file", directory.resolve("hot-ids.txt").toString());
+		ReflectionTestUtils.setField(tracker, "maxHotIds", 100);
+		ReflectionTestUtils.setField(tracker, "maxTracked", maxTracked);
+		return tracker;
+	}
+	
+}
@@ -0,0 +1,68 @@
+package com.iftm.client.tests.web;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.iftm.client.config.JacksonConfig;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientField;
+import com.iftm.client.dto.ClientFieldsDTO;
+import com.iftm.client.entities.Client;
+import com.iftm.client.tests.factory.ClientFactory;
+
+public class ClientJsonSerializationTests {
+	
+	private ObjectMapper reflectionMapper;
+	private ObjectMapper tunedMapper;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		reflectionMapper = new ObjectMapper()
+				.registerModule(new JavaTimeModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		tunedMapper = new ObjectMapper()
+				.registerModule(new JavaTimeModule())
+				.registerModule(new JacksonConfig().clientJsonModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+	}
+	
+	@Test
+	public void clientDTOSerializerShouldProduceSameJsonAsReflection() throws Exception {
+		ClientDTO dto = ClientFactory.createClientDTO();
+		
+		Assertions.assertEquals(reflectionMapper.readTree(reflectionMapper.writeValueAsString(dto)),
+				tunedMapper.readTree(tunedMapper.writeValueAsString(dto)));
+	}
+	
+	@Test
+	public void clientDTOSerializerShouldWriteNullFields() throws Exception {
+		ClientDTO dto = new ClientDTO();
+		
+		Assertions.assertEquals(reflectionMapper.readTree(reflectionMapper.writeValueAsString(dto)),
+				tunedMapper.readTree(tunedMapper.writeValueAsString(dto)));
+	}
+	
+	@Test
+	public void clientSerializerShouldWriteSameFieldsAsClientDTO() throws Exception {
+		Client client = ClientFactory.createClient();
+		
+		Assertions.assertEquals(tunedMapper.writeValueAsString(new ClientDTO(client)),
+				tunedMapper.writeValueAsString(client));
+	}
+	
+	@Test
+	public void clientFieldsDTOSerializerShouldWriteOnlySelectedFields() throws Exception {
+		ClientDTO dto = ClientFactory.createClientDTO();
+		ClientFieldsDTO partial = ClientFieldsDTO.of(dto, EnumSet.of(ClientField.ID, ClientField.INCOME));
+		
+		Assertions.assertEquals("{\"id\":" + dto.getId() + ",\"income\":" + dto.getIncome() + "}",
+				tunedMapper.writeValueAsString(partial));
+	}
+
+}
@@ -9,13 +9,17 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,15 +28,20 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientField;
+import com.iftm.client.dto.ClientFieldsDTO;
 import com.iftm.client.services.ClientService;
 import com.iftm.client.services.exceptions.ResourceNotFoundException;
 import com.iftm.client.tests.factory.ClientFactory;
+import com.iftm.client.warmup.HotClientTracker;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -47,6 +56,9 @@ public class ClientResourceTests {
 	@Autowired
 	private ObjectMapper objectMapper; 
 	
+	@Autowired
+	private HotClientTracker hotClients;
+	
 	private Long existingId; 
 	private Long nonExistingId;
 	private Long dependentId;
@@ -70,6 +82,8 @@ public class ClientResourceTests {
 		
 		when(service.findAll()).thenReturn(list);
 		when(service.findAllPaged(any())).thenReturn(page);
+		when(service.findAllSliced(any())).thenReturn(new SliceImpl<>(List.of(clientDTO)));
+		when(service.findAllById(any())).thenReturn(List.of(clientDTO));
 		
 		when(service.insert(any())).thenReturn(clientDTO);
 		
@@ -94,6 +108,31 @@ public class ClientResourceTests {
 		result.andExpect(jsonPath("$.id").value(existingId));
 	}
 	
+	@Test
+	public void findByIdShouldReturnOnlyRequestedFieldsWhenFieldsGiven() throws Exception {
+		ClientFieldsDTO partial = ClientFieldsDTO.of(clientDTO, EnumSet.of(ClientField.ID, ClientField.NAME));
+		when(service.findById(eq(existingId), eq(EnumSet.of(ClientField.ID, ClientField.NAME)))).thenReturn(partial);
+		
+		ResultActions result = mockMvc.perform(get("/clients/{id}", existingId)
+				.param("fields", "name")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.id").value(existingId));
+		result.andExpect(jsonPath("$.name").exists());
+		result.andExpect(jsonPath("$.cpf").doesNotExist());
+		result.andExpect(jsonPath("$.income").doesNotExist());
+	}
+	
+	@Test
+	public void findByIdShouldReturnBadRequestWhenFieldIsUnknown() throws Exception {
+		ResultActions result = mockMvc.perform(get("/clients/{id}", existingId)
+				.param("fields", "name,password")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isBadRequest());
+	}
+	
 	@Test
 	public void findByIdShouldReturnResourceNotFoundExceptionWhenIdDoesNotExists() throws Exception {
 		ResultActions result =
@@ -103,6 +142,15 @@ public class ClientResourceTests {
 		result.andExpect(status().isNotFound());
 	}
 	
+	@Test
+	public void findByIdShouldNotCountMissingIdsAsHot() throws Exception {
+		mockMvc.perform(get("/clients/{id}", nonExistingId)
+				.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isNotFound());
+		
+		Assertions.assertFalse(hotClients.hottest(Integer.MAX_VALUE).contains(nonExistingId));
+	}
+	
 	@Test
 	public void findAllShoudReturnList() throws Exception {
 		ResultActions result =
@@ -122,6 +170,95 @@ public class ClientResourceTests {
 		result.andExpect(jsonPath("$.content").exists());
 	}
 	
+	@Test
+	public void findAllByIdShouldReturnListWhenIdsAreInformed() throws Exception {
+		ResultActions result =
+				mockMvc.perform(get("/clients")
+						.param("ids", "1,2,3")
+						.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$[0].id").value(existingId));
+	}
+	
+	@Test
+	public void findAllShouldReturnNotModifiedWhenETagMatches() throws Exception {
+		String etag = mockMvc.perform(get("/clients")
+						.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("ETag"))
+				.andReturn().getResponse().getHeader("ETag");
+		
+		ResultActions result =
+				mockMvc.perform(get("/clients")
+						.header("If-None-Match", etag)
+						.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isNotModified());
+	}
+	
+	@Test
+	public void findAllShouldReturnSliceWithEstimatedTotalWhenCountIsEstimated() throws Exception {
+		ResultActions result =
+				mockMvc.perform(get("/clients")
+						.param("count", "estimated")
+						.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content").exists());
+		result.andExpect(jsonPath("$.totalElements").doesNotExist());
+		result.andExpect(header().exists("X-Total-Count-Estimate"));
+	}
+	
+	@Test
+	public void findAllWithFieldsShouldReturnPageWithTotalWhenCountIsExact() throws Exception {
+		Set<ClientField> fields = EnumSet.of(ClientField.ID, ClientField.NAME);
+		when(service.findAllPaged(any(), eq(fields)))
+				.thenReturn(new PageImpl<>(List.of(ClientFieldsDTO.of(clientDTO, fields)), PageRequest.of(0, 12), 40));
+		
+		ResultActions result =
+				mockMvc.perform(get("/clients")
+						.param("fields", "name")
+						.param("count", "exact")
+						.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content[0].name").exists());
+		result.andExpect(jsonPath("$.content[0].cpf").doesNotExist());
+		result.andExpect(jsonPath("$.totalElements").value(40));
+	}
+	
+	@Test
+	public void findAllWithFieldsShouldReturnSliceWhenCountIsNone() throws Exception {
+		Set<ClientField> fields = EnumSet.of(ClientField.ID, ClientField.NAME);
+		when(service.findAllSliced(any(), eq(fields)))
+				.thenReturn(new SliceImpl<>(List.of(ClientFieldsDTO.of(clientDTO, fields))));
+		
+		ResultActions result =
+				mockMvc.perform(get("/clients")
+						.param("fields", "name")
+						.param("count", "none")
+						.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content[0].name").exists());
+		result.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+	
+	@Test
+	public void findByIncomeShouldEstimateAllClientsWhenIncomeIsMissing() throws Exception {
+		when(service.findByIncomeSliced(any(), any())).thenReturn(new SliceImpl<>(List.of(clientDTO)));
+		
+		ResultActions result =
+				mockMvc.perform(get("/clients/find-by-income")
+						.param("count", "estimated")
+						.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content").exists());
+		result.andExpect(header().exists("X-Total-Count-Estimate"));
+	}
+	
 	@Test 
 	public void updateShouldReturnNotFoundWhenIdDoesNotExists() throws Exception {
 		String jsonBody = objectMapper.writeValueAsString(newClientDTO);
@@ -239,4 +376,14 @@ public class ClientResourceTests {
 		result.andExpect(jsonPath("$.error").value(expectedErrorMessage));
 	}
 	
-}
\ No newline at end of file
+	@Test
+	public void findByBirthDateShouldReturnBadRequestWhenDateIsInvalid() throws Exception {
+		ResultActions result =
+				mockMvc.perform(get("/clients/d={date}", "1996-13-01")
+						.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isBadRequest());
+		result.andExpect(jsonPath("$.error").value("Invalid date"));
+	}
+	
+}
@@ -0,0 +1,99 @@
+package com.iftm.client.tests.web;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.resources.interceptors.ConcurrencyLimitInterceptor;
+import com.iftm.client.services.ClientService;
+import com.iftm.client.tests.factory.ClientFactory;
+
+@SpringBootTest(properties = {
+		"client.concurrency-limit.groups.point.initial-limit=2",
+		"client.concurrency-limit.groups.point.min-limit=2",
+		"client.concurrency-limit.groups.point.max-limit=2",
+		"client.concurrency-limit.groups.point.read-share=0.5" })
+@AutoConfigureMockMvc
+public class ConcurrencyLimitInterceptorTests {
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Autowired
+	private ConcurrencyLimitInterceptor interceptor;
+	
+	@MockBean
+	private ClientService service;
+	
+	private final CountDownLatch release = new CountDownLatch(1);
+	private CompletableFuture<Void> slowRead;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		ClientDTO client = ClientFactory.createClientDTO(1L);
+		when(service.findById(1L)).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return client;
+		});
+		when(service.findById(2L)).thenReturn(ClientFactory.createClientDTO(2L));
+		when(service.update(eq(2L), any())).thenReturn(ClientFactory.createClientDTO(2L));
+		slowRead = CompletableFuture.runAsync(() -> {
+			try {
+				mockMvc.perform(get("/clients/{id}", 1L)).andExpect(status().isOk());
+			}
+			catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		while (interceptor.getInFlight().getOrDefault("point", 0) < 1) {
+			Thread.sleep(1);
+		}
+	}
+	
+	@AfterEach
+	void tearDown() throws Exception {
+		release.countDown();
+		slowRead.get(5, TimeUnit.SECONDS);
+	}
+	
+	@Test
+	public void findByIdShouldReturnServiceUnavailableWithRetryAfterWhenReadShareIsInUse() throws Exception {
+		mockMvc.perform(get("/clients/{id}", 2L))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().exists("Retry-After"))
+				.andExpect(jsonPath("$.status").value(503));
+	}
+	
+	@Test
+	public void updateShouldUseCapacityReservedForWritesWhenReadShareIsInUse() throws Exception {
+		String body = objectMapper.writeValueAsString(ClientFactory.createClientDTO(2L));
+		
+		mockMvc.perform(put("/clients/{id}", 2L).content(body).contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk());
+	}
+	
+}
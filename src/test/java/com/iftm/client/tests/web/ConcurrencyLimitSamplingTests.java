@@ -0,0 +1,63 @@
+package com.iftm.client.tests.web;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.iftm.client.config.ConcurrencyLimitProperties;
+import com.iftm.client.resources.interceptors.ConcurrencyLimitInterceptor;
+
+public class ConcurrencyLimitSamplingTests {
+	
+	private ConcurrencyLimitInterceptor interceptor;
+	private HandlerMethod handler;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		interceptor = new ConcurrencyLimitInterceptor();
+		ReflectionTestUtils.setField(interceptor, "properties", new ConcurrencyLimitProperties());
+		handler = new HandlerMethod(new Object(), Object.class.getMethod("toString"));
+	}
+	
+	@Test
+	public void afterCompletionShouldNotSampleLatencyOfRateLimitedRequests() throws Exception {
+		for (int i = 0; i < 50; i++) {
+			complete(429, 0);
+		}
+		complete(200, 20);
+		int limit = interceptor.getLimits().get("bulk");
+		
+		complete(200, 30);
+		
+		Assertions.assertEquals(limit, interceptor.getLimits().get("bulk"));
+	}
+	
+	@Test
+	public void afterCompletionShouldNotSampleLatencyOfNotModifiedResponses() throws Exception {
+		for (int i = 0; i < 50; i++) {
+			complete(304, 0);
+		}
+		complete(200, 20);
+		int limit = interceptor.getLimits().get("bulk");
+		
+		complete(200, 30);
+		
+		Assertions.assertEquals(limit, interceptor.getLimits().get("bulk"));
+	}
+	
+	private void complete(int status, long millis) throws InterruptedException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/clients/findAll");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/clients/findAll");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		interceptor.preHandle(request, response, handler);
+		Thread.sleep(millis);
+		response.setStatus(status);
+		interceptor.afterCompletion(request, response, handler, null);
+	}
+	
+}
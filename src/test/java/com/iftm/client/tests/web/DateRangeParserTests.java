@@ -0,0 +1,47 @@
+package com.iftm.client.tests.web;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.iftm.client.resources.util.DateRange;
+import com.iftm.client.resources.util.DateRangeParser;
+import com.iftm.client.services.exceptions.InvalidDateException;
+
+public class DateRangeParserTests {
+	
+	private final DateRangeParser parser = new DateRangeParser();
+	
+	@Test
+	public void parseShouldReturnWholeYearInUtcWhenOnlyYearIsInformed() {
+		DateRange range = parser.parse("1996");
+		
+		Assertions.assertEquals(Instant.parse("1996-01-01T00:00:00Z"), range.getStart());
+		Assertions.assertEquals(Instant.parse("1997-01-01T00:00:00Z"), range.getEnd());
+	}
+	
+	@Test
+	public void parseShouldReturnWholeMonthWhenYearAndMonthAreInformed() {
+		DateRange range = parser.parse("2020-02");
+		
+		Assertions.assertEquals(Instant.parse("2020-02-01T00:00:00Z"), range.getStart());
+		Assertions.assertEquals(Instant.parse("2020-03-01T00:00:00Z"), range.getEnd());
+	}
+	
+	@Test
+	public void parseShouldReturnSingleDayWhenFullDateIsInformed() {
+		DateRange range = parser.parse("1996-12-23");
+		
+		Assertions.assertEquals(Instant.parse("1996-12-23T00:00:00Z"), range.getStart());
+		Assertions.assertEquals(Instant.parse("1996-12-24T00:00:00Z"), range.getEnd());
+	}
+	
+	@Test
+	public void parseShouldThrowInvalidDateExceptionWhenDateIsInvalid() {
+		Assertions.assertThrows(InvalidDateException.class, () -> parser.parse("1996-02-30"));
+		Assertions.assertThrows(InvalidDateException.class, () -> parser.parse("abcd"));
+		Assertions.assertThrows(InvalidDateException.class, () -> parser.parse("96"));
+	}
+
+}
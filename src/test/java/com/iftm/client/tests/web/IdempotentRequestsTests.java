@@ -0,0 +1,141 @@
+package com.iftm.client.tests.web;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.iftm.client.resources.idempotency.IdempotencyStore;
+import com.iftm.client.resources.idempotency.IdempotentRequests;
+import com.iftm.client.resources.idempotency.InMemoryIdempotencyStore;
+import com.iftm.client.resources.idempotency.StoredResponse;
+import com.iftm.client.services.exceptions.IdempotencyKeyInProgressException;
+import com.iftm.client.services.exceptions.IdempotencyKeyReusedException;
+
+public class IdempotentRequestsTests {
+	
+	private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(100, 60_000L, null);
+	private final IdempotentRequests requests = new IdempotentRequests(store);
+	private final AtomicInteger executions = new AtomicInteger();
+	
+	@Test
+	public void executeShouldReplayStoredResponseWhenKeyRepeats() {
+		IdempotentRequests.Result first = requests.execute("key", "a", () -> created("a"));
+		IdempotentRequests.Result second = requests.execute("key", "a", () -> created("a"));
+		
+		Assertions.assertEquals(1, executions.get());
+		Assertions.assertFalse(first.isReplayed());
+		Assertions.assertTrue(second.isReplayed());
+		Assertions.assertEquals(first.getResponse().getBody(), second.getResponse().getBody());
+	}
+	
+	@Test
+	public void executeShouldThrowIdempotencyKeyReusedExceptionWhenFingerprintDiffers() {
+		requests.execute("key", "a", () -> created("a"));
+		
+		Assertions.assertThrows(IdempotencyKeyReusedException.class, () -> {
+			requests.execute("key", "b", () -> created("b"));
+		});
+		Assertions.assertEquals(1, executions.get());
+	}
+	
+	@Test
+	public void executeShouldRunAgainWhenPreviousAttemptFailed() {
+		Assertions.assertThrows(IllegalStateException.class, () -> {
+			requests.execute("key", "a", () -> {
+				throw new IllegalStateException();
+			});
+		});
+		
+		IdempotentRequests.Result result = requests.execute("key", "a", () -> created("a"));
+		
+		Assertions.assertFalse(result.isReplayed());
+		Assertions.assertEquals(1, executions.get());
+	}
+	
+	@Test
+	public void executeShouldRunOnceWhenDuplicatesArriveConcurrently() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		int callers = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			Future<?>[] results = new Future<?>[callers];
+			for (int i = 0; i < callers; i++) {
+				results[i] = executor.submit(() -> requests.execute("key", "a", () -> {
+					await(release);
+					return created("a");
+				}));
+			}
+			while (requests.getCoalesced() < callers - 1) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+			for (Future<?> result : results) {
+				result.get(5, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		Assertions.assertEquals(1, executions.get());
+		Assertions.assertEquals(callers - 1, requests.getReplayed());
+	}
+	
+	@Test
+	public void executeShouldThrowIdempotencyKeyInProgressExceptionWhenKeyIsReservedElsewhere() {
+		IdempotencyStore reserved = Mockito.mock(IdempotencyStore.class);
+		Mockito.when(reserved.reserve("key")).thenReturn(false);
+		IdempotentRequests remote = new IdempotentRequests(new InMemoryIdempotencyStore(100, 60_000L, reserved));
+		
+		Assertions.assertThrows(IdempotencyKeyInProgressException.class, () -> {
+			remote.execute("key", "a", () -> created("a"));
+		});
+		Assertions.assertEquals(0, executions.get());
+	}
+	
+	@Test
+	public void executeShouldReleaseReservationWhenRequestFails() {
+		IdempotencyStore backend = Mockito.mock(IdempotencyStore.class);
+		Mockito.when(backend.reserve("key")).thenReturn(true);
+		IdempotentRequests persisted = new IdempotentRequests(new InMemoryIdempotencyStore(100, 60_000L, backend));
+		
+		Assertions.assertThrows(IllegalStateException.class, () -> {
+			persisted.execute("key", "a", () -> {
+				throw new IllegalStateException();
+			});
+		});
+		
+		Mockito.verify(backend).release("key");
+		Mockito.verify(backend, Mockito.never()).put(ArgumentMatchers.eq("key"), ArgumentMatchers.any());
+	}
+	
+	@Test
+	public void getShouldReturnNullWhenEntryExpired() throws InterruptedException {
+		InMemoryIdempotencyStore shortLived = new InMemoryIdempotencyStore(100, 1L, null);
+		shortLived.put("key", created("a"));
+		Thread.sleep(5);
+		
+		Assertions.assertNull(shortLived.get("key"));
+	}
+	
+	private StoredResponse created(String fingerprint) {
+		int id = executions.incrementAndGet();
+		return new StoredResponse(fingerprint, 201, "/clients/" + id, "client-" + id);
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
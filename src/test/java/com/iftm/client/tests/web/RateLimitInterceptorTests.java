@@ -0,0 +1,57 @@
+package com.iftm.client.tests.web;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.iftm.client.services.ClientService;
+import com.iftm.client.tests.factory.ClientFactory;
+
+@SpringBootTest(properties = {
+		"client.rate-limit.routes[/clients/{id}].per-second=0.001",
+		"client.rate-limit.routes[/clients/{id}].burst=1",
+		"client.rate-limit.routes[/clients/{id}].global-per-second=1000",
+		"client.rate-limit.routes[/clients/{id}].global-burst=1000" })
+@AutoConfigureMockMvc
+public class RateLimitInterceptorTests {
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@MockBean
+	private ClientService service;
+	
+	@BeforeEach
+	void setUp() {
+		when(service.findById(1L)).thenReturn(ClientFactory.createClientDTO(1L));
+	}
+	
+	@Test
+	public void findByIdShouldReturnTooManyRequestsWithRetryAfterWhenKeyExceedsLimit() throws Exception {
+		mockMvc.perform(get("/clients/{id}", 1L).header("X-API-Key", "throttled")).andExpect(status().isOk());
+		
+		mockMvc.perform(get("/clients/{id}", 1L).header("X-API-Key", "throttled"))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().exists("Retry-After"))
+				.andExpect(jsonPath("$.status").value(429));
+	}
+	
+	@Test
+	public void findByIdShouldLimitEachKeySeparately() throws Exception {
+		mockMvc.perform(get("/clients/{id}", 1L).header("X-API-Key", "first")).andExpect(status().isOk());
+		mockMvc.perform(get("/clients/{id}", 1L).header("X-API-Key", "first")).andExpect(status().isTooManyRequests());
+		
+		mockMvc.perform(get("/clients/{id}", 1L).header("X-API-Key", "second")).andExpect(status().isOk());
+	}
+	
+}
@@ -0,0 +1,80 @@
+package com.iftm.client.tests.web;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.iftm.client.datasource.ReadWriteRoutingDataSource;
+import com.iftm.client.datasource.ReplicaMonitor;
+import com.iftm.client.datasource.RoutingContext;
+import com.iftm.client.resources.cache.ResponseCache;
+import com.iftm.client.services.ClientChangeService;
+
+public class ResponseCacheTests {
+	
+	@Test
+	public void etagShouldBeStableWithinAnInstance() {
+		ResponseCache cache = new ResponseCache(10, 0);
+		
+		Assertions.assertEquals(cache.etag("findAll", 3), cache.etag("findAll", 3));
+		Assertions.assertNotEquals(cache.etag("findAll", 3), cache.etag("findAll", 4));
+	}
+	
+	@Test
+	public void etagShouldDifferBetweenInstancesForSameVersion() {
+		ResponseCache before = new ResponseCache(10, 0);
+		ResponseCache after = new ResponseCache(10, 0);
+		
+		Assertions.assertNotEquals(before.etag("findAll", 3), after.etag("findAll", 3));
+	}
+	
+	@Test
+	public void getShouldBypassCacheWhenPrimaryIsForced() {
+		ResponseCache cache = new ResponseCache(10, 0);
+		cache.get("findAll", 3, () -> "replica");
+		
+		RoutingContext.forcePrimary();
+		try {
+			Assertions.assertEquals("primary", cache.get("findAll", 3, () -> "primary"));
+		} finally {
+			RoutingContext.clear();
+		}
+		Assertions.assertEquals("replica", cache.get("findAll", 3, () -> "reloaded"));
+	}
+	
+	@Test
+	public void getShouldNotCacheLoadFromReplicaBehindLastCommittedChange() {
+		ResponseCache cache = routedCache(5L, 4L);
+		
+		Assertions.assertEquals("stale", cache.get("findAll", 3, () -> routed("replica0", "stale")));
+		Assertions.assertEquals("fresh", cache.get("findAll", 3, () -> routed(ReadWriteRoutingDataSource.PRIMARY, "fresh")));
+		Assertions.assertEquals("fresh", cache.get("findAll", 3, () -> "reloaded"));
+	}
+	
+	@Test
+	public void getShouldCacheLoadFromReplicaThatCaughtUp() {
+		ResponseCache cache = routedCache(5L, 5L);
+		
+		cache.get("findAll", 3, () -> routed("replica0", "replica"));
+		
+		Assertions.assertEquals("replica", cache.get("findAll", 3, () -> "reloaded"));
+	}
+	
+	private static ResponseCache routedCache(long committed, long replicaPosition) {
+		ResponseCache cache = new ResponseCache(10, 0);
+		ClientChangeService changeService = Mockito.mock(ClientChangeService.class);
+		Mockito.when(changeService.getLastCommittedSequence()).thenReturn(committed);
+		ReplicaMonitor monitor = Mockito.mock(ReplicaMonitor.class);
+		Mockito.when(monitor.getPosition("replica0")).thenReturn(replicaPosition);
+		ReflectionTestUtils.setField(cache, "changeService", changeService);
+		ReflectionTestUtils.setField(cache, "replicaMonitor", monitor);
+		return cache;
+	}
+	
+	private static String routed(String route, String value) {
+		RoutingContext.recordRoute(route);
+		return value;
+	}
+	
+}
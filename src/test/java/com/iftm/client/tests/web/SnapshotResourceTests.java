@@ -0,0 +1,78 @@
+package com.iftm.client.tests.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SnapshotResourceTests {
+	
+	@TempDir
+	static Path directory;
+	
+	@DynamicPropertySource
+	static void snapshotDirectory(DynamicPropertyRegistry registry) {
+		registry.add("client.snapshot.directory", () -> directory.toString());
+	}
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	private String name;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		MvcResult result = mockMvc.perform(post("/snapshots"))
+				.andExpect(status().isAccepted())
+				.andExpect(header().exists(HttpHeaders.LOCATION))
+				.andReturn();
+		name = result.getResponse().getContentAsString();
+		for (int i = 0; i < 500 && !Files.exists(directory.resolve(name)); i++) {
+			Thread.sleep(10);
+		}
+		Assertions.assertTrue(Files.exists(directory.resolve(name)));
+	}
+	
+	@Test
+	public void downloadShouldReturnPartialContentWhenRangeRequested() throws Exception {
+		long size = Files.size(directory.resolve(name));
+		
+		MvcResult result = mockMvc.perform(get("/snapshots/{name}", name).header(HttpHeaders.RANGE, "bytes=0-9"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/" + size))
+				.andReturn();
+		
+		Assertions.assertEquals(10, result.getResponse().getContentAsByteArray().length);
+	}
+	
+	@Test
+	public void downloadShouldReturnWholeSnapshotWhenNoRangeRequested() throws Exception {
+		byte[] expected = Files.readAllBytes(directory.resolve(name));
+		
+		MvcResult result = mockMvc.perform(get("/snapshots/{name}", name))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + name + "\""))
+				.andReturn();
+		
+		Assertions.assertArrayEquals(expected, result.getResponse().getContentAsByteArray());
+	}
+	
+}